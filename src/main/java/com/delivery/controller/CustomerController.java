@@ -1,9 +1,11 @@
 package com.delivery.controller;
 
+import com.delivery.dto.CursorPageDTO;
 import com.delivery.dto.CustomerDTO;
 import com.delivery.entity.Customer;
 import com.delivery.mapper.CustomerMapper;
 import com.delivery.service.CustomerService;
+import com.delivery.service.KeysetPage;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.data.domain.Page;
@@ -31,13 +33,15 @@ public class CustomerController {
     }
 
     @GetMapping
-    @Operation(summary = "Get all customers")
-    public ResponseEntity<List<CustomerDTO>> getAllCustomers() {
+    @Operation(summary = "List customers by pages; pass nextCursor back as cursor to get the following page")
+    public ResponseEntity<CursorPageDTO<CustomerDTO>> getAllCustomers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
         try {
-            List<CustomerDTO> customers = customerService.getAllCustomers().stream()
-                    .map(customerMapper::toDTO)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(customers);
+            KeysetPage<CustomerDTO> customers = customerService.getCustomers(cursor, size).map(customerMapper::toDTO);
+            return ResponseEntity.ok(new CursorPageDTO<>(customers.getItems(), customers.getNextCursor()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
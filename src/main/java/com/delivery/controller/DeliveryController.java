@@ -1,9 +1,11 @@
 package com.delivery.controller;
 
+import com.delivery.dto.CursorPageDTO;
 import com.delivery.dto.DeliveryDTO;
 import com.delivery.entity.Delivery;
 import com.delivery.mapper.DeliveryMapper;
 import com.delivery.service.DeliveryService;
+import com.delivery.service.KeysetPage;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -24,12 +26,14 @@ public class DeliveryController {
     }
 
     @GetMapping
-    public ResponseEntity<List<DeliveryDTO>> getAllDeliveries() {
+    public ResponseEntity<CursorPageDTO<DeliveryDTO>> getAllDeliveries(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
         try {
-            List<DeliveryDTO> deliveries = deliveryService.getAllDeliveries().stream()
-                    .map(deliveryMapper::toDTO)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(deliveries);
+            KeysetPage<DeliveryDTO> deliveries = deliveryService.getDeliveries(cursor, size).map(deliveryMapper::toDTO);
+            return ResponseEntity.ok(new CursorPageDTO<>(deliveries.getItems(), deliveries.getNextCursor()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -86,12 +90,16 @@ public class DeliveryController {
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<DeliveryDTO>> getDeliveriesByStatus(@PathVariable Delivery.DeliveryStatus status) {
+    public ResponseEntity<CursorPageDTO<DeliveryDTO>> getDeliveriesByStatus(
+            @PathVariable Delivery.DeliveryStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
         try {
-            List<DeliveryDTO> deliveries = deliveryService.getDeliveriesByStatus(status).stream()
-                    .map(deliveryMapper::toDTO)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(deliveries);
+            KeysetPage<DeliveryDTO> deliveries = deliveryService.getDeliveriesByStatus(status, cursor, size)
+                    .map(deliveryMapper::toDTO);
+            return ResponseEntity.ok(new CursorPageDTO<>(deliveries.getItems(), deliveries.getNextCursor()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -110,12 +118,15 @@ public class DeliveryController {
     }
 
     @GetMapping("/unassigned")
-    public ResponseEntity<List<DeliveryDTO>> getUnassignedDeliveries() {
+    public ResponseEntity<CursorPageDTO<DeliveryDTO>> getUnassignedDeliveries(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
         try {
-            List<DeliveryDTO> deliveries = deliveryService.getUnassignedDeliveries().stream()
-                    .map(deliveryMapper::toDTO)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(deliveries);
+            KeysetPage<DeliveryDTO> page = deliveryService.getUnassignedDeliveries(cursor, size)
+                    .map(deliveryMapper::toDTO);
+            return ResponseEntity.ok(new CursorPageDTO<>(page.getItems(), page.getNextCursor()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
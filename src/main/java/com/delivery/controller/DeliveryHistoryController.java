@@ -2,18 +2,25 @@ package com.delivery.controller;
 
 import com.delivery.entity.DeliveryHistory;
 import com.delivery.service.DeliveryHistoryService;
+import com.delivery.service.KeysetPage;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import com.delivery.dto.CursorPageDTO;
 import com.delivery.dto.DeliveryHistoryDTO;
 import com.delivery.mapper.DeliveryHistoryMapper;
+import com.delivery.mapper.ExportWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -22,22 +29,72 @@ import java.util.stream.Collectors;
 @Tag(name = "Delivery History", description = "APIs for accessing delivery history and analytics")
 public class DeliveryHistoryController {
 
+    // Colonnes de l'export CSV, dans l'ordre des valeurs passées à ExportWriter.write
+    private static final String[] EXPORT_COLUMNS = {"id", "customerId", "deliveryId", "tourId", "customerName",
+            "deliveryAddress", "deliveryDate", "plannedTime", "actualTime", "delayMinutes", "dayOfWeek", "notes"};
+
     private final DeliveryHistoryService deliveryHistoryService;
     private final DeliveryHistoryMapper historyMapper;
+    private final ObjectMapper objectMapper;
 
-    public DeliveryHistoryController(DeliveryHistoryService deliveryHistoryService, DeliveryHistoryMapper historyMapper) {
+    public DeliveryHistoryController(DeliveryHistoryService deliveryHistoryService, DeliveryHistoryMapper historyMapper,
+                                     ObjectMapper objectMapper) {
         this.deliveryHistoryService = deliveryHistoryService;
         this.historyMapper = historyMapper;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Écrit sur le thread de la requête plutôt que dans un StreamingResponseBody : un export de plusieurs
+     * millions de lignes dépasserait le délai des traitements asynchrones, commun aux optimisations.
+     */
+    @GetMapping("/export")
+    @Operation(summary = "Export the whole delivery history as NDJSON or CSV, written row by row")
+    public void exportDeliveryHistory(@RequestParam(defaultValue = "NDJSON") ExportWriter.Format format,
+                                      HttpServletResponse response) throws IOException {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"delivery-history." + format.getExtension() + "\"");
+
+        ExportWriter writer = new ExportWriter(format, response.getOutputStream(), objectMapper, EXPORT_COLUMNS);
+        deliveryHistoryService.exportDeliveryHistory(history -> {
+            DeliveryHistoryDTO dto = historyMapper.toDTO(history);
+            writer.write(dto, dto.getId(), dto.getCustomerId(), dto.getDeliveryId(), dto.getTourId(),
+                    dto.getCustomerName(), dto.getDeliveryAddress(), dto.getDeliveryDate(), dto.getPlannedTime(),
+                    dto.getActualTime(), dto.getDelayMinutes(), dto.getDayOfWeek(), dto.getNotes());
+        });
+        writer.flush();
+    }
+
+    @GetMapping
+    @Operation(summary = "List delivery history by pages, most recent first; pass nextCursor back as cursor")
+    public ResponseEntity<CursorPageDTO<DeliveryHistoryDTO>> getDeliveryHistory(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
+        try {
+            KeysetPage<DeliveryHistoryDTO> history = deliveryHistoryService.getDeliveryHistory(cursor, size)
+                    .map(historyMapper::toDTO);
+            return ResponseEntity.ok(new CursorPageDTO<>(history.getItems(), history.getNextCursor()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
     }
 
     @GetMapping("/customer/{customerId}")
     @Operation(summary = "Get delivery history for a customer")
-    public ResponseEntity<List<DeliveryHistoryDTO>> getCustomerDeliveryHistory(@PathVariable Long customerId) {
+    public ResponseEntity<CursorPageDTO<DeliveryHistoryDTO>> getCustomerDeliveryHistory(
+            @PathVariable Long customerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
         try {
-            List<DeliveryHistoryDTO> history = deliveryHistoryService.getCustomerDeliveryHistory(customerId).stream()
-                    .map(historyMapper::toDTO)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(history);
+            KeysetPage<DeliveryHistoryDTO> page = deliveryHistoryService.getCustomerDeliveryHistory(customerId, cursor, size)
+                    .map(historyMapper::toDTO);
+            return ResponseEntity.ok(new CursorPageDTO<>(page.getItems(), page.getNextCursor()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -45,12 +102,16 @@ public class DeliveryHistoryController {
 
     @GetMapping("/tour/{tourId}")
     @Operation(summary = "Get delivery history for a tour")
-    public ResponseEntity<List<DeliveryHistoryDTO>> getTourDeliveryHistory(@PathVariable Long tourId) { // ⬅️ تم التعديل هنا
+    public ResponseEntity<CursorPageDTO<DeliveryHistoryDTO>> getTourDeliveryHistory(
+            @PathVariable Long tourId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
         try {
-            List<DeliveryHistoryDTO> history = deliveryHistoryService.getTourDeliveryHistory(tourId).stream()
-                    .map(historyMapper::toDTO)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(history);
+            KeysetPage<DeliveryHistoryDTO> page = deliveryHistoryService.getTourDeliveryHistory(tourId, cursor, size)
+                    .map(historyMapper::toDTO);
+            return ResponseEntity.ok(new CursorPageDTO<>(page.getItems(), page.getNextCursor()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -58,12 +119,16 @@ public class DeliveryHistoryController {
 
     @GetMapping("/delayed")
     @Operation(summary = "Get delayed deliveries")
-    public ResponseEntity<List<DeliveryHistoryDTO>> getDelayedDeliveries(@RequestParam(defaultValue = "15") Integer minDelay) { // ⬅️ تعديل النوع
+    public ResponseEntity<CursorPageDTO<DeliveryHistoryDTO>> getDelayedDeliveries(
+            @RequestParam(defaultValue = "15") Integer minDelay,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
         try {
-            List<DeliveryHistoryDTO> delayed = deliveryHistoryService.getDelayedDeliveries(minDelay).stream()
-                    .map(historyMapper::toDTO)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(delayed);
+            KeysetPage<DeliveryHistoryDTO> page = deliveryHistoryService.getDelayedDeliveries(minDelay, cursor, size)
+                    .map(historyMapper::toDTO);
+            return ResponseEntity.ok(new CursorPageDTO<>(page.getItems(), page.getNextCursor()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -0,0 +1,46 @@
+package com.delivery.controller;
+
+import com.delivery.dto.DailyPlanDTO;
+import com.delivery.exception.OptimizationRejectedException;
+import com.delivery.mapper.DailyPlanMapper;
+import com.delivery.service.PlanningService;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/planning")
+public class PlanningController {
+
+    private final PlanningService planningService;
+    private final DailyPlanMapper dailyPlanMapper;
+
+    public PlanningController(PlanningService planningService, DailyPlanMapper dailyPlanMapper) {
+        this.planningService = planningService;
+        this.dailyPlanMapper = dailyPlanMapper;
+    }
+
+    @PostMapping("/{date}")
+    @Operation(summary = "Plan tours for all pending deliveries of a day across every warehouse (optionally with as few vehicles as possible)")
+    public ResponseEntity<DailyPlanDTO> planDay(@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                                @RequestParam(defaultValue = "false") boolean minimizeVehicles) {
+        try {
+            DailyPlanDTO plan = dailyPlanMapper.toDTO(planningService.planDay(date, minimizeVehicles));
+            return ResponseEntity.status(HttpStatus.CREATED).body(plan);
+        } catch (OptimizationRejectedException e) {
+            // File d'optimisation pleine ou attente trop longue : même réponse que les optimisations de tournée
+            HttpStatus status = e.getReason() == OptimizationRejectedException.Reason.QUEUE_FULL
+                    ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.SERVICE_UNAVAILABLE;
+            return ResponseEntity.status(status)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -1,52 +1,131 @@
 package com.delivery.controller;
 
+import com.delivery.dto.CursorPageDTO;
 import com.delivery.dto.DeliveryHistoryDTO;
+import com.delivery.dto.OptimizationBatchDTO;
+import com.delivery.dto.OptimizationJobDTO;
+import com.delivery.dto.RoutePreviewDTO;
 import com.delivery.dto.TourDTO;
-import com.delivery.entity.Delivery;
 import com.delivery.entity.DeliveryHistory;
 import com.delivery.entity.Tour;
+import com.delivery.exception.OptimizationRejectedException;
+import com.delivery.mapper.ExportWriter;
+import com.delivery.mapper.OptimizationBatchMapper;
+import com.delivery.mapper.OptimizationJobMapper;
+import com.delivery.mapper.RoutePreviewMapper;
 import com.delivery.mapper.TourMapper;
+import com.delivery.optimizer.CancellationToken;
+import com.delivery.optimizer.RouteSolution;
+import com.delivery.optimizer.RoutingProblem;
+import com.delivery.service.BatchOptimizationService;
 import com.delivery.service.DeliveryHistoryService;
+import com.delivery.service.KeysetPage;
+import com.delivery.service.OptimizationBatch;
+import com.delivery.service.OptimizationJob;
+import com.delivery.service.OptimizationJobService;
+import com.delivery.service.TourLocks;
 import com.delivery.service.TourService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import io.swagger.v3.oas.annotations.Operation;
 import com.delivery.mapper.DeliveryHistoryMapper;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/tours")
 public class TourController {
 
+    // Marge laissée après le budget pour enregistrer la tournée avant que la requête n'expire
+    private static final long OPTIMIZE_TIMEOUT_GRACE_MS = 5000;
+
+    // Durée maximale d'un abonnement aux événements d'une tâche d'optimisation
+    private static final long JOB_EVENTS_TIMEOUT_MS = 30 * 60 * 1000L;
+
+    // Colonnes de l'export CSV ; deliveryIds dans l'ordre de passage, séparés par des espaces
+    private static final String[] EXPORT_COLUMNS = {"id", "date", "vehicleId", "warehouseId", "algorithmUsed",
+            "totalDistance", "distanceGain", "status", "version", "deliveryIds"};
+
     private final TourService tourService;
     private final TourMapper tourMapper;
     private final DeliveryHistoryService deliveryHistoryService;
     private final DeliveryHistoryMapper historyMapper;
+    private final OptimizationJobService optimizationJobService;
+    private final OptimizationJobMapper optimizationJobMapper;
+    private final RoutePreviewMapper routePreviewMapper;
+    private final TourLocks tourLocks;
+    private final BatchOptimizationService batchOptimizationService;
+    private final OptimizationBatchMapper optimizationBatchMapper;
+    private final ObjectMapper objectMapper;
 
-    public TourController(TourService tourService, TourMapper tourMapper, DeliveryHistoryService deliveryHistoryService, DeliveryHistoryMapper historyMapper) {
+    public TourController(TourService tourService, TourMapper tourMapper, DeliveryHistoryService deliveryHistoryService, DeliveryHistoryMapper historyMapper,
+                          OptimizationJobService optimizationJobService, OptimizationJobMapper optimizationJobMapper,
+                          RoutePreviewMapper routePreviewMapper, TourLocks tourLocks,
+                          BatchOptimizationService batchOptimizationService, OptimizationBatchMapper optimizationBatchMapper,
+                          ObjectMapper objectMapper) {
         this.tourService = tourService;
         this.tourMapper = tourMapper;
         this.deliveryHistoryService = deliveryHistoryService;
         this.historyMapper = historyMapper;
+        this.optimizationJobService = optimizationJobService;
+        this.optimizationJobMapper = optimizationJobMapper;
+        this.routePreviewMapper = routePreviewMapper;
+        this.tourLocks = tourLocks;
+        this.batchOptimizationService = batchOptimizationService;
+        this.optimizationBatchMapper = optimizationBatchMapper;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
-    public ResponseEntity<List<TourDTO>> getAllTours() {
+    @Operation(summary = "List tours by pages; pass nextCursor back as cursor to get the following page")
+    public ResponseEntity<CursorPageDTO<TourDTO>> getAllTours(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
         try {
-            List<TourDTO> tours = tourService.getAllTours().stream()
-                    .map(tourMapper::toDTO)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(tours);
+            KeysetPage<TourDTO> tours = tourService.getTourOverviews(cursor, size).map(tourMapper::toDTO);
+            return ResponseEntity.ok(new CursorPageDTO<>(tours.getItems(), tours.getNextCursor()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    // Même écriture sur le thread de la requête que l'export de l'historique
+    @GetMapping("/export")
+    @Operation(summary = "Export all tours with their delivery ids as NDJSON or CSV, written row by row")
+    public void exportTours(@RequestParam(defaultValue = "NDJSON") ExportWriter.Format format,
+                            HttpServletResponse response) throws IOException {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tours." + format.getExtension() + "\"");
+
+        ExportWriter writer = new ExportWriter(format, response.getOutputStream(), objectMapper, EXPORT_COLUMNS);
+        tourService.exportTours(overview -> {
+            TourDTO dto = tourMapper.toDTO(overview);
+            writer.write(dto, dto.getId(), dto.getDate(), dto.getVehicleId(), dto.getWarehouseId(), dto.getAlgorithmUsed(),
+                    dto.getTotalDistance(), dto.getDistanceGain(), dto.getStatus(), dto.getVersion(),
+                    dto.getDeliveryIds().stream().map(String::valueOf).collect(Collectors.joining(" ")));
+        });
+        writer.flush();
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<TourDTO> getTourById(@PathVariable Long id) {
         try {
@@ -75,9 +154,12 @@ public class TourController {
     public ResponseEntity<TourDTO> updateTour(@PathVariable Long id, @RequestBody TourDTO tourDTO) {
         try {
             Tour tour = tourMapper.toEntity(tourDTO);
-            Tour updatedTour = tourService.updateTour(id, tour);
+            tour.setVersion(tourDTO.getVersion());
+            Tour updatedTour = tourLocks.withLock(id, () -> tourService.updateTour(id, tour));
             TourDTO updatedDTO = tourMapper.toDTO(updatedTour);
             return ResponseEntity.ok(updatedDTO);
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         } catch (Exception e) {
@@ -88,8 +170,10 @@ public class TourController {
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteTour(@PathVariable Long id) {
         try {
-            tourService.deleteTour(id);
+            tourLocks.withLock(id, () -> tourService.deleteTour(id));
             return ResponseEntity.ok().build();
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         } catch (Exception e) {
@@ -98,23 +182,161 @@ public class TourController {
     }
 
     @PostMapping("/{id}/optimize")
-    public ResponseEntity<TourDTO> optimizeTour(@PathVariable Long id, @RequestParam Tour.AlgorithmType algorithm) {
+    @Operation(summary = "Optimize a tour, optionally within a time budget (best route found so far is kept)")
+    public WebAsyncTask<ResponseEntity<TourDTO>> optimizeTour(@PathVariable Long id,
+                                                              @RequestParam Tour.AlgorithmType algorithm,
+                                                              @RequestParam(required = false) Long timeBudgetMs) {
+        if (timeBudgetMs != null && timeBudgetMs <= 0) {
+            return new WebAsyncTask<>(() -> ResponseEntity.badRequest().<TourDTO>build());
+        }
+
+        // Le jeton est annulé à l'expiration du budget, ou quand la requête se termine (réponse, délai dépassé, client parti)
+        CancellationToken token = timeBudgetMs != null ? CancellationToken.withBudget(timeBudgetMs) : CancellationToken.none();
+        Callable<ResponseEntity<TourDTO>> optimization = () -> {
+            try {
+                TourDTO optimizedDTO;
+                if (timeBudgetMs == null) {
+                    // Sans budget, une optimisation identique déjà en cours est partagée plutôt que recalculée ;
+                    // elle n'est annulée qu'une fois toutes les requêtes qui l'attendent terminées ou expirées
+                    optimizedDTO = tourLocks.coalesce("optimize:" + id + ":" + algorithm, token,
+                            shared -> optimize(id, algorithm, shared));
+                } else {
+                    optimizedDTO = optimize(id, algorithm, token);
+                }
+                return ResponseEntity.ok(optimizedDTO);
+            } catch (OptimizationRejectedException e) {
+                return rejected(e);
+            } catch (ConcurrencyFailureException e) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            } catch (RuntimeException e) {
+                return ResponseEntity.notFound().build();
+            } catch (Exception e) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+            }
+        };
+
+        WebAsyncTask<ResponseEntity<TourDTO>> task = timeBudgetMs != null
+                ? new WebAsyncTask<>(timeBudgetMs + OPTIMIZE_TIMEOUT_GRACE_MS, optimization)
+                : new WebAsyncTask<>(optimization);
+        task.onTimeout(() -> {
+            token.cancel();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).<TourDTO>build();
+        });
+        task.onError(() -> {
+            token.cancel();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).<TourDTO>build();
+        });
+        task.onCompletion(token::cancel);
+        return task;
+    }
+
+    // Comme les tâches de fond : lecture et calcul hors verrou, verrou de la tournée pris pour l'écriture seulement
+    private TourDTO optimize(Long id, Tour.AlgorithmType algorithm, CancellationToken token) {
+        RoutingProblem problem = tourService.loadOptimizationProblem(id);
+        RouteSolution solution = tourService.computeOptimization(problem, algorithm, token);
+        return tourLocks.withLock(id, () -> tourMapper.toDTO(tourService.applyOptimization(id, algorithm, solution)));
+    }
+
+    @PostMapping("/optimize-batch")
+    @Operation(summary = "Optimize many tours (listed ids or all tours of a date) in parallel and save them in one transaction")
+    public ResponseEntity<OptimizationBatchDTO> optimizeBatch(
+            @RequestParam Tour.AlgorithmType algorithm,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) Long timeBudgetMs,
+            @RequestBody(required = false) List<Long> tourIds) {
+        boolean hasIds = tourIds != null && !tourIds.isEmpty();
+        if (hasIds == (date != null) || (timeBudgetMs != null && timeBudgetMs <= 0)) {
+            return ResponseEntity.badRequest().build();
+        }
         try {
-            Tour optimizedTour = tourService.optimizeTour(id, algorithm);
-            TourDTO optimizedDTO = tourMapper.toDTO(optimizedTour);
-            return ResponseEntity.ok(optimizedDTO);
+            OptimizationBatch batch = hasIds
+                    ? batchOptimizationService.optimizeTours(tourIds, algorithm, timeBudgetMs)
+                    : batchOptimizationService.optimizeDay(date, algorithm, timeBudgetMs);
+            return ResponseEntity.ok(optimizationBatchMapper.toDTO(batch));
+        } catch (OptimizationRejectedException e) {
+            return rejected(e);
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @PostMapping("/{id}/optimize-jobs")
+    @Operation(summary = "Start a background optimization of a tour and return its job immediately")
+    public ResponseEntity<OptimizationJobDTO> submitOptimizationJob(@PathVariable Long id,
+                                                                    @RequestParam Tour.AlgorithmType algorithm,
+                                                                    @RequestParam(required = false) Long timeBudgetMs) {
+        if (timeBudgetMs != null && timeBudgetMs <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            OptimizationJob job = optimizationJobService.submit(id, algorithm, timeBudgetMs);
+            return ResponseEntity.accepted()
+                    .header(HttpHeaders.LOCATION, "/api/tours/optimize-jobs/" + job.getId())
+                    .body(optimizationJobMapper.toDTO(job));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
     }
 
+    @GetMapping("/optimize-jobs/{jobId}")
+    @Operation(summary = "Get the status, phase and best distance of an optimization job")
+    public ResponseEntity<OptimizationJobDTO> getOptimizationJob(@PathVariable String jobId) {
+        return optimizationJobService.getJob(jobId)
+                .map(job -> ResponseEntity.ok(optimizationJobMapper.toDTO(job)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(value = "/optimize-jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream the progress of an optimization job (server-sent events)")
+    public ResponseEntity<SseEmitter> streamOptimizationJob(@PathVariable String jobId) {
+        Optional<OptimizationJob> job = optimizationJobService.getJob(jobId);
+        if (job.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        SseEmitter emitter = new SseEmitter(JOB_EVENTS_TIMEOUT_MS);
+        Runnable unsubscribe = job.get().subscribe(current -> {
+            try {
+                emitter.send(SseEmitter.event()
+                        .name(current.isFinished() ? "done" : "progress")
+                        .data(optimizationJobMapper.toDTO(current)));
+                if (current.isFinished()) {
+                    emitter.complete();
+                }
+            } catch (IOException e) {
+                // Client déconnecté : l'abonnement est retiré par onCompletion
+                emitter.completeWithError(e);
+            }
+        });
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        return ResponseEntity.ok(emitter);
+    }
+
+    @DeleteMapping("/optimize-jobs/{jobId}")
+    @Operation(summary = "Stop an optimization job (a running job keeps the best route found so far)")
+    public ResponseEntity<OptimizationJobDTO> cancelOptimizationJob(@PathVariable String jobId) {
+        return optimizationJobService.cancelJob(jobId)
+                .map(job -> ResponseEntity.accepted().body(optimizationJobMapper.toDTO(job)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @GetMapping("/{id}/optimized-route")
-    public ResponseEntity<List<Delivery>> getOptimizedTour(@PathVariable Long id, @RequestParam Tour.AlgorithmType algorithm) {
+    @Operation(summary = "Preview the optimized route without modifying the tour")
+    public ResponseEntity<RoutePreviewDTO> getOptimizedTour(@PathVariable Long id, @RequestParam Tour.AlgorithmType algorithm) {
         try {
-            List<Delivery> optimizedRoute = tourService.getOptimizedTour(id, algorithm);
-            return ResponseEntity.ok(optimizedRoute);
+            RouteSolution preview = tourService.previewOptimization(id, algorithm);
+            return ResponseEntity.ok(routePreviewMapper.toDTO(id, algorithm, preview));
+        } catch (OptimizationRejectedException e) {
+            return rejected(e);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         } catch (Exception e) {
@@ -127,6 +349,10 @@ public class TourController {
         try {
             Double distance = tourService.getTotalDistance(id, algorithm);
             return ResponseEntity.ok(distance);
+        } catch (OptimizationRejectedException e) {
+            return rejected(e);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         } catch (Exception e) {
@@ -135,48 +361,61 @@ public class TourController {
     }
 
     @GetMapping("/date/{date}")
-    public ResponseEntity<List<TourDTO>> getToursByDate(@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+    public ResponseEntity<CursorPageDTO<TourDTO>> getToursByDate(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
         try {
-            List<TourDTO> tours = tourService.getToursByDate(date).stream()
-                    .map(tourMapper::toDTO)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(tours);
+            KeysetPage<TourDTO> page = tourService.getTourOverviewsByDate(date, cursor, size).map(tourMapper::toDTO);
+            return ResponseEntity.ok(new CursorPageDTO<>(page.getItems(), page.getNextCursor()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
     @GetMapping("/vehicle/{vehicleId}")
-    public ResponseEntity<List<TourDTO>> getToursByVehicle(@PathVariable Long vehicleId) {
+    public ResponseEntity<CursorPageDTO<TourDTO>> getToursByVehicle(
+            @PathVariable Long vehicleId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
         try {
-            List<TourDTO> tours = tourService.getToursByVehicle(vehicleId).stream()
-                    .map(tourMapper::toDTO)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(tours);
+            KeysetPage<TourDTO> page = tourService.getTourOverviewsByVehicle(vehicleId, cursor, size)
+                    .map(tourMapper::toDTO);
+            return ResponseEntity.ok(new CursorPageDTO<>(page.getItems(), page.getNextCursor()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
     @GetMapping("/algorithm/nearest-neighbor")
-    public ResponseEntity<List<TourDTO>> getToursWithNearestNeighbor() {
+    public ResponseEntity<CursorPageDTO<TourDTO>> getToursWithNearestNeighbor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
         try {
-            List<TourDTO> tours = tourService.getToursWithNearestNeighbor().stream()
-                    .map(tourMapper::toDTO)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(tours);
+            KeysetPage<TourDTO> page = tourService.getTourOverviewsByAlgorithm(Tour.AlgorithmType.NEAREST_NEIGHBOR, cursor, size)
+                    .map(tourMapper::toDTO);
+            return ResponseEntity.ok(new CursorPageDTO<>(page.getItems(), page.getNextCursor()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
     @GetMapping("/algorithm/clarke-wright")
-    public ResponseEntity<List<TourDTO>> getToursWithClarkeWright() {
+    public ResponseEntity<CursorPageDTO<TourDTO>> getToursWithClarkeWright(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
         try {
-            List<TourDTO> tours = tourService.getToursWithClarkeWright().stream()
-                    .map(tourMapper::toDTO)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(tours);
+            KeysetPage<TourDTO> page = tourService.getTourOverviewsByAlgorithm(Tour.AlgorithmType.CLARKE_WRIGHT, cursor, size)
+                    .map(tourMapper::toDTO);
+            return ResponseEntity.ok(new CursorPageDTO<>(page.getItems(), page.getNextCursor()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -184,10 +423,26 @@ public class TourController {
 
 
     @PostMapping("/{tourId}/deliveries/{deliveryId}")
-    public ResponseEntity<Void> addDeliveryToTour(@PathVariable Long tourId, @PathVariable Long deliveryId) {
+    @Operation(summary = "Insert a delivery at its cheapest position in the tour, optionally repairing the route around it")
+    public ResponseEntity<Void> addDeliveryToTour(@PathVariable Long tourId, @PathVariable Long deliveryId,
+                                                  @RequestParam(defaultValue = "false") boolean repair) {
         try {
-            tourService.addDeliveryToTour(tourId, deliveryId);
+            // Déplacement depuis une autre tournée : les deux sont verrouillées, dans l'ordre de TourLocks.withLocks
+            Long sourceTourId = tourService.findTourIdOfDelivery(deliveryId).orElse(null);
+            List<Long> lockedTourIds = sourceTourId != null ? List.of(tourId, sourceTourId) : List.of(tourId);
+            tourLocks.withLocks(lockedTourIds, () -> {
+                // La livraison a pu changer de tournée avant la prise des verrous : celle-ci n'est pas verrouillée
+                if (!Objects.equals(sourceTourId, tourService.findTourIdOfDelivery(deliveryId).orElse(null))) {
+                    throw new ConcurrencyFailureException("Delivery " + deliveryId + " was moved to another tour meanwhile");
+                }
+                tourService.addDeliveryToTour(tourId, deliveryId, repair);
+                return null;
+            });
             return ResponseEntity.ok().build();
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         } catch (Exception e) {
@@ -196,10 +451,14 @@ public class TourController {
     }
 
     @DeleteMapping("/{tourId}/deliveries/{deliveryId}")
-    public ResponseEntity<Void> removeDeliveryFromTour(@PathVariable Long tourId, @PathVariable Long deliveryId) {
+    @Operation(summary = "Remove a delivery from the tour by linking its neighbours, optionally repairing the route")
+    public ResponseEntity<Void> removeDeliveryFromTour(@PathVariable Long tourId, @PathVariable Long deliveryId,
+                                                       @RequestParam(defaultValue = "false") boolean repair) {
         try {
-            tourService.removeDeliveryFromTour(tourId, deliveryId);
+            tourLocks.withLock(tourId, () -> tourService.removeDeliveryFromTour(tourId, deliveryId, repair));
             return ResponseEntity.ok().build();
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         } catch (Exception e) {
@@ -230,15 +489,35 @@ public class TourController {
         }
     }
 
+    @PostMapping("/plan")
+    @Operation(summary = "Plan capacity-feasible tours for a warehouse using Clarke & Wright")
+    public ResponseEntity<List<TourDTO>> planWarehouseTours(
+            @RequestParam Long warehouseId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestBody(required = false) List<Long> deliveryIds) {
+        try {
+            List<TourDTO> plannedTours = tourService.planWarehouseTours(warehouseId, date, deliveryIds).stream()
+                    .map(tourMapper::toDTO)
+                    .collect(Collectors.toList());
+            return ResponseEntity.status(HttpStatus.CREATED).body(plannedTours);
+        } catch (OptimizationRejectedException e) {
+            return rejected(e);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @PutMapping("/{tourId}/status")
     @Operation(summary = "Update tour status and automatically generate delivery history when completed")
     public ResponseEntity<TourDTO> updateTourStatus(
             @PathVariable Long tourId,
             @RequestParam Tour.TourStatus newStatus) {
         try {
-            Tour updatedTour = tourService.updateTourStatus(tourId, newStatus);
+            Tour updatedTour = tourLocks.withLock(tourId, () -> tourService.updateTourStatus(tourId, newStatus));
             TourDTO updatedDTO = tourMapper.toDTO(updatedTour);
             return ResponseEntity.ok(updatedDTO);
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         } catch (Exception e) {
@@ -259,16 +538,28 @@ public class TourController {
 
     @GetMapping("/{tourId}/history")
     @Operation(summary = "Get delivery history for a tour")
-    public ResponseEntity<List<DeliveryHistoryDTO>> getTourHistory(@PathVariable Long tourId) { // ⬅️ تغيير النوع إلى DTO
+    public ResponseEntity<CursorPageDTO<DeliveryHistoryDTO>> getTourHistory(
+            @PathVariable Long tourId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
         try {
-            List<DeliveryHistoryDTO> historyDTOs = deliveryHistoryService.getTourDeliveryHistory(tourId).stream()
-                    .map(historyMapper::toDTO)
-                    .collect(Collectors.toList());
-
-            return ResponseEntity.ok(historyDTOs);
+            KeysetPage<DeliveryHistoryDTO> page = deliveryHistoryService.getTourDeliveryHistory(tourId, cursor, size)
+                    .map(historyMapper::toDTO);
+            return ResponseEntity.ok(new CursorPageDTO<>(page.getItems(), page.getNextCursor()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    // File de l'algorithme pleine : 429, attente en file trop longue : 503, avec le délai conseillé avant un nouvel essai
+    private static <T> ResponseEntity<T> rejected(OptimizationRejectedException e) {
+        HttpStatus status = e.getReason() == OptimizationRejectedException.Reason.QUEUE_FULL
+                ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .build();
+    }
+
 }
\ No newline at end of file
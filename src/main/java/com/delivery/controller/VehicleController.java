@@ -1,8 +1,10 @@
 package com.delivery.controller;
 
+import com.delivery.dto.CursorPageDTO;
 import com.delivery.dto.VehicleDTO;
 import com.delivery.entity.Vehicle;
 import com.delivery.mapper.VehicleMapper;
+import com.delivery.service.KeysetPage;
 import com.delivery.service.VehicleService;
 import io.swagger.v3.oas.annotations.Operation;
 import org.springframework.http.HttpStatus;
@@ -25,12 +27,14 @@ public class VehicleController {
     }
 
     @GetMapping
-    public ResponseEntity<List<VehicleDTO>> getAllVehicles() {
+    public ResponseEntity<CursorPageDTO<VehicleDTO>> getAllVehicles(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
         try {
-            List<VehicleDTO> vehicles = vehicleService.getAllVehicles().stream()
-                    .map(vehicleMapper::toDTO)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(vehicles);
+            KeysetPage<VehicleDTO> page = vehicleService.getVehicles(cursor, size).map(vehicleMapper::toDTO);
+            return ResponseEntity.ok(new CursorPageDTO<>(page.getItems(), page.getNextCursor()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -1,8 +1,10 @@
 package com.delivery.controller;
 
+import com.delivery.dto.CursorPageDTO;
 import com.delivery.dto.WarehouseDTO;
 import com.delivery.entity.Warehouse;
 import com.delivery.mapper.WarehouseMapper;
+import com.delivery.service.KeysetPage;
 import com.delivery.service.WarehouseService;
 import io.swagger.v3.oas.annotations.Operation;
 import org.springframework.http.HttpStatus;
@@ -25,12 +27,14 @@ public class WarehouseController {
     }
 
     @GetMapping
-    public ResponseEntity<List<WarehouseDTO>> getAllWarehouses() {
+    public ResponseEntity<CursorPageDTO<WarehouseDTO>> getAllWarehouses(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
         try {
-            List<WarehouseDTO> warehouses = warehouseService.getAllWarehouses().stream()
-                    .map(warehouseMapper::toDTO)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(warehouses);
+            KeysetPage<WarehouseDTO> page = warehouseService.getWarehouses(cursor, size).map(warehouseMapper::toDTO);
+            return ResponseEntity.ok(new CursorPageDTO<>(page.getItems(), page.getNextCursor()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -0,0 +1,16 @@
+package com.delivery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+    private List<T> items = new ArrayList<>();
+    private String nextCursor; // à renvoyer en paramètre cursor ; null sur la dernière page
+}
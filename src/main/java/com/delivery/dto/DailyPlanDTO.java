@@ -0,0 +1,20 @@
+package com.delivery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyPlanDTO {
+    private LocalDate date;
+    private Integer plannedDeliveryCount;
+    private List<Long> unplannedDeliveryIds = new ArrayList<>();
+    private Long durationMs;
+    private List<TourDTO> tours = new ArrayList<>();
+}
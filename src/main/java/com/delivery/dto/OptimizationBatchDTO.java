@@ -0,0 +1,33 @@
+package com.delivery.dto;
+
+import com.delivery.entity.Tour;
+import com.delivery.service.OptimizationBatch;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OptimizationBatchDTO {
+    private Tour.AlgorithmType algorithm;
+    private Long optimizedCount;
+    private Long failedCount;
+    private Long durationMs;
+    private List<TourOutcome> outcomes = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TourOutcome {
+        private Long tourId;
+        private OptimizationBatch.Status status;
+        private Double previousDistance; // en km
+        private Double totalDistance; // en km
+        private Double distanceGain; // en km, gagnés par la recherche locale
+        private String error;
+    }
+}
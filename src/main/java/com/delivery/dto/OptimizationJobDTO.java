@@ -0,0 +1,25 @@
+package com.delivery.dto;
+
+import com.delivery.entity.Tour;
+import com.delivery.service.OptimizationJob;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OptimizationJobDTO {
+    private String id;
+    private Long tourId;
+    private Tour.AlgorithmType algorithm;
+    private OptimizationJob.Status status;
+    private String phase;
+    private Double bestDistance; // en km, meilleure tournée connue
+    private Double distanceGain;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+}
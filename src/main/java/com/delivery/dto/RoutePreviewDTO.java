@@ -0,0 +1,31 @@
+package com.delivery.dto;
+
+import com.delivery.entity.Tour;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoutePreviewDTO {
+    private Long tourId;
+    private Tour.AlgorithmType algorithm;
+    private Double totalDistance; // en km, retour à l'entrepôt compris
+    private Double returnDistance;
+    private Integer timeWindowViolations;
+    private Boolean capacityExceeded;
+    private List<Stop> stops = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Stop {
+        private Long deliveryId;
+        private Integer order;
+        private Double legDistance; // en km, depuis l'arrêt précédent
+    }
+}
@@ -19,6 +19,8 @@ public class TourDTO {
     private Long warehouseId;
     private Tour.AlgorithmType algorithmUsed;
     private Double totalDistance;
+    private Double distanceGain;
     private Tour.TourStatus status;
+    private Long version;
     private List<Long> deliveryIds = new ArrayList<>();
 }
\ No newline at end of file
@@ -18,7 +18,8 @@ import java.util.regex.Pattern;
 public class Customer {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customers_seq")
+    @SequenceGenerator(name = "customers_seq", sequenceName = "customers_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 100)
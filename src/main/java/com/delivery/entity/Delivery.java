@@ -16,7 +16,8 @@ import java.util.regex.Pattern;
 public class Delivery {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "deliveries_seq")
+    @SequenceGenerator(name = "deliveries_seq", sequenceName = "deliveries_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -45,6 +46,10 @@ public class Delivery {
     @Column(name = "delivery_order")
     private Integer order; // Ordre dans la tournée
 
+    @Version
+    @Column(nullable = false)
+    private Long version; // verrou optimiste
+
     public enum DeliveryStatus {
         PENDING, IN_TRANSIT, DELIVERED, FAILED
     }
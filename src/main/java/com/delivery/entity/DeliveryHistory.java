@@ -17,7 +17,8 @@ import java.time.DayOfWeek;
 public class DeliveryHistory {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "delivery_history_seq")
+    @SequenceGenerator(name = "delivery_history_seq", sequenceName = "delivery_history_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
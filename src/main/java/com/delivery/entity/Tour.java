@@ -19,7 +19,8 @@ import java.util.List;
 public class Tour {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tours_seq")
+    @SequenceGenerator(name = "tours_seq", sequenceName = "tours_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -36,23 +37,32 @@ public class Tour {
     private Warehouse warehouse;
 
     @Enumerated(EnumType.STRING)
-    @Column(nullable = false, length = 20)
+    @Column(nullable = false, length = 30)
     private AlgorithmType algorithmUsed;
 
     @Column(nullable = false)
     private Double totalDistance; // en km
 
+    @Column(name = "distance_gain")
+    private Double distanceGain; // en km, gagnés par la recherche locale
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 15)
     private TourStatus status = TourStatus.PLANNED;
 
+    @Version
+    @Column(nullable = false)
+    private Long version; // verrou optimiste : une écriture concurrente sur une version périmée échoue
+
     @OneToMany(mappedBy = "tour", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @OrderBy("order ASC")
     @JsonIgnore
     private List<Delivery> deliveries = new ArrayList<>();
 
     public enum AlgorithmType {
-        NEAREST_NEIGHBOR, CLARKE_WRIGHT, AI_OPTIMIZER
+        NEAREST_NEIGHBOR, CLARKE_WRIGHT, AI_OPTIMIZER,
+        NEAREST_NEIGHBOR_2OPT, CLARKE_WRIGHT_2OPT, MULTI_START, LIN_KERNIGHAN,
+        TIME_WINDOW
     }
 
     public enum TourStatus {
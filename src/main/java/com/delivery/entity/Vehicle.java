@@ -17,7 +17,8 @@ import java.util.List;
 public class Vehicle {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vehicles_seq")
+    @SequenceGenerator(name = "vehicles_seq", sequenceName = "vehicles_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true, length = 20)
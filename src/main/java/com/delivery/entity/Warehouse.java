@@ -17,7 +17,8 @@ import java.util.regex.Pattern;
 public class Warehouse {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "warehouses_seq")
+    @SequenceGenerator(name = "warehouses_seq", sequenceName = "warehouses_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 100)
@@ -0,0 +1,29 @@
+package com.delivery.exception;
+
+/**
+ * Optimisation refusée à l'admission : file de l'algorithme pleine, ou attente en file trop longue.
+ * retryAfterSeconds est une estimation du délai avant qu'une place se libère.
+ */
+public class OptimizationRejectedException extends RuntimeException {
+
+    public enum Reason {
+        QUEUE_FULL, QUEUE_TIMEOUT
+    }
+
+    private final Reason reason;
+    private final long retryAfterSeconds;
+
+    public OptimizationRejectedException(String message, Reason reason, long retryAfterSeconds) {
+        super(message);
+        this.reason = reason;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
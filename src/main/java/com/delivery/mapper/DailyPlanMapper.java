@@ -0,0 +1,38 @@
+package com.delivery.mapper;
+
+import com.delivery.dto.DailyPlanDTO;
+import com.delivery.entity.Delivery;
+import com.delivery.service.DailyPlan;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Collectors;
+
+@Component
+public class DailyPlanMapper {
+
+    private final TourMapper tourMapper;
+
+    public DailyPlanMapper(TourMapper tourMapper) {
+        this.tourMapper = tourMapper;
+    }
+
+    public DailyPlanDTO toDTO(DailyPlan plan) {
+        if (plan == null) {
+            return null;
+        }
+
+        DailyPlanDTO dto = new DailyPlanDTO();
+        dto.setDate(plan.getDate());
+        dto.setPlannedDeliveryCount(plan.getTours().stream()
+                .mapToInt(tour -> tour.getDeliveries().size())
+                .sum());
+        dto.setUnplannedDeliveryIds(plan.getUnplannedDeliveries().stream()
+                .map(Delivery::getId)
+                .collect(Collectors.toList()));
+        dto.setDurationMs(plan.getDurationMs());
+        dto.setTours(plan.getTours().stream()
+                .map(tourMapper::toDTO)
+                .collect(Collectors.toList()));
+        return dto;
+    }
+}
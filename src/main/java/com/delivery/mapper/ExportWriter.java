@@ -0,0 +1,101 @@
+package com.delivery.mapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Écriture ligne à ligne d'un export : un objet JSON par ligne (NDJSON) ou une ligne CSV avec en-tête.
+ * Rien n'est conservé entre deux lignes : la mémoire ne dépend pas du nombre de lignes exportées.
+ */
+public class ExportWriter {
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Format format;
+    private final OutputStream out;
+    private final ObjectMapper objectMapper;
+
+    public ExportWriter(Format format, OutputStream out, ObjectMapper objectMapper, String... columns) {
+        this.format = format;
+        this.out = new BufferedOutputStream(out, BUFFER_SIZE);
+        this.objectMapper = objectMapper;
+        if (format == Format.CSV) {
+            writeCsvLine((Object[]) columns);
+        }
+    }
+
+    /**
+     * Écrit une ligne : dto en NDJSON, values (dans l'ordre des colonnes) en CSV.
+     * Appelée depuis un Consumer : les erreurs d'écriture (client déconnecté) remontent en UncheckedIOException.
+     */
+    public void write(Object dto, Object... values) {
+        try {
+            if (format == Format.NDJSON) {
+                out.write(objectMapper.writeValueAsBytes(dto));
+                out.write('\n');
+            } else {
+                writeCsvLine(values);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private void writeCsvLine(Object... values) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            line.append(csvField(values[i]));
+        }
+        line.append("\r\n");
+        try {
+            out.write(line.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // RFC 4180 : champ entre guillemets s'il contient un séparateur, un guillemet ou un saut de ligne
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,29 @@
+package com.delivery.mapper;
+
+import com.delivery.dto.OptimizationBatchDTO;
+import com.delivery.service.OptimizationBatch;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Collectors;
+
+@Component
+public class OptimizationBatchMapper {
+
+    public OptimizationBatchDTO toDTO(OptimizationBatch batch) {
+        if (batch == null) {
+            return null;
+        }
+
+        OptimizationBatchDTO dto = new OptimizationBatchDTO();
+        dto.setAlgorithm(batch.getAlgorithm());
+        dto.setOptimizedCount(batch.count(OptimizationBatch.Status.OPTIMIZED));
+        dto.setFailedCount(batch.count(OptimizationBatch.Status.FAILED));
+        dto.setDurationMs(batch.getDurationMs());
+        dto.setOutcomes(batch.getOutcomes().stream()
+                .map(outcome -> new OptimizationBatchDTO.TourOutcome(outcome.getTourId(), outcome.getStatus(),
+                        outcome.getPreviousDistance(), outcome.getTotalDistance(), outcome.getDistanceGain(),
+                        outcome.getError()))
+                .collect(Collectors.toList()));
+        return dto;
+    }
+}
@@ -0,0 +1,28 @@
+package com.delivery.mapper;
+
+import com.delivery.dto.OptimizationJobDTO;
+import com.delivery.service.OptimizationJob;
+import org.springframework.stereotype.Component;
+
+@Component
+public class OptimizationJobMapper {
+
+    public OptimizationJobDTO toDTO(OptimizationJob job) {
+        if (job == null) {
+            return null;
+        }
+
+        OptimizationJobDTO dto = new OptimizationJobDTO();
+        dto.setId(job.getId());
+        dto.setTourId(job.getTourId());
+        dto.setAlgorithm(job.getAlgorithm());
+        dto.setStatus(job.getStatus());
+        dto.setPhase(job.getPhase());
+        dto.setBestDistance(job.getBestDistance());
+        dto.setDistanceGain(job.getDistanceGain());
+        dto.setError(job.getError());
+        dto.setCreatedAt(job.getCreatedAt());
+        dto.setFinishedAt(job.getFinishedAt());
+        return dto;
+    }
+}
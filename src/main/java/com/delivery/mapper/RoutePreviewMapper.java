@@ -0,0 +1,35 @@
+package com.delivery.mapper;
+
+import com.delivery.dto.RoutePreviewDTO;
+import com.delivery.entity.Tour;
+import com.delivery.optimizer.RouteMetrics;
+import com.delivery.optimizer.RouteSolution;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class RoutePreviewMapper {
+
+    public RoutePreviewDTO toDTO(Long tourId, Tour.AlgorithmType algorithmType, RouteSolution solution) {
+        if (solution == null) {
+            return null;
+        }
+
+        RouteMetrics metrics = solution.getMetrics();
+        RoutePreviewDTO dto = new RoutePreviewDTO();
+        dto.setTourId(tourId);
+        dto.setAlgorithm(algorithmType);
+        dto.setTotalDistance(metrics.getTotalDistance());
+        dto.setReturnDistance(metrics.getReturnDistance());
+        dto.setTimeWindowViolations(metrics.getTimeWindowViolations());
+        dto.setCapacityExceeded(metrics.isCapacityExceeded());
+
+        List<Long> deliveryIds = solution.getDeliveryIds();
+        double[] legDistances = metrics.getLegDistances();
+        for (int i = 0; i < deliveryIds.size(); i++) {
+            dto.getStops().add(new RoutePreviewDTO.Stop(deliveryIds.get(i), i + 1, legDistances[i]));
+        }
+        return dto;
+    }
+}
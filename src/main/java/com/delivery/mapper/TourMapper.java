@@ -2,6 +2,8 @@ package com.delivery.mapper;
 
 import com.delivery.dto.TourDTO;
 import com.delivery.entity.Tour;
+import com.delivery.repository.TourSummary;
+import com.delivery.service.TourOverview;
 import com.delivery.service.VehicleService;
 import com.delivery.service.WarehouseService;
 import org.springframework.stereotype.Component;
@@ -32,7 +34,9 @@ public class TourMapper {
         dto.setWarehouseId(tour.getWarehouse() != null ? tour.getWarehouse().getId() : null);
         dto.setAlgorithmUsed(tour.getAlgorithmUsed());
         dto.setTotalDistance(tour.getTotalDistance());
+        dto.setDistanceGain(tour.getDistanceGain());
         dto.setStatus(tour.getStatus());
+        dto.setVersion(tour.getVersion());
         dto.setDeliveryIds(tour.getDeliveries().stream()
                 .map(delivery -> delivery.getId())
                 .collect(Collectors.toList()));
@@ -40,6 +44,27 @@ public class TourMapper {
         return dto;
     }
 
+    public TourDTO toDTO(TourOverview overview) {
+        if (overview == null) {
+            return null;
+        }
+
+        TourSummary summary = overview.getSummary();
+        TourDTO dto = new TourDTO();
+        dto.setId(summary.getId());
+        dto.setDate(summary.getDate());
+        dto.setVehicleId(summary.getVehicleId());
+        dto.setWarehouseId(summary.getWarehouseId());
+        dto.setAlgorithmUsed(summary.getAlgorithmUsed());
+        dto.setTotalDistance(summary.getTotalDistance());
+        dto.setDistanceGain(summary.getDistanceGain());
+        dto.setStatus(summary.getStatus());
+        dto.setVersion(summary.getVersion());
+        dto.setDeliveryIds(overview.getDeliveryIds());
+
+        return dto;
+    }
+
     public Tour toEntity(TourDTO dto) {
         if (dto == null) {
             return null;
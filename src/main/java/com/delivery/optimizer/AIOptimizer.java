@@ -2,36 +2,48 @@ package com.delivery.optimizer;
 
 import com.delivery.dto.ai.AIOptimizationRequest;
 import com.delivery.dto.ai.AIOptimizationResponse;
-import com.delivery.entity.Delivery;
-import com.delivery.entity.Warehouse;
-import com.delivery.entity.Vehicle;
 import com.delivery.entity.DeliveryHistory;
 import com.delivery.repository.DeliveryHistoryRepository;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
 
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
-@Component
+@Component("aiOptimizer")
 @ConditionalOnProperty(name = "app.optimizer.active", havingValue = "ai", matchIfMissing = false)
 public class AIOptimizer implements TourOptimizer {
 
     private static final Logger logger = LoggerFactory.getLogger(AIOptimizer.class);
 
+    // Historique transmis à l'IA : les livraisons les plus récentes
+    private static final int HISTORY_SIZE = 100;
+
+    // Intervalle de vérification du jeton pendant l'appel à l'IA
+    private static final long CANCELLATION_POLL_MS = 200;
+
     private final ChatClient chatClient;
     private final ObjectMapper objectMapper;
     private final DeliveryHistoryRepository deliveryHistoryRepository;
     private final NearestNeighborOptimizer fallbackOptimizer;
+    private final ExecutorService aiExecutor = Executors.newCachedThreadPool();
 
     @Autowired
     public AIOptimizer(ChatClient chatClient,
@@ -43,79 +55,76 @@ public class AIOptimizer implements TourOptimizer {
         this.fallbackOptimizer = fallbackOptimizer;
     }
 
+    /**
+     * Ordre proposé par l'IA à partir de l'instantané (noms, adresses et créneaux compris) et de l'historique récent.
+     * Le plus proche voisin prend le relais si l'IA échoue, répond mal, dépasse le budget ou si le jeton est annulé.
+     */
     @Override
-    public List<Delivery> calculateOptimalTour(Warehouse warehouse, List<Delivery> deliveries, Vehicle vehicle) {
+    public RouteSolution solve(RoutingProblem problem, CancellationToken token) {
         logger.info("Starting AI optimization for {} deliveries from warehouse: {}",
-                deliveries.size(), warehouse.getName());
+                problem.deliveryCount(), problem.name(DistanceMatrix.DEPOT));
+        if (problem.deliveryCount() == 0) {
+            return fallbackOptimizer.solve(problem, token);
+        }
 
         try {
             // Préparer les données pour l'IA
-            AIOptimizationRequest request = prepareOptimizationRequest(warehouse, deliveries, vehicle);
+            AIOptimizationRequest request = prepareOptimizationRequest(problem);
 
-            // Appeler l'IA
-            AIOptimizationResponse response = callAIForOptimization(request);
+            // Appeler l'IA, dans la limite du temps accordé
+            AIOptimizationResponse response = callAIWithinBudget(request, token);
 
-            if (response.isSuccess()) {
-                return applyAIOptimization(deliveries, response);
-            } else {
-                logger.warn("AI optimization failed, falling back to Nearest Neighbor");
-                return fallbackOptimizer.calculateOptimalTour(warehouse, deliveries, vehicle);
+            if (response.isSuccess() && response.getResult() != null && response.getResult().getOptimizedRoute() != null) {
+                // L'ordre vient de l'IA : la tournée est seulement évaluée, sans second appel
+                return RouteSolution.of(problem, applyAIOptimization(problem, response));
             }
-
+            logger.warn("AI optimization failed, falling back to Nearest Neighbor");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("AI optimization interrupted, falling back to Nearest Neighbor");
         } catch (Exception e) {
             logger.error("AI optimization error: {}", e.getMessage(), e);
             logger.info("Falling back to Nearest Neighbor due to AI error");
-            return fallbackOptimizer.calculateOptimalTour(warehouse, deliveries, vehicle);
         }
+        return fallbackOptimizer.solve(problem, token);
     }
 
-    @Override
-    public Double calculateTotalDistance(Warehouse warehouse, List<Delivery> deliveries) {
-        try {
-            List<Delivery> optimizedDeliveries = calculateOptimalTour(warehouse, deliveries, null);
-            return calculateTotalDistanceFromOptimizedRoute(warehouse, optimizedDeliveries);
-        } catch (Exception e) {
-            logger.error("AI distance calculation failed, using fallback", e);
-            return fallbackOptimizer.calculateTotalDistance(warehouse, deliveries);
-        }
-    }
-
-    private AIOptimizationRequest prepareOptimizationRequest(Warehouse warehouse,
-                                                             List<Delivery> deliveries,
-                                                             Vehicle vehicle) {
+    private AIOptimizationRequest prepareOptimizationRequest(RoutingProblem problem) {
         AIOptimizationRequest request = new AIOptimizationRequest();
 
         // Données de l'entrepôt
+        int depot = DistanceMatrix.DEPOT;
         request.setWarehouse(new AIOptimizationRequest.WarehouseData(
-                warehouse.getId(), warehouse.getName(), warehouse.getAddress(),
-                warehouse.getLatitude(), warehouse.getLongitude(), warehouse.getOpeningHours()
+                problem.warehouseId(), problem.name(depot), problem.address(depot),
+                problem.latitude(depot), problem.longitude(depot), problem.timeSlot(depot)
         ));
 
         // Données des livraisons
-        List<AIOptimizationRequest.DeliveryData> deliveryDataList = deliveries.stream()
-                .map(delivery -> new AIOptimizationRequest.DeliveryData(
-                        delivery.getId(),
-                        delivery.getWeight(),
-                        delivery.getVolume(),
-                        delivery.getPreferredTimeSlot(),
-                        delivery.getAddress(),
-                        delivery.getLatitude(),
-                        delivery.getLongitude(),
-                        delivery.getCustomer().getName(),
-                        delivery.getCustomer().getPreferredTimeSlot()
-                ))
-                .collect(Collectors.toList());
+        List<AIOptimizationRequest.DeliveryData> deliveryDataList = new ArrayList<>(problem.deliveryCount());
+        for (int i = 1; i <= problem.deliveryCount(); i++) {
+            deliveryDataList.add(new AIOptimizationRequest.DeliveryData(
+                    problem.deliveryId(i),
+                    problem.weight(i),
+                    problem.volume(i),
+                    problem.timeSlot(i),
+                    problem.address(i),
+                    problem.latitude(i),
+                    problem.longitude(i),
+                    problem.name(i),
+                    problem.customerTimeSlot(i)
+            ));
+        }
         request.setDeliveries(deliveryDataList);
 
         // Données du véhicule
-        if (vehicle != null) {
+        if (problem.hasVehicle()) {
             request.setVehicle(new AIOptimizationRequest.VehicleData(
-                    vehicle.getLicensePlate(),
-                    vehicle.getType().toString(),
-                    vehicle.getMaxWeight(),
-                    vehicle.getMaxVolume(),
-                    vehicle.getMaxDeliveries(),
-                    vehicle.getRange()
+                    problem.vehicleLicensePlate(),
+                    problem.vehicleType(),
+                    problem.maxWeight(),
+                    problem.maxVolume(),
+                    problem.maxDeliveries(),
+                    problem.vehicleRange()
             ));
         }
 
@@ -126,9 +135,8 @@ public class AIOptimizer implements TourOptimizer {
     }
 
     private AIOptimizationRequest.HistoricalData prepareHistoricalData() {
-        List<DeliveryHistory> recentHistory = deliveryHistoryRepository.findAll().stream()
-                .limit(100) // Limiter aux 100 dernières livraisons
-                .collect(Collectors.toList());
+        // Les 100 dernières livraisons, clients chargés par la même requête : appelé hors transaction
+        List<DeliveryHistory> recentHistory = deliveryHistoryRepository.findFirstPage(PageRequest.of(0, HISTORY_SIZE));
 
         List<AIOptimizationRequest.HistoricalData.DeliveryHistory> historicalDeliveries =
                 recentHistory.stream()
@@ -177,6 +185,36 @@ public class AIOptimizer implements TourOptimizer {
         );
     }
 
+    /**
+     * Appel sur un thread dédié, attendu par tranches : l'appel est abandonné dès que le jeton est annulé
+     * (client parti) ou que son budget est consommé.
+     */
+    private AIOptimizationResponse callAIWithinBudget(AIOptimizationRequest request, CancellationToken token)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        Future<AIOptimizationResponse> call = aiExecutor.submit(() -> callAIForOptimization(request));
+        while (true) {
+            long remaining = token.remainingMillis();
+            if (remaining == 0) {
+                call.cancel(true);
+                logger.warn("AI optimization cancelled or exceeded its time budget");
+                throw new TimeoutException("AI optimization cancelled or exceeded its time budget");
+            }
+            try {
+                return call.get(Math.min(remaining, CANCELLATION_POLL_MS), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Toujours en cours : vérifier le jeton à nouveau
+            } catch (InterruptedException e) {
+                call.cancel(true);
+                throw e;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        aiExecutor.shutdownNow();
+    }
+
     private AIOptimizationResponse callAIForOptimization(AIOptimizationRequest request) {
         try {
             String requestJson = objectMapper.writeValueAsString(request);
@@ -298,80 +336,37 @@ public class AIOptimizer implements TourOptimizer {
         return response;
     }
 
-    private List<Delivery> applyAIOptimization(List<Delivery> deliveries, AIOptimizationResponse response) {
-        // Créer une map pour accéder rapidement aux livraisons par ID
-        var deliveryMap = deliveries.stream()
-                .collect(Collectors.toMap(Delivery::getId, delivery -> delivery));
-
-        // Appliquer l'ordre optimisé
-        List<Delivery> optimizedDeliveries = new ArrayList<>();
-
-        for (AIOptimizationResponse.OptimizedDelivery optimized :
-                response.getResult().getOptimizedRoute()) {
-
-            Delivery delivery = deliveryMap.get(optimized.getDeliveryId());
-            if (delivery != null) {
-                delivery.setOrder(optimized.getOrder());
-                optimizedDeliveries.add(delivery);
+    /**
+     * Ordre proposé par l'IA en index du problème. Les identifiants inconnus ou répétés sont ignorés ;
+     * les livraisons oubliées par l'IA sont ajoutées en fin de tournée, pour que toutes soient servies.
+     */
+    private int[] applyAIOptimization(RoutingProblem problem, AIOptimizationResponse response) {
+        List<AIOptimizationResponse.OptimizedDelivery> proposed =
+                new ArrayList<>(response.getResult().getOptimizedRoute());
+        proposed.sort(Comparator.comparing(AIOptimizationResponse.OptimizedDelivery::getOrder,
+                Comparator.nullsLast(Comparator.naturalOrder())));
+
+        int[] route = new int[problem.deliveryCount()];
+        boolean[] placed = new boolean[problem.size()];
+        int position = 0;
+        for (AIOptimizationResponse.OptimizedDelivery optimized : proposed) {
+            int index = problem.indexOf(optimized.getDeliveryId());
+            if (index > 0 && !placed[index]) {
+                placed[index] = true;
+                route[position++] = index;
             }
         }
 
-        // Trier par ordre
-        optimizedDeliveries.sort(Comparator.comparing(Delivery::getOrder));
-
-        logger.info("AI optimization applied successfully. Optimized {} deliveries",
-                optimizedDeliveries.size());
-
-        return optimizedDeliveries;
-    }
-
-    private Double calculateTotalDistanceFromOptimizedRoute(Warehouse warehouse,
-                                                            List<Delivery> optimizedDeliveries) {
-        if (optimizedDeliveries.isEmpty()) {
-            return 0.0;
-        }
-
-        double totalDistance = 0.0;
-
-        // Distance entre l'entrepôt et la première livraison
-        totalDistance += calculateDistance(
-                warehouse.getLatitude(), warehouse.getLongitude(),
-                optimizedDeliveries.get(0).getLatitude(),
-                optimizedDeliveries.get(0).getLongitude()
-        );
-
-        // Distances entre les livraisons
-        for (int i = 0; i < optimizedDeliveries.size() - 1; i++) {
-            totalDistance += calculateDistance(
-                    optimizedDeliveries.get(i).getLatitude(),
-                    optimizedDeliveries.get(i).getLongitude(),
-                    optimizedDeliveries.get(i + 1).getLatitude(),
-                    optimizedDeliveries.get(i + 1).getLongitude()
-            );
+        if (position < route.length) {
+            logger.warn("AI route covers {} of {} deliveries, appending the missing ones", position, route.length);
+            for (int index = 1; index < problem.size(); index++) {
+                if (!placed[index]) {
+                    route[position++] = index;
+                }
+            }
         }
 
-        // Distance entre la dernière livraison et l'entrepôt
-        totalDistance += calculateDistance(
-                optimizedDeliveries.get(optimizedDeliveries.size() - 1).getLatitude(),
-                optimizedDeliveries.get(optimizedDeliveries.size() - 1).getLongitude(),
-                warehouse.getLatitude(), warehouse.getLongitude()
-        );
-
-        return totalDistance;
-    }
-
-    private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        final int R = 6371; // Rayon de la Terre en km
-
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lonDistance = Math.toRadians(lon2 - lon1);
-
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
-
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-
-        return R * c;
+        logger.info("AI optimization applied successfully. Optimized {} deliveries", route.length);
+        return route;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,85 @@
+package com.delivery.optimizer;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Jeton d'arrêt partagé entre l'appelant et un optimiseur : échéance de temps (optionnelle)
+ * et annulation explicite, par exemple quand la requête HTTP est abandonnée.
+ * Les optimiseurs itératifs le consultent dans leurs boucles et rendent alors la meilleure tournée trouvée ;
+ * ils y signalent aussi leur progression quand un suivi est attaché.
+ */
+public final class CancellationToken {
+
+    private final long deadlineNanos;
+    private final boolean hasDeadline;
+    private volatile boolean cancelled;
+    private volatile OptimizationProgress progress;
+    private final List<Runnable> cancelListeners = new CopyOnWriteArrayList<>();
+
+    private CancellationToken(long deadlineNanos, boolean hasDeadline) {
+        this.deadlineNanos = deadlineNanos;
+        this.hasDeadline = hasDeadline;
+    }
+
+    /**
+     * Jeton sans échéance, qui ne s'arrête que sur cancel().
+     */
+    public static CancellationToken none() {
+        return new CancellationToken(0L, false);
+    }
+
+    public static CancellationToken withBudget(long budgetMs) {
+        return new CancellationToken(System.nanoTime() + budgetMs * 1_000_000L, true);
+    }
+
+    public CancellationToken onProgress(OptimizationProgress progress) {
+        this.progress = progress;
+        return this;
+    }
+
+    public void reportProgress(String phase, double distance) {
+        OptimizationProgress listener = progress;
+        if (listener != null) {
+            listener.report(phase, distance);
+        }
+    }
+
+    /**
+     * Action exécutée une seule fois à l'annulation explicite, tout de suite si le jeton est déjà annulé ;
+     * l'échéance seule ne la déclenche pas.
+     */
+    public void onCancel(Runnable listener) {
+        cancelListeners.add(listener);
+        if (cancelled && cancelListeners.remove(listener)) {
+            listener.run();
+        }
+    }
+
+    public void cancel() {
+        cancelled = true;
+        // remove() n'aboutit qu'une fois par action, même si cancel() et onCancel() se croisent
+        for (Runnable listener : cancelListeners) {
+            if (cancelListeners.remove(listener)) {
+                listener.run();
+            }
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled || (hasDeadline && System.nanoTime() - deadlineNanos >= 0);
+    }
+
+    /**
+     * Temps restant avant l'échéance en millisecondes (Long.MAX_VALUE sans échéance, 0 si annulé).
+     */
+    public long remainingMillis() {
+        if (cancelled) {
+            return 0L;
+        }
+        if (!hasDeadline) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0L, (deadlineNanos - System.nanoTime()) / 1_000_000L);
+    }
+}
@@ -7,228 +7,288 @@ import org.springframework.stereotype.Component;
 
 import java.util.*;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
 @Component
-public class ClarkeWrightOptimizer implements TourOptimizer {
+public class ClarkeWrightOptimizer implements TourOptimizer, FleetOptimizer {
 
     private static final Logger logger = Logger.getLogger(ClarkeWrightOptimizer.class.getName());
 
+    // Extrémité libre d'une tournée (reliée à l'entrepôt)
+    private static final int NONE = DistanceMatrix.DEPOT;
+
     @Override
-    public List<Delivery> calculateOptimalTour(Warehouse warehouse, List<Delivery> deliveries, Vehicle vehicle) {
-        logger.info("Calculating tour using Clarke & Wright algorithm for " + deliveries.size() + " deliveries");
+    public RouteSolution solve(RoutingProblem problem, CancellationToken token) {
+        logger.info("Calculating tour using Clarke & Wright algorithm for " + problem.deliveryCount() + " deliveries");
+
+        RouteSolution solution = RouteSolution.of(problem, buildRoute(problem));
+
+        logger.info("Clarke & Wright optimization completed. Route with " + problem.deliveryCount()
+                + " deliveries - Distance: " + solution.getTotalDistance() + " km");
+        return solution;
+    }
+
+    @Override
+    public List<List<Delivery>> calculateRoutes(Warehouse warehouse, List<Delivery> deliveries, Vehicle vehicle) {
+        logger.info("Calculating fleet routes using Clarke & Wright algorithm for " + deliveries.size() + " deliveries");
 
         if (deliveries.isEmpty()) {
             return new ArrayList<>();
         }
 
-        if (deliveries.size() == 1) {
-            // Cas simple : une seule livraison
-            deliveries.get(0).setOrder(1);
-            return deliveries;
+        List<List<Delivery>> routes = new ArrayList<>();
+        for (int[] route : buildRoutes(RoutingProblem.of(warehouse, deliveries, vehicle))) {
+            routes.add(toDeliveries(route, deliveries));
         }
 
-        // Étape 1: Calculer les économies
-        List<Savings> savings = calculateSavings(warehouse, deliveries);
-
-        // Étape 2: Initialiser les tours individuelles
-        List<List<Delivery>> tours = initializeIndividualTours(deliveries);
-
-        // Étape 3: Fusionner les tours par ordre d'économie décroissante
-        tours = mergeTours(warehouse, tours, savings, vehicle);
-
-        // Étape 4: Retourner la tournée optimisée (on prend la première tournée fusionnée)
-        List<Delivery> optimizedRoute = tours.get(0);
+        logger.info("Clarke & Wright fleet optimization completed. " + routes.size() + " routes");
+        return routes;
+    }
 
-        // Assigner l'ordre aux livraisons
-        for (int i = 0; i < optimizedRoute.size(); i++) {
-            optimizedRoute.get(i).setOrder(i + 1);
+    private int[] buildRoute(RoutingProblem problem) {
+        List<int[]> routes = buildRoutes(problem);
+        if (routes.size() == 1) {
+            return routes.get(0);
         }
 
-        logger.info("Clarke & Wright optimization completed. Route with " + optimizedRoute.size() + " deliveries");
-        return optimizedRoute;
+        // Plusieurs tournées restantes : on les enchaîne pour ne perdre aucune livraison
+        int[] route = new int[problem.deliveryCount()];
+        int position = 0;
+        for (int[] part : routes) {
+            System.arraycopy(part, 0, route, position, part.length);
+            position += part.length;
+        }
+        return route;
     }
 
-    @Override
-    public Double calculateTotalDistance(Warehouse warehouse, List<Delivery> deliveries) {
-        if (deliveries.isEmpty()) {
-            return 0.0;
+    private List<int[]> buildRoutes(RoutingProblem problem) {
+        if (problem.deliveryCount() == 1) {
+            // Cas simple : une seule livraison
+            List<int[]> routes = new ArrayList<>();
+            routes.add(new int[]{1});
+            return routes;
         }
 
-        List<Delivery> optimizedDeliveries = calculateOptimalTour(warehouse, deliveries, null);
-        double totalDistance = 0.0;
+        // Étape 1: Calculer et trier les économies
+        Savings savings = calculateSavings(problem.distanceMatrix());
 
-        // Distance entre l'entrepôt et la première livraison
-        totalDistance += calculateDistance(
-                warehouse.getLatitude(), warehouse.getLongitude(),
-                optimizedDeliveries.get(0).getLatitude(), optimizedDeliveries.get(0).getLongitude()
-        );
+        // Étape 2 et 3: Fusionner les tours individuelles par ordre d'économie décroissante
+        RouteMerger merger = new RouteMerger(problem);
+        merger.mergeAll(savings);
 
-        // Distances entre les livraisons
-        for (int i = 0; i < optimizedDeliveries.size() - 1; i++) {
-            totalDistance += calculateDistance(
-                    optimizedDeliveries.get(i).getLatitude(), optimizedDeliveries.get(i).getLongitude(),
-                    optimizedDeliveries.get(i + 1).getLatitude(), optimizedDeliveries.get(i + 1).getLongitude()
-            );
-        }
+        // Étape 4: Toutes les tournées respectant la capacité du véhicule
+        return merger.routes();
+    }
 
-        // Distance entre la dernière livraison et l'entrepôt
-        totalDistance += calculateDistance(
-                optimizedDeliveries.get(optimizedDeliveries.size() - 1).getLatitude(),
-                optimizedDeliveries.get(optimizedDeliveries.size() - 1).getLongitude(),
-                warehouse.getLatitude(), warehouse.getLongitude()
-        );
+    private Savings calculateSavings(DistanceMatrix matrix) {
+        int stops = matrix.size() - 1;
+        int count = (int) ((long) stops * (stops - 1) / 2);
+
+        int[] from = new int[count];
+        int[] to = new int[count];
+        long[] sortKeys = new long[count];
+
+        int k = 0;
+        for (int i = 1; i <= stops; i++) {
+            double depotToI = matrix.distance(DistanceMatrix.DEPOT, i);
+            for (int j = i + 1; j <= stops; j++) {
+                double saving = depotToI + matrix.distance(DistanceMatrix.DEPOT, j) - matrix.distance(i, j);
+                from[k] = i;
+                to[k] = j;
+                sortKeys[k] = sortKey(saving, k);
+                k++;
+            }
+        }
 
-        logger.info("Total distance calculated: " + totalDistance + " km");
-        return totalDistance;
+        // Tri primitif parallèle : l'économie est dans les 32 bits de poids fort, l'index de la paire dans les autres
+        Arrays.parallelSort(sortKeys);
+        return new Savings(from, to, sortKeys);
     }
 
-    private List<Savings> calculateSavings(Warehouse warehouse, List<Delivery> deliveries) {
-        List<Savings> savings = new ArrayList<>();
-
-        for (int i = 0; i < deliveries.size(); i++) {
-            for (int j = i + 1; j < deliveries.size(); j++) {
-                Delivery d1 = deliveries.get(i);
-                Delivery d2 = deliveries.get(j);
+    private static long sortKey(double saving, int pairIndex) {
+        int bits = Float.floatToIntBits((float) saving);
+        // Rend l'ordre des bits signés identique à l'ordre des flottants (valeurs négatives comprises)
+        int orderedBits = bits ^ ((bits >> 31) & 0x7fffffff);
+        return ((long) orderedBits << 32) | (pairIndex & 0xffffffffL);
+    }
 
-                double distWarehouseD1 = calculateDistance(
-                        warehouse.getLatitude(), warehouse.getLongitude(),
-                        d1.getLatitude(), d1.getLongitude()
-                );
+    private List<Delivery> toDeliveries(int[] route, List<Delivery> deliveries) {
+        List<Delivery> optimizedRoute = new ArrayList<>(route.length);
 
-                double distWarehouseD2 = calculateDistance(
-                        warehouse.getLatitude(), warehouse.getLongitude(),
-                        d2.getLatitude(), d2.getLongitude()
-                );
+        // Assigner l'ordre aux livraisons
+        for (int i = 0; i < route.length; i++) {
+            Delivery delivery = deliveries.get(route[i] - 1);
+            delivery.setOrder(i + 1);
+            optimizedRoute.add(delivery);
+        }
 
-                double distD1D2 = calculateDistance(
-                        d1.getLatitude(), d1.getLongitude(),
-                        d2.getLatitude(), d2.getLongitude()
-                );
+        return optimizedRoute;
+    }
 
-                double saving = distWarehouseD1 + distWarehouseD2 - distD1D2;
-                savings.add(new Savings(d1, d2, saving));
-            }
+    /**
+     * Paires (from[k], to[k]) en tableaux parallèles ; sortKeys trié par économie croissante.
+     */
+    private static final class Savings {
+        private final int[] from;
+        private final int[] to;
+        private final long[] sortKeys;
+
+        private Savings(int[] from, int[] to, long[] sortKeys) {
+            this.from = from;
+            this.to = to;
+            this.sortKeys = sortKeys;
         }
 
-        // Trier par économie décroissante
-        savings.sort(Comparator.comparingDouble(Savings::getSaving).reversed());
-        return savings;
-    }
+        private int size() {
+            return sortKeys.length;
+        }
 
-    private List<List<Delivery>> initializeIndividualTours(List<Delivery> deliveries) {
-        return deliveries.stream()
-                .map(d -> new ArrayList<>(List.of(d)))
-                .collect(Collectors.toList());
+        // rank 0 = plus grande économie
+        private int pairAt(int rank) {
+            return (int) sortKeys[sortKeys.length - 1 - rank];
+        }
     }
 
-    private List<List<Delivery>> mergeTours(Warehouse warehouse, List<List<Delivery>> tours,
-                                            List<Savings> savings, Vehicle vehicle) {
-        for (Savings saving : savings) {
-            List<Delivery> tour1 = findTourContaining(tours, saving.getDelivery1());
-            List<Delivery> tour2 = findTourContaining(tours, saving.getDelivery2());
-
-            if (tour1 != null && tour2 != null && tour1 != tour2) {
-                if (canMerge(warehouse, tour1, tour2, vehicle)) {
-                    List<Delivery> mergedTour = mergeTwoTours(tour1, tour2, saving);
-                    tours.remove(tour1);
-                    tours.remove(tour2);
-                    tours.add(mergedTour);
-
-                    // Si toutes les livraisons sont dans une seule tournée, on arrête
-                    if (tours.size() == 1) {
-                        break;
-                    }
-                }
+    /**
+     * Fusion des tournées : appartenance par union-find, extrémités et charges par racine,
+     * chaînage des livraisons par deux liens (NONE = extrémité reliée à l'entrepôt).
+     */
+    private static final class RouteMerger {
+        private final int stops;
+        private final int[] parent;
+        private final int[] head;
+        private final int[] tail;
+        private final int[] count;
+        private final double[] weight;
+        private final double[] volume;
+        private final int[] link1;
+        private final int[] link2;
+
+        private final RoutingProblem problem;
+
+        private int routeCount;
+
+        private RouteMerger(RoutingProblem problem) {
+            this.problem = problem;
+            this.stops = problem.deliveryCount();
+            int size = stops + 1;
+            this.parent = new int[size];
+            this.head = new int[size];
+            this.tail = new int[size];
+            this.count = new int[size];
+            this.weight = new double[size];
+            this.volume = new double[size];
+            this.link1 = new int[size];
+            this.link2 = new int[size];
+
+            // Étape 2: une tournée individuelle par livraison
+            for (int i = 1; i <= stops; i++) {
+                parent[i] = i;
+                head[i] = i;
+                tail[i] = i;
+                count[i] = 1;
+                weight[i] = problem.weight(i);
+                volume[i] = problem.volume(i);
             }
+            this.routeCount = stops;
         }
 
-        return tours;
-    }
-
-    private List<Delivery> findTourContaining(List<List<Delivery>> tours, Delivery delivery) {
-        return tours.stream()
-                .filter(tour -> tour.contains(delivery))
-                .findFirst()
-                .orElse(null);
-    }
+        private void mergeAll(Savings savings) {
+            for (int rank = 0; rank < savings.size() && routeCount > 1; rank++) {
+                int pair = savings.pairAt(rank);
+                merge(savings.from[pair], savings.to[pair]);
+            }
+        }
 
-    private boolean canMerge(Warehouse warehouse, List<Delivery> tour1, List<Delivery> tour2, Vehicle vehicle) {
-        if (vehicle == null) return true;
+        private void merge(int i, int j) {
+            int rootI = find(i);
+            int rootJ = find(j);
 
-        // Vérifier les contraintes de capacité
-        double totalWeight = tour1.stream().mapToDouble(Delivery::getWeight).sum() +
-                tour2.stream().mapToDouble(Delivery::getWeight).sum();
-        double totalVolume = tour1.stream().mapToDouble(Delivery::getVolume).sum() +
-                tour2.stream().mapToDouble(Delivery::getVolume).sum();
-        int totalDeliveries = tour1.size() + tour2.size();
+            // Les deux livraisons doivent être aux extrémités de deux tournées distinctes
+            if (rootI == rootJ || link2[i] != NONE || link2[j] != NONE) {
+                return;
+            }
+            if (!canMerge(rootI, rootJ)) {
+                return;
+            }
 
-        return totalWeight <= vehicle.getMaxWeight() &&
-                totalVolume <= vehicle.getMaxVolume() &&
-                totalDeliveries <= vehicle.getMaxDeliveries();
-    }
+            int otherEndI = head[rootI] == i ? tail[rootI] : head[rootI];
+            int otherEndJ = head[rootJ] == j ? tail[rootJ] : head[rootJ];
 
-    private List<Delivery> mergeTwoTours(List<Delivery> tour1, List<Delivery> tour2, Savings saving) {
-        // Vérifier si les livraisons sont aux extrémités des tours
-        boolean tour1StartsWithD1 = tour1.get(0).equals(saving.getDelivery1());
-        boolean tour1EndsWithD1 = tour1.get(tour1.size() - 1).equals(saving.getDelivery1());
-        boolean tour2StartsWithD2 = tour2.get(0).equals(saving.getDelivery2());
-        boolean tour2EndsWithD2 = tour2.get(tour2.size() - 1).equals(saving.getDelivery2());
-
-        if (tour1EndsWithD1 && tour2StartsWithD2) {
-            List<Delivery> merged = new ArrayList<>(tour1);
-            merged.addAll(tour2);
-            return merged;
-        } else if (tour1StartsWithD1 && tour2EndsWithD2) {
-            List<Delivery> merged = new ArrayList<>(tour2);
-            merged.addAll(tour1);
-            return merged;
-        } else if (tour1EndsWithD1 && tour2EndsWithD2) {
-            // Inverser la deuxième tournée
-            Collections.reverse(tour2);
-            List<Delivery> merged = new ArrayList<>(tour1);
-            merged.addAll(tour2);
-            return merged;
-        } else if (tour1StartsWithD1 && tour2StartsWithD2) {
-            // Inverser la première tournée
-            Collections.reverse(tour1);
-            List<Delivery> merged = new ArrayList<>(tour1);
-            merged.addAll(tour2);
-            return merged;
-        }
-
-        // Si les conditions de fusion ne sont pas remplies, retourner tour1
-        return tour1;
-    }
+            connect(i, j);
+            connect(j, i);
 
-    private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        final int R = 6371; // Rayon de la Terre en km
+            int root = union(rootI, rootJ);
+            head[root] = otherEndI;
+            tail[root] = otherEndJ;
+            count[root] = count[rootI] + count[rootJ];
+            weight[root] = weight[rootI] + weight[rootJ];
+            volume[root] = volume[rootI] + volume[rootJ];
+            routeCount--;
+        }
 
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lonDistance = Math.toRadians(lon2 - lon1);
+        private boolean canMerge(int rootI, int rootJ) {
+            // Vérifier les contraintes de capacité à partir des charges cumulées
+            return problem.fitsVehicle(weight[rootI] + weight[rootJ], volume[rootI] + volume[rootJ],
+                    count[rootI] + count[rootJ]);
+        }
 
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
+        private void connect(int node, int neighbor) {
+            if (link1[node] == NONE) {
+                link1[node] = neighbor;
+            } else {
+                link2[node] = neighbor;
+            }
+        }
 
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        private int find(int node) {
+            int root = node;
+            while (parent[root] != root) {
+                root = parent[root];
+            }
+            while (parent[node] != root) {
+                int next = parent[node];
+                parent[node] = root;
+                node = next;
+            }
+            return root;
+        }
 
-        return R * c;
-    }
+        private int union(int rootI, int rootJ) {
+            if (count[rootI] < count[rootJ]) {
+                parent[rootI] = rootJ;
+                return rootJ;
+            }
+            parent[rootJ] = rootI;
+            return rootI;
+        }
 
-    private static class Savings {
-        private final Delivery delivery1;
-        private final Delivery delivery2;
-        private final double saving;
+        /**
+         * Tournées résultantes (index matrice), dans l'ordre de leur première livraison.
+         */
+        private List<int[]> routes() {
+            List<int[]> routes = new ArrayList<>(routeCount);
+            boolean[] emitted = new boolean[stops + 1];
+
+            for (int i = 1; i <= stops; i++) {
+                int root = find(i);
+                if (emitted[root]) {
+                    continue;
+                }
+                emitted[root] = true;
+
+                int[] route = new int[count[root]];
+                int previous = NONE;
+                int current = head[root];
+                for (int position = 0; position < route.length; position++) {
+                    route[position] = current;
+                    int next = link1[current] != previous ? link1[current] : link2[current];
+                    previous = current;
+                    current = next;
+                }
+                routes.add(route);
+            }
 
-        public Savings(Delivery delivery1, Delivery delivery2, double saving) {
-            this.delivery1 = delivery1;
-            this.delivery2 = delivery2;
-            this.saving = saving;
+            return routes;
         }
-
-        public Delivery getDelivery1() { return delivery1; }
-        public Delivery getDelivery2() { return delivery2; }
-        public double getSaving() { return saving; }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,122 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Warehouse;
+
+import java.util.List;
+
+/**
+ * Matrice des distances (haversine, en km) d'une optimisation, calculée une seule fois.
+ * L'index 0 est l'entrepôt, l'index i (1..n) est la i-ème livraison (voir RoutingProblem).
+ * Stockage triangulaire dans un double[] plat : chaque paire n'est calculée qu'une fois.
+ */
+public final class DistanceMatrix {
+
+    public static final int DEPOT = 0;
+
+    private static final double EARTH_RADIUS_KM = 6371;
+
+    private final int size;
+    private final double[] distances;
+
+    private DistanceMatrix(int size, double[] distances) {
+        this.size = size;
+        this.distances = distances;
+    }
+
+    public static DistanceMatrix fromCoordinates(double[] latitudes, double[] longitudes) {
+        int size = latitudes.length;
+        long cells = (long) size * (size - 1) / 2;
+        if (cells > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Trop de points pour une matrice de distances: " + size);
+        }
+
+        // Radians et cosinus pré-calculés une fois par point au lieu d'une fois par paire
+        double[] latRad = new double[size];
+        double[] lonRad = new double[size];
+        double[] cosLat = new double[size];
+        for (int i = 0; i < size; i++) {
+            latRad[i] = Math.toRadians(latitudes[i]);
+            lonRad[i] = Math.toRadians(longitudes[i]);
+            cosLat[i] = Math.cos(latRad[i]);
+        }
+
+        double[] distances = new double[(int) cells];
+        int k = 0;
+        for (int i = 1; i < size; i++) {
+            for (int j = 0; j < i; j++) {
+                distances[k++] = haversineRadians(latRad[i], lonRad[i], cosLat[i], latRad[j], lonRad[j], cosLat[j]);
+            }
+        }
+
+        return new DistanceMatrix(size, distances);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double distance(int from, int to) {
+        if (from == to) {
+            return 0.0;
+        }
+        int high = Math.max(from, to);
+        int low = Math.min(from, to);
+        return distances[(int) ((long) high * (high - 1) / 2) + low];
+    }
+
+    /**
+     * Distance d'une tournée entrepôt -> route[0] -> ... -> route[n-1] -> entrepôt.
+     */
+    public double routeDistance(int[] route) {
+        if (route.length == 0) {
+            return 0.0;
+        }
+
+        double totalDistance = distance(DEPOT, route[0]);
+        for (int i = 0; i < route.length - 1; i++) {
+            totalDistance += distance(route[i], route[i + 1]);
+        }
+        totalDistance += distance(route[route.length - 1], DEPOT);
+
+        return totalDistance;
+    }
+
+    /**
+     * Distance d'une tournée déjà ordonnée, sans construire la matrice complète (n + 1 calculs).
+     */
+    public static double routeDistance(Warehouse warehouse, List<Delivery> route) {
+        if (route.isEmpty()) {
+            return 0.0;
+        }
+
+        double totalDistance = 0.0;
+        double previousLat = warehouse.getLatitude();
+        double previousLon = warehouse.getLongitude();
+        for (Delivery delivery : route) {
+            totalDistance += haversine(previousLat, previousLon, delivery.getLatitude(), delivery.getLongitude());
+            previousLat = delivery.getLatitude();
+            previousLon = delivery.getLongitude();
+        }
+        totalDistance += haversine(previousLat, previousLon, warehouse.getLatitude(), warehouse.getLongitude());
+
+        return totalDistance;
+    }
+
+    public static double haversine(double lat1, double lon1, double lat2, double lon2) {
+        double lat1Rad = Math.toRadians(lat1);
+        double lat2Rad = Math.toRadians(lat2);
+        return haversineRadians(lat1Rad, Math.toRadians(lon1), Math.cos(lat1Rad),
+                lat2Rad, Math.toRadians(lon2), Math.cos(lat2Rad));
+    }
+
+    private static double haversineRadians(double lat1, double lon1, double cosLat1,
+                                           double lat2, double lon2, double cosLat2) {
+        double sinLat = Math.sin((lat2 - lat1) / 2);
+        double sinLon = Math.sin((lon2 - lon1) / 2);
+
+        double a = sinLat * sinLat + cosLat1 * cosLat2 * sinLon * sinLon;
+
+        return EARTH_RADIUS_KM * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+}
@@ -0,0 +1,15 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Warehouse;
+import com.delivery.entity.Vehicle;
+
+import java.util.List;
+
+/**
+ * Optimiseur multi-tournées (CVRP) : répartit les livraisons en tournées respectant
+ * chacune la capacité du véhicule fourni, sans en écarter aucune.
+ */
+public interface FleetOptimizer {
+    List<List<Delivery>> calculateRoutes(Warehouse warehouse, List<Delivery> deliveries, Vehicle vehicle);
+}
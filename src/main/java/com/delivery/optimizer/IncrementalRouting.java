@@ -0,0 +1,195 @@
+package com.delivery.optimizer;
+
+/**
+ * Maintenance d'une tournée déjà ordonnée quand on y ajoute ou retire une livraison, sans réoptimisation complète :
+ * insertion au moindre coût, raccordement des voisins au retrait et variation de distance à reporter sur la tournée.
+ * Les distances sont calculées à la demande (pas de matrice) : une insertion coûte O(n), un retrait O(1).
+ * Les tournées manipulées sont en index du problème (1 à n, entrepôt exclu), comme RouteSolution.
+ */
+public final class IncrementalRouting {
+
+    private static final double EPSILON = 1e-9;
+
+    // Positions examinées de part et d'autre de l'arrêt modifié par la réparation locale
+    private static final int REPAIR_RADIUS = 6;
+
+    private IncrementalRouting() {
+    }
+
+    /**
+     * Position où insérer node : on préfère celles qui gardent le nouvel arrêt et les suivants dans leur créneau,
+     * puis celles qui ne retardent aucun arrêt déjà à l'heure, puis la moins coûteuse en distance.
+     * Le contrôle des créneaux se fait en O(1) par position grâce au début au plus tard de chaque arrêt.
+     */
+    public static Insertion cheapestInsertion(RoutingProblem problem, int[] route, int node) {
+        int last = route.length + 1;
+        double[] legs = new double[last];
+        double[] start = new double[last + 1];
+        double[] latest = new double[last + 1];
+
+        // start[k] : début de service au point k (0 = départ de l'entrepôt, last = retour)
+        start[0] = problem.windowStart(DistanceMatrix.DEPOT);
+        for (int k = 1; k <= last; k++) {
+            int previous = nodeAt(route, k - 1);
+            int current = nodeAt(route, k);
+            legs[k - 1] = distance(problem, previous, current);
+            double arrival = start[k - 1] + serviceTime(previous) + RouteEvaluator.travelMinutes(legs[k - 1]);
+            start[k] = k == last ? arrival : Math.max(problem.windowStart(current), arrival);
+        }
+
+        // latest[k] : début au plus tard au point k sans rendre la suite infaisable
+        latest[last] = problem.windowEnd(DistanceMatrix.DEPOT);
+        for (int k = last - 1; k >= 0; k--) {
+            int current = nodeAt(route, k);
+            double latestFromNext = latest[k + 1] - serviceTime(current) - RouteEvaluator.travelMinutes(legs[k]);
+            latest[k] = Math.min(problem.windowEnd(current), latestFromNext);
+        }
+
+        int bestPosition = -1;
+        double bestCost = Double.MAX_VALUE;
+        int bestRank = Integer.MAX_VALUE;
+        for (int k = 0; k < last; k++) {
+            int previous = nodeAt(route, k);
+            int next = nodeAt(route, k + 1);
+            double toNode = distance(problem, previous, node);
+            double fromNode = distance(problem, node, next);
+            double cost = toNode + fromNode - legs[k];
+
+            double nodeStart = Math.max(problem.windowStart(node),
+                    start[k] + serviceTime(previous) + RouteEvaluator.travelMinutes(toNode));
+            double nextArrival = nodeStart + serviceTime(node) + RouteEvaluator.travelMinutes(fromNode);
+            double nextStart = next == DistanceMatrix.DEPOT ? nextArrival : Math.max(problem.windowStart(next), nextArrival);
+            boolean keepsFollowing = nextStart <= latest[k + 1] + EPSILON;
+            boolean onTime = nodeStart <= problem.windowEnd(node) + EPSILON;
+
+            int rank = keepsFollowing ? (onTime ? 0 : 1) : 2;
+            if (rank < bestRank || (rank == bestRank && cost < bestCost)) {
+                bestRank = rank;
+                bestCost = cost;
+                bestPosition = k;
+            }
+        }
+        return new Insertion(bestPosition, bestCost, bestRank == 0);
+    }
+
+    /**
+     * Copie de route avec node inséré à la position position (0 = premier arrêt).
+     */
+    public static int[] insert(int[] route, int position, int node) {
+        int[] updated = new int[route.length + 1];
+        System.arraycopy(route, 0, updated, 0, position);
+        updated[position] = node;
+        System.arraycopy(route, position, updated, position + 1, route.length - position);
+        return updated;
+    }
+
+    /**
+     * Variation de distance (négative ou nulle) quand on retire l'arrêt de la position position
+     * et qu'on relie directement son prédécesseur à son successeur : O(1).
+     */
+    public static double removalDelta(RoutingProblem problem, int[] route, int position) {
+        int previous = nodeAt(route, position);
+        int removed = route[position];
+        int next = nodeAt(route, position + 2);
+        return distance(problem, previous, next) - distance(problem, previous, removed) - distance(problem, removed, next);
+    }
+
+    public static int[] remove(int[] route, int position) {
+        int[] updated = new int[route.length - 1];
+        System.arraycopy(route, 0, updated, 0, position);
+        System.arraycopy(route, position + 1, updated, position, route.length - position - 1);
+        return updated;
+    }
+
+    /**
+     * Réparation bornée autour de la position modifiée : 2-opt limité aux arrêts à moins de REPAIR_RADIUS positions,
+     * appliqué sur place. Un mouvement n'est gardé que s'il n'augmente pas le retard sur les créneaux.
+     * Retourne la variation de distance (négative ou nulle).
+     */
+    public static double repair(RoutingProblem problem, int[] route, int position) {
+        int from = Math.max(0, position - REPAIR_RADIUS);
+        int to = Math.min(route.length - 1, position + REPAIR_RADIUS);
+        double lateness = RouteEvaluator.evaluate(problem, route).getTotalLatenessMinutes();
+        double delta = 0.0;
+
+        boolean improved = true;
+        for (int pass = 0; improved && pass < 2 * REPAIR_RADIUS; pass++) {
+            improved = false;
+            for (int i = from; i < to && !improved; i++) {
+                for (int j = i + 1; j <= to && !improved; j++) {
+                    // Inversion de route[i..j] : seules les arêtes aux extrémités changent
+                    int before = nodeAt(route, i);
+                    int after = nodeAt(route, j + 2);
+                    double gain = distance(problem, before, route[i]) + distance(problem, route[j], after)
+                            - distance(problem, before, route[j]) - distance(problem, route[i], after);
+                    if (gain <= EPSILON) {
+                        continue;
+                    }
+
+                    reverse(route, i, j);
+                    double candidateLateness = RouteEvaluator.evaluate(problem, route).getTotalLatenessMinutes();
+                    if (candidateLateness <= lateness + EPSILON) {
+                        lateness = candidateLateness;
+                        delta -= gain;
+                        improved = true;
+                    } else {
+                        reverse(route, i, j);
+                    }
+                }
+            }
+        }
+        return delta;
+    }
+
+    // Point à la position k de la tournée fermée : 0 et route.length + 1 sont l'entrepôt
+    private static int nodeAt(int[] route, int k) {
+        return k == 0 || k == route.length + 1 ? DistanceMatrix.DEPOT : route[k - 1];
+    }
+
+    private static double distance(RoutingProblem problem, int from, int to) {
+        return DistanceMatrix.haversine(problem.latitude(from), problem.longitude(from),
+                problem.latitude(to), problem.longitude(to));
+    }
+
+    private static double serviceTime(int node) {
+        return node == DistanceMatrix.DEPOT ? 0.0 : RouteEvaluator.SERVICE_TIME_MINUTES;
+    }
+
+    private static void reverse(int[] route, int i, int j) {
+        while (i < j) {
+            int swap = route[i];
+            route[i++] = route[j];
+            route[j--] = swap;
+        }
+    }
+
+    /**
+     * Position retenue (0 = premier arrêt), surcoût en distance et respect des créneaux.
+     */
+    public static final class Insertion {
+        private final int position;
+        private final double distanceDelta;
+        private final boolean onTime;
+
+        private Insertion(int position, double distanceDelta, boolean onTime) {
+            this.position = position;
+            this.distanceDelta = distanceDelta;
+            this.onTime = onTime;
+        }
+
+        public int getPosition() {
+            return position;
+        }
+
+        public double getDistanceDelta() {
+            return distanceDelta;
+        }
+
+        /**
+         * Vrai si le nouvel arrêt est servi dans son créneau sans mettre en retard les suivants.
+         */
+        public boolean isOnTime() {
+            return onTime;
+        }
+    }
+}
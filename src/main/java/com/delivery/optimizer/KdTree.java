@@ -0,0 +1,194 @@
+package com.delivery.optimizer;
+
+/**
+ * KD-tree 2D des livraisons avec suppression, pour la recherche du plus proche voisin non visité.
+ * Les coordonnées sont projetées (équirectangulaire centrée sur l'entrepôt, en km) : à l'échelle
+ * d'une ville l'écart avec la distance haversine est négligeable pour le choix du plus proche.
+ * L'arbre est implicite : le nœud d'un intervalle [lo, hi) du tableau est à la position médiane.
+ */
+public final class KdTree {
+
+    private static final double EARTH_RADIUS_KM = 6371;
+
+    private final double[] xs;
+    private final double[] ys;
+    private final double originX;
+    private final double originY;
+
+    private final int[] points;      // position -> point
+    private final int[] positionOf;  // point -> position
+    private final int[] parent;      // position -> position du parent (-1 pour la racine)
+    private final int[] alive;       // position -> nombre de points non supprimés du sous-arbre
+    private final boolean[] removed; // position -> point supprimé
+
+    // État de la recherche en cours
+    private int bestPoint;
+    private double bestDistance;
+
+    private KdTree(double[] xs, double[] ys, double originX, double originY) {
+        int size = xs.length;
+        this.xs = xs;
+        this.ys = ys;
+        this.originX = originX;
+        this.originY = originY;
+        this.points = new int[size];
+        this.positionOf = new int[size];
+        this.parent = new int[size];
+        this.alive = new int[size];
+        this.removed = new boolean[size];
+
+        for (int i = 0; i < size; i++) {
+            points[i] = i;
+        }
+        build(0, size, 0, -1);
+        for (int position = 0; position < size; position++) {
+            positionOf[points[position]] = position;
+        }
+    }
+
+    /**
+     * Point i = livraison d'index i + 1 du problème ; l'entrepôt est l'origine de la projection.
+     */
+    public static KdTree of(RoutingProblem problem) {
+        double cosLat = Math.cos(Math.toRadians(problem.latitude(DistanceMatrix.DEPOT)));
+        double[] xs = new double[problem.deliveryCount()];
+        double[] ys = new double[problem.deliveryCount()];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = projectX(problem.longitude(i + 1), cosLat);
+            ys[i] = projectY(problem.latitude(i + 1));
+        }
+        return new KdTree(xs, ys, projectX(problem.longitude(DistanceMatrix.DEPOT), cosLat),
+                projectY(problem.latitude(DistanceMatrix.DEPOT)));
+    }
+
+    private static double projectX(double longitude, double cosLat) {
+        return Math.toRadians(longitude) * cosLat * EARTH_RADIUS_KM;
+    }
+
+    private static double projectY(double latitude) {
+        return Math.toRadians(latitude) * EARTH_RADIUS_KM;
+    }
+
+    public int size() {
+        return points.length;
+    }
+
+    public boolean isEmpty() {
+        return points.length == 0 || alive[root()] == 0;
+    }
+
+    /**
+     * Plus proche point non supprimé de l'origine (l'entrepôt), -1 si l'arbre est vide.
+     */
+    public int nearestToOrigin() {
+        return nearest(originX, originY);
+    }
+
+    /**
+     * Plus proche point non supprimé du point donné, -1 si l'arbre est vide.
+     */
+    public int nearestTo(int point) {
+        return nearest(xs[point], ys[point]);
+    }
+
+    public void remove(int point) {
+        int position = positionOf[point];
+        if (removed[position]) {
+            return;
+        }
+        removed[position] = true;
+        while (position != -1) {
+            alive[position]--;
+            position = parent[position];
+        }
+    }
+
+    private int nearest(double x, double y) {
+        bestPoint = -1;
+        bestDistance = Double.MAX_VALUE;
+        search(0, points.length, 0, x, y);
+        return bestPoint;
+    }
+
+    private void search(int lo, int hi, int depth, double x, double y) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        if (alive[mid] == 0) {
+            return;
+        }
+
+        int point = points[mid];
+        if (!removed[mid]) {
+            double dx = xs[point] - x;
+            double dy = ys[point] - y;
+            double distance = dx * dx + dy * dy;
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                bestPoint = point;
+            }
+        }
+
+        double delta = (depth & 1) == 0 ? x - xs[point] : y - ys[point];
+        if (delta < 0) {
+            search(lo, mid, depth + 1, x, y);
+            if (delta * delta < bestDistance) {
+                search(mid + 1, hi, depth + 1, x, y);
+            }
+        } else {
+            search(mid + 1, hi, depth + 1, x, y);
+            if (delta * delta < bestDistance) {
+                search(lo, mid, depth + 1, x, y);
+            }
+        }
+    }
+
+    private int root() {
+        return (points.length - 1) >>> 1;
+    }
+
+    private void build(int lo, int hi, int depth, int parentPosition) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, (depth & 1) == 0 ? xs : ys);
+        parent[mid] = parentPosition;
+        alive[mid] = hi - lo;
+
+        build(lo, mid, depth + 1, mid);
+        build(mid + 1, hi, depth + 1, mid);
+    }
+
+    // Sélection rapide : place en k le point de rang k selon l'axe, les plus petits avant, les plus grands après
+    private void select(int left, int right, int k, double[] axis) {
+        while (left < right) {
+            double pivot = axis[points[(left + right) >>> 1]];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (axis[points[i]] < pivot) {
+                    i++;
+                }
+                while (axis[points[j]] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    int swap = points[i];
+                    points[i] = points[j];
+                    points[j] = swap;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.delivery.optimizer;
+
+/**
+ * Mouvement Lin-Kernighan (variante à base de 2-opt séquentiels) à partir de l'arête (t1, succ(t1)).
+ * À chaque niveau, on ajoute l'arête (t2, t3) vers un candidat de t2 et on retire (t4, t3) où t4 précède t3 ;
+ * le chemin t2..t4 est inversé et l'arête de fermeture (t1, t4) devient l'arête à casser au niveau suivant.
+ * La chaîne est prolongée tant que le gain partiel reste positif, puis ramenée au meilleur niveau fermé.
+ */
+public class LinKernighanImprover implements RouteImprover {
+
+    private static final double EPSILON = 1e-9;
+
+    private static final int MAX_DEPTH = 50;
+
+    // Nombre de candidats t3 essayés au premier niveau (les niveaux suivants ne gardent que le meilleur)
+    private static final int FIRST_LEVEL_BREADTH = 5;
+
+    @Override
+    public boolean improve(LocalSearchRoute route, int t1) {
+        return improveFrom(route, t1, true) || improveFrom(route, t1, false);
+    }
+
+    private boolean improveFrom(LocalSearchRoute route, int t1, boolean forward) {
+        NeighborLists neighbors = route.neighbors();
+        int t2 = successor(route, t1, forward);
+        double removed = route.distance(t1, t2);
+
+        int breadth = Math.min(FIRST_LEVEL_BREADTH, neighbors.count());
+        for (int rank = 0; rank < breadth; rank++) {
+            int t3 = neighbors.neighbor(t2, rank);
+            double partialGain = removed - route.distance(t2, t3);
+            if (partialGain <= EPSILON) {
+                break;
+            }
+            if (t3 == t1 || t3 == successor(route, t2, forward)) {
+                continue;
+            }
+            if (chain(route, t1, t2, t3, removed, forward)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Construit la chaîne qui commence par l'ajout de (t2, t3) ; la garde si elle raccourcit la tournée.
+     */
+    private boolean chain(LocalSearchRoute route, int t1, int t2, int t3, double removed, boolean forward) {
+        int[] flipsT2 = new int[MAX_DEPTH];
+        int[] flipsT3 = new int[MAX_DEPTH];
+        int[] flipsT4 = new int[MAX_DEPTH];
+        int depth = 0;
+
+        double gain = removed;
+        double bestGain = 0.0;
+        int bestDepth = 0;
+
+        while (depth < MAX_DEPTH) {
+            int t4 = predecessor(route, t3, forward);
+            if (t4 == t2 || isAdded(flipsT2, flipsT3, depth, t3, t4)) {
+                break;
+            }
+
+            // t1 t2 .. t4 t3 devient t1 t4 .. t2 t3
+            flip(route, t2, t4, forward);
+            flipsT2[depth] = t2;
+            flipsT3[depth] = t3;
+            flipsT4[depth] = t4;
+            depth++;
+
+            gain += route.distance(t4, t3) - route.distance(t2, t3);
+            double closedGain = gain - route.distance(t4, t1);
+            if (closedGain > bestGain + EPSILON) {
+                bestGain = closedGain;
+                bestDepth = depth;
+            }
+
+            // L'inversion a pu se faire sur le complément : on suit le sens où t4 succède à t1
+            forward = route.next(t1) == t4;
+            t2 = t4;
+            t3 = bestNext(route, t1, t2, gain, forward);
+            if (t3 < 0) {
+                break;
+            }
+        }
+
+        // Annuler les niveaux au-delà du meilleur
+        for (int level = depth - 1; level >= bestDepth; level--) {
+            unflip(route, t1, flipsT2[level], flipsT3[level], flipsT4[level]);
+        }
+
+        if (bestDepth == 0) {
+            return false;
+        }
+        route.activate(t1);
+        for (int level = 0; level < bestDepth; level++) {
+            route.activate(flipsT2[level]);
+            route.activate(flipsT3[level]);
+            route.activate(flipsT4[level]);
+        }
+        return true;
+    }
+
+    /**
+     * Candidat t3 de t2 qui maximise gain - d(t2, t3) + d(t4, t3) (regard d'un pas en avant), -1 s'il n'y en a pas.
+     */
+    private int bestNext(LocalSearchRoute route, int t1, int t2, double gain, boolean forward) {
+        NeighborLists neighbors = route.neighbors();
+        int best = -1;
+        double bestValue = -Double.MAX_VALUE;
+
+        for (int rank = 0; rank < neighbors.count(); rank++) {
+            int t3 = neighbors.neighbor(t2, rank);
+            double partialGain = gain - route.distance(t2, t3);
+            if (partialGain <= EPSILON) {
+                break;
+            }
+            if (t3 == t1 || t3 == successor(route, t2, forward)) {
+                continue;
+            }
+            int t4 = predecessor(route, t3, forward);
+            double value = partialGain + route.distance(t4, t3);
+            if (value > bestValue) {
+                bestValue = value;
+                best = t3;
+            }
+        }
+        return best;
+    }
+
+    // Une arête ajoutée plus tôt dans la chaîne ne doit pas être retirée
+    private boolean isAdded(int[] flipsT2, int[] flipsT3, int depth, int a, int b) {
+        for (int level = 0; level < depth; level++) {
+            if ((flipsT2[level] == a && flipsT3[level] == b) || (flipsT2[level] == b && flipsT3[level] == a)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void flip(LocalSearchRoute route, int from, int to, boolean forward) {
+        if (forward) {
+            route.reverse(from, to);
+        } else {
+            route.reverse(to, from);
+        }
+    }
+
+    // Rétablit les arêtes (t1, t2) et (t4, t3) à partir de (t1, t4) et (t2, t3)
+    private void unflip(LocalSearchRoute route, int t1, int t2, int t3, int t4) {
+        if (route.next(t1) == t4) {
+            route.reverse(t4, t2);
+        } else {
+            route.reverse(t2, t4);
+        }
+    }
+
+    private int successor(LocalSearchRoute route, int node, boolean forward) {
+        return forward ? route.next(node) : route.previous(node);
+    }
+
+    private int predecessor(LocalSearchRoute route, int node, boolean forward) {
+        return forward ? route.previous(node) : route.next(node);
+    }
+}
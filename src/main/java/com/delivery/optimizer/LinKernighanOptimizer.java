@@ -0,0 +1,88 @@
+package com.delivery.optimizer;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Random;
+import java.util.logging.Logger;
+
+/**
+ * Lin-Kernighan itéré : plus proche voisin, descente Lin-Kernighan + Or-opt sur des candidats quadrants,
+ * puis perturbations double-bridge acceptées seulement si la tournée raccourcit.
+ * Tout le calcul se fait sur les tableaux d'index du RoutingProblem.
+ */
+@Component
+public class LinKernighanOptimizer implements TourOptimizer {
+
+    private static final Logger logger = Logger.getLogger(LinKernighanOptimizer.class.getName());
+
+    private static final int CANDIDATES_PER_QUADRANT = 2;
+    private static final int CANDIDATES = 10;
+
+    // Nombre maximal de perturbations et budget de temps de la phase itérée
+    private static final int MAX_KICKS = 2000;
+    private static final long TIME_LIMIT_MS = 400;
+
+    private static final double EPSILON = 1e-9;
+
+    private final LocalSearch localSearch = new LocalSearch(List.of(new LinKernighanImprover(), new OrOptImprover()));
+
+    @Override
+    public RouteSolution solve(RoutingProblem problem, CancellationToken token) {
+        logger.info("Calculating tour using Lin-Kernighan algorithm for " + problem.deliveryCount() + " deliveries");
+
+        int[] initialRoute = NearestNeighborOptimizer.buildRoute(KdTree.of(problem));
+        int[] bestRoute = initialRoute.length < 3 ? initialRoute : improve(problem, initialRoute, token);
+
+        RouteSolution solution = RouteSolution.of(problem, bestRoute);
+        logger.info("Lin-Kernighan optimization completed - Distance: " + solution.getTotalDistance() + " km");
+        return solution;
+    }
+
+    private int[] improve(RoutingProblem problem, int[] initialRoute, CancellationToken token) {
+        DistanceMatrix matrix = problem.distanceMatrix();
+        NeighborLists candidates = NeighborLists.ofQuadrants(matrix, problem.latitudes(), problem.longitudes(),
+                CANDIDATES_PER_QUADRANT, CANDIDATES);
+
+        LocalSearchRoute route = new LocalSearchRoute(matrix, candidates, initialRoute);
+        token.reportProgress("construction", route.totalDistance());
+        localSearch.descend(route, token);
+        double bestDistance = route.totalDistance();
+        int[] best = route.snapshot();
+        token.reportProgress("lin-kernighan", bestDistance);
+
+        // Perturbations déterministes (graine fixe), bornées en nombre et en temps
+        Random random = new Random(problem.size());
+        long deadline = System.currentTimeMillis() + TIME_LIMIT_MS;
+        int kicks = 0;
+        int accepted = 0;
+        while (kicks < MAX_KICKS && System.currentTimeMillis() < deadline && !token.isCancelled()) {
+            kicks++;
+            kick(route, random);
+            localSearch.descend(route, token);
+
+            double distance = route.totalDistance();
+            if (distance < bestDistance - EPSILON) {
+                bestDistance = distance;
+                best = route.snapshot();
+                accepted++;
+                token.reportProgress("kicks", bestDistance);
+            } else {
+                route.restore(best);
+            }
+        }
+
+        logger.info(String.format("Lin-Kernighan: %d kicks, %d improvements, %.2f km", kicks, accepted, bestDistance));
+        route.restore(best);
+        return route.toRoute();
+    }
+
+    // Double-bridge sur trois coupes aléatoires 0 < first < second < third < taille
+    private void kick(LocalSearchRoute route, Random random) {
+        int n = route.size();
+        int first = 1 + random.nextInt(n - 3);
+        int second = first + 1 + random.nextInt(n - first - 2);
+        int third = second + 1 + random.nextInt(n - second - 1);
+        route.doubleBridge(first, second, third);
+    }
+}
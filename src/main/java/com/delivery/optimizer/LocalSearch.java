@@ -0,0 +1,129 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Warehouse;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Amélioration d'une tournée déjà construite par une suite de mouvements (2-opt, Or-opt, relocate).
+ * Chaque point actif essaie les mouvements dans l'ordre du pipeline ; un point sans mouvement
+ * améliorant est mis de côté (don't-look bit) jusqu'à ce qu'un de ses voisins de tournée change.
+ */
+@Component
+public class LocalSearch {
+
+    private static final Logger logger = Logger.getLogger(LocalSearch.class.getName());
+
+    private static final int NEIGHBOR_COUNT = 10;
+
+    private final List<RouteImprover> improvers;
+
+    public LocalSearch() {
+        this(List.of(new TwoOptImprover(), new OrOptImprover(), new RelocateImprover()));
+    }
+
+    public LocalSearch(List<RouteImprover> improvers) {
+        this.improvers = improvers;
+    }
+
+    /**
+     * Améliore une tournée ordonnée et met à jour l'ordre des livraisons.
+     */
+    public List<Delivery> improve(Warehouse warehouse, List<Delivery> route) {
+        return improve(warehouse, route, CancellationToken.none());
+    }
+
+    /**
+     * Variante interruptible : s'arrête quand le jeton est annulé ou expiré, avec la meilleure tournée atteinte.
+     */
+    public List<Delivery> improve(Warehouse warehouse, List<Delivery> route, CancellationToken token) {
+        if (route.size() < 3) {
+            return route;
+        }
+
+        int[] initialRoute = new int[route.size()];
+        for (int i = 0; i < initialRoute.length; i++) {
+            initialRoute[i] = i + 1;
+        }
+
+        int[] improvedRoute = improve(RoutingProblem.of(warehouse, route, null), initialRoute, token);
+
+        List<Delivery> optimizedRoute = new ArrayList<>(improvedRoute.length);
+        for (int i = 0; i < improvedRoute.length; i++) {
+            Delivery delivery = route.get(improvedRoute[i] - 1);
+            delivery.setOrder(i + 1);
+            optimizedRoute.add(delivery);
+        }
+        return optimizedRoute;
+    }
+
+    /**
+     * Améliore une tournée exprimée en index du problème, sans toucher aux entités.
+     */
+    public int[] improve(RoutingProblem problem, int[] route, CancellationToken token) {
+        if (route.length < 3) {
+            return route;
+        }
+        DistanceMatrix matrix = problem.distanceMatrix();
+        return improve(matrix, neighborLists(matrix), route, token);
+    }
+
+    public NeighborLists neighborLists(DistanceMatrix matrix) {
+        return NeighborLists.of(matrix, NEIGHBOR_COUNT);
+    }
+
+    /**
+     * Améliore une tournée exprimée en index de la matrice (sans l'entrepôt).
+     */
+    public int[] improve(DistanceMatrix matrix, int[] route) {
+        if (route.length < 3) {
+            return route;
+        }
+        return improve(matrix, neighborLists(matrix), route);
+    }
+
+    /**
+     * Variante avec des listes de voisins déjà calculées, partageables en lecture seule entre plusieurs recherches.
+     */
+    public int[] improve(DistanceMatrix matrix, NeighborLists neighbors, int[] route) {
+        return improve(matrix, neighbors, route, CancellationToken.none());
+    }
+
+    public int[] improve(DistanceMatrix matrix, NeighborLists neighbors, int[] route, CancellationToken token) {
+        if (route.length < 3) {
+            return route;
+        }
+
+        LocalSearchRoute searchRoute = new LocalSearchRoute(matrix, neighbors, route);
+        double initialDistance = searchRoute.totalDistance();
+        int moves = descend(searchRoute, token);
+
+        double finalDistance = searchRoute.totalDistance();
+        logger.info(String.format("Local search completed: %d moves, %.2f km -> %.2f km",
+                moves, initialDistance, finalDistance));
+        return searchRoute.toRoute();
+    }
+
+    /**
+     * Applique les mouvements tant qu'il reste des points actifs et que le jeton le permet ;
+     * retourne le nombre de mouvements. Chaque mouvement raccourcit la tournée : l'arrêt est toujours sûr.
+     */
+    int descend(LocalSearchRoute searchRoute, CancellationToken token) {
+        int moves = 0;
+        while (searchRoute.hasActive() && !token.isCancelled()) {
+            int node = searchRoute.pollActive();
+            for (RouteImprover improver : improvers) {
+                if (improver.improve(searchRoute, node)) {
+                    searchRoute.activate(node);
+                    moves++;
+                    break;
+                }
+            }
+        }
+        return moves;
+    }
+}
@@ -0,0 +1,27 @@
+package com.delivery.optimizer;
+
+/**
+ * Enchaîne un algorithme de construction et la recherche locale : s'applique à n'importe quel TourOptimizer.
+ */
+public class LocalSearchOptimizer implements TourOptimizer {
+
+    private final TourOptimizer construction;
+    private final LocalSearch localSearch;
+
+    public LocalSearchOptimizer(TourOptimizer construction, LocalSearch localSearch) {
+        this.construction = construction;
+        this.localSearch = localSearch;
+    }
+
+    @Override
+    public RouteSolution solve(RoutingProblem problem, CancellationToken token) {
+        RouteSolution initial = construction.solve(problem, token);
+        token.reportProgress("construction", initial.getTotalDistance());
+        int[] improvedRoute = localSearch.improve(problem, initial.getRoute(), token);
+
+        RouteSolution improved = RouteSolution.of(problem, improvedRoute);
+        token.reportProgress("local-search", improved.getTotalDistance());
+        return new RouteSolution(problem, improvedRoute, improved.getMetrics(),
+                initial.getTotalDistance() - improved.getTotalDistance());
+    }
+}
@@ -0,0 +1,215 @@
+package com.delivery.optimizer;
+
+import java.util.ArrayDeque;
+
+/**
+ * Tournée cyclique (entrepôt compris) manipulée par la recherche locale :
+ * ordre de passage et position de chaque point, plus la file des points actifs (don't-look bits).
+ */
+public final class LocalSearchRoute {
+
+    private final DistanceMatrix matrix;
+    private final NeighborLists neighbors;
+    private final int[] tour;
+    private final int[] position;
+
+    private final ArrayDeque<Integer> active = new ArrayDeque<>();
+    private final boolean[] queued;
+
+    LocalSearchRoute(DistanceMatrix matrix, NeighborLists neighbors, int[] route) {
+        this.matrix = matrix;
+        this.neighbors = neighbors;
+        this.tour = new int[route.length + 1];
+        this.position = new int[route.length + 1];
+        this.queued = new boolean[route.length + 1];
+
+        tour[0] = DistanceMatrix.DEPOT;
+        System.arraycopy(route, 0, tour, 1, route.length);
+        for (int i = 0; i < tour.length; i++) {
+            position[tour[i]] = i;
+            activate(tour[i]);
+        }
+    }
+
+    public int size() {
+        return tour.length;
+    }
+
+    public double distance(int from, int to) {
+        return matrix.distance(from, to);
+    }
+
+    public NeighborLists neighbors() {
+        return neighbors;
+    }
+
+    public int next(int node) {
+        int index = position[node] + 1;
+        return tour[index == tour.length ? 0 : index];
+    }
+
+    public int previous(int node) {
+        int index = position[node] - 1;
+        return tour[index < 0 ? tour.length - 1 : index];
+    }
+
+    /**
+     * Point situé offset positions après node dans le sens de parcours.
+     */
+    public int after(int node, int offset) {
+        return tour[(position[node] + offset) % tour.length];
+    }
+
+    /**
+     * Vrai si node fait partie des length points consécutifs commençant à first.
+     */
+    public boolean inSegment(int node, int first, int length) {
+        int offset = position[node] - position[first];
+        if (offset < 0) {
+            offset += tour.length;
+        }
+        return offset < length;
+    }
+
+    /**
+     * Inverse le chemin from -> ... -> to (sens de parcours). Si ce chemin couvre plus de la moitié
+     * de la tournée, on inverse le complément, ce qui donne le même cycle.
+     */
+    public void reverse(int from, int to) {
+        int n = tour.length;
+        int i = position[from];
+        int j = position[to];
+        int length = j - i;
+        if (length < 0) {
+            length += n;
+        }
+        length++;
+
+        if (length * 2 > n) {
+            i = position[to] + 1 == n ? 0 : position[to] + 1;
+            j = position[from] == 0 ? n - 1 : position[from] - 1;
+            length = n - length;
+        }
+
+        for (int k = 0; k < length / 2; k++) {
+            int left = tour[i];
+            int right = tour[j];
+            tour[i] = right;
+            position[right] = i;
+            tour[j] = left;
+            position[left] = j;
+            i = i + 1 == n ? 0 : i + 1;
+            j = j == 0 ? n - 1 : j - 1;
+        }
+    }
+
+    /**
+     * Déplace les length points commençant à first entre insertAfter et son successeur,
+     * éventuellement dans l'ordre inverse. insertAfter doit être hors du segment.
+     */
+    public void moveSegment(int first, int length, int insertAfter, boolean reversed) {
+        int n = tour.length;
+        int[] segment = new int[length];
+        for (int k = 0; k < length; k++) {
+            segment[reversed ? length - 1 - k : k] = after(first, k);
+        }
+
+        int[] updated = new int[n];
+        int index = 0;
+        int start = position[after(first, length)];
+        for (int k = 0; k < n - length; k++) {
+            int node = tour[(start + k) % n];
+            updated[index++] = node;
+            if (node == insertAfter) {
+                System.arraycopy(segment, 0, updated, index, length);
+                index += length;
+            }
+        }
+
+        System.arraycopy(updated, 0, tour, 0, n);
+        for (int k = 0; k < n; k++) {
+            position[tour[k]] = k;
+        }
+    }
+
+    /**
+     * Double-bridge : la tournée A B C D devient A C B D (coupes aux positions first < second < third).
+     * Mouvement non séquentiel que 2-opt et Lin-Kernighan ne peuvent pas défaire en un pas.
+     */
+    public void doubleBridge(int first, int second, int third) {
+        int n = tour.length;
+        int[] updated = new int[n];
+        int index = 0;
+        System.arraycopy(tour, 0, updated, index, first);
+        index += first;
+        System.arraycopy(tour, second, updated, index, third - second);
+        index += third - second;
+        System.arraycopy(tour, first, updated, index, second - first);
+        index += second - first;
+        System.arraycopy(tour, third, updated, index, n - third);
+
+        int[] endpoints = {tour[first - 1], tour[first], tour[second - 1], tour[second],
+                tour[third - 1], tour[third], tour[n - 1], tour[0]};
+        System.arraycopy(updated, 0, tour, 0, n);
+        for (int k = 0; k < n; k++) {
+            position[tour[k]] = k;
+        }
+        for (int node : endpoints) {
+            activate(node);
+        }
+    }
+
+    int[] snapshot() {
+        return tour.clone();
+    }
+
+    void restore(int[] snapshot) {
+        System.arraycopy(snapshot, 0, tour, 0, tour.length);
+        for (int k = 0; k < tour.length; k++) {
+            position[tour[k]] = k;
+        }
+        while (hasActive()) {
+            pollActive();
+        }
+    }
+
+    /**
+     * Lève le don't-look bit du point : il sera réexaminé.
+     */
+    public void activate(int node) {
+        if (!queued[node]) {
+            queued[node] = true;
+            active.add(node);
+        }
+    }
+
+    boolean hasActive() {
+        return !active.isEmpty();
+    }
+
+    int pollActive() {
+        int node = active.poll();
+        queued[node] = false;
+        return node;
+    }
+
+    double totalDistance() {
+        double total = 0.0;
+        for (int i = 0; i < tour.length; i++) {
+            total += matrix.distance(tour[i], tour[i + 1 == tour.length ? 0 : i + 1]);
+        }
+        return total;
+    }
+
+    /**
+     * Livraisons dans l'ordre de passage, en partant de l'entrepôt.
+     */
+    int[] toRoute() {
+        int[] route = new int[tour.length - 1];
+        int start = position[DistanceMatrix.DEPOT];
+        for (int k = 0; k < route.length; k++) {
+            route[k] = tour[(start + 1 + k) % tour.length];
+        }
+        return route;
+    }
+}
@@ -0,0 +1,133 @@
+package com.delivery.optimizer;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+
+/**
+ * Multi-départs : K constructions plus proche voisin randomisées, chacune suivie de la recherche locale,
+ * exécutées en parallèle sur un pool dédié. On garde la meilleure tournée.
+ * La matrice et les listes de voisins sont partagées en lecture seule ; chaque départ ne manipule que
+ * ses propres tableaux d'index.
+ */
+@Component
+public class MultiStartOptimizer implements TourOptimizer {
+
+    private static final Logger logger = Logger.getLogger(MultiStartOptimizer.class.getName());
+
+    private static final int STARTS = 16;
+
+    // Taille de la liste restreinte de candidats : choix aléatoire parmi les 3 plus proches non visités
+    private static final int CANDIDATES = 3;
+
+    private final LocalSearch localSearch;
+    private final ForkJoinPool pool;
+
+    public MultiStartOptimizer(LocalSearch localSearch) {
+        this.localSearch = localSearch;
+        this.pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @Override
+    public RouteSolution solve(RoutingProblem problem, CancellationToken token) {
+        logger.info("Calculating tour using multi-start optimization (" + STARTS + " starts) for "
+                + problem.deliveryCount() + " deliveries");
+
+        DistanceMatrix matrix = problem.distanceMatrix();
+        NeighborLists neighbors = localSearch.neighborLists(matrix);
+
+        List<Callable<int[]>> starts = new ArrayList<>(STARTS);
+        for (int start = 0; start < STARTS; start++) {
+            // Départ 0 : plus proche voisin classique ; les autres sont randomisés et sautés une fois le jeton expiré
+            Random random = start == 0 ? null : new Random(start);
+            starts.add(() -> {
+                if (random != null && token.isCancelled()) {
+                    return null;
+                }
+                int[] route = localSearch.improve(matrix, neighbors, randomizedNearestNeighbor(matrix, random), token);
+                token.reportProgress("multi-start", matrix.routeDistance(route));
+                return route;
+            });
+        }
+
+        int[] bestRoute = null;
+        double bestDistance = Double.MAX_VALUE;
+        for (Future<int[]> future : pool.invokeAll(starts)) {
+            int[] route = join(future);
+            if (route == null) {
+                continue;
+            }
+            double distance = matrix.routeDistance(route);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                bestRoute = route;
+            }
+        }
+
+        RouteSolution solution = RouteSolution.of(problem, bestRoute);
+        logger.info("Multi-start optimization completed - Distance: " + solution.getTotalDistance() + " km");
+        return solution;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private int[] randomizedNearestNeighbor(DistanceMatrix matrix, Random random) {
+        int stops = matrix.size() - 1;
+        int[] route = new int[stops];
+        boolean[] visited = new boolean[matrix.size()];
+        int[] candidates = new int[CANDIDATES];
+        double[] candidateDistances = new double[CANDIDATES];
+
+        int current = DistanceMatrix.DEPOT;
+        for (int step = 0; step < stops; step++) {
+            // Les CANDIDATES livraisons non visitées les plus proches, triées
+            int found = 0;
+            for (int candidate = 1; candidate <= stops; candidate++) {
+                if (visited[candidate]) {
+                    continue;
+                }
+                double distance = matrix.distance(current, candidate);
+                if (found == CANDIDATES && distance >= candidateDistances[CANDIDATES - 1]) {
+                    continue;
+                }
+                int position = found < CANDIDATES ? found++ : CANDIDATES - 1;
+                while (position > 0 && candidateDistances[position - 1] > distance) {
+                    candidateDistances[position] = candidateDistances[position - 1];
+                    candidates[position] = candidates[position - 1];
+                    position--;
+                }
+                candidateDistances[position] = distance;
+                candidates[position] = candidate;
+            }
+
+            int next = candidates[random == null ? 0 : random.nextInt(found)];
+            visited[next] = true;
+            route[step] = next;
+            current = next;
+        }
+
+        return route;
+    }
+
+    private int[] join(Future<int[]> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Multi-start optimization interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Multi-start optimization failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+}
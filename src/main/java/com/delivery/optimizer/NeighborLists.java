@@ -0,0 +1,122 @@
+package com.delivery.optimizer;
+
+import java.util.Arrays;
+
+/**
+ * Listes de candidats : pour chaque point de la matrice, ses k voisins les plus proches
+ * triés par distance croissante (stockage plat, k entrées par point).
+ */
+public final class NeighborLists {
+
+    private final int size;
+    private final int count;
+    private final int[] neighbors;
+
+    private NeighborLists(int size, int count, int[] neighbors) {
+        this.size = size;
+        this.count = count;
+        this.neighbors = neighbors;
+    }
+
+    public static NeighborLists of(DistanceMatrix matrix, int k) {
+        int size = matrix.size();
+        int count = Math.min(k, size - 1);
+        int[] neighbors = new int[size * count];
+        double[] nearest = new double[count];
+
+        for (int i = 0; i < size; i++) {
+            int offset = i * count;
+            int filled = 0;
+
+            // Insertion dans une liste bornée à k éléments, triée par distance
+            for (int j = 0; j < size; j++) {
+                if (j == i) {
+                    continue;
+                }
+                double distance = matrix.distance(i, j);
+                if (filled == count && distance >= nearest[count - 1]) {
+                    continue;
+                }
+
+                int position = filled < count ? filled++ : count - 1;
+                while (position > 0 && nearest[position - 1] > distance) {
+                    nearest[position] = nearest[position - 1];
+                    neighbors[offset + position] = neighbors[offset + position - 1];
+                    position--;
+                }
+                nearest[position] = distance;
+                neighbors[offset + position] = j;
+            }
+        }
+
+        return new NeighborLists(size, count, neighbors);
+    }
+
+    /**
+     * Voisins "quadrants" (Johnson et McGeoch) : les perQuadrant plus proches dans chacun des quatre quadrants
+     * autour du point, complétés par les plus proches restants jusqu'à count. Évite des candidats tous
+     * du même côté quand les points forment des grappes.
+     */
+    public static NeighborLists ofQuadrants(DistanceMatrix matrix, double[] latitudes, double[] longitudes,
+                                            int perQuadrant, int count) {
+        int size = matrix.size();
+        int total = Math.min(count, size - 1);
+        int[] neighbors = new int[size * total];
+        long[] sortKeys = new long[size - 1];
+
+        for (int i = 0; i < size; i++) {
+            // Tous les autres points par distance croissante (distance en float dans les bits de poids fort)
+            int k = 0;
+            for (int j = 0; j < size; j++) {
+                if (j != i) {
+                    sortKeys[k++] = ((long) Float.floatToIntBits((float) matrix.distance(i, j)) << 32) | j;
+                }
+            }
+            Arrays.sort(sortKeys);
+
+            int[] perQuadrantCount = new int[4];
+            boolean[] selected = new boolean[sortKeys.length];
+            int filled = 0;
+            for (int rank = 0; rank < sortKeys.length && filled < total; rank++) {
+                int j = (int) sortKeys[rank];
+                int quadrant = (latitudes[j] >= latitudes[i] ? 0 : 2) + (longitudes[j] >= longitudes[i] ? 0 : 1);
+                if (perQuadrantCount[quadrant] < perQuadrant) {
+                    perQuadrantCount[quadrant]++;
+                    selected[rank] = true;
+                    filled++;
+                }
+            }
+            for (int rank = 0; rank < sortKeys.length && filled < total; rank++) {
+                if (!selected[rank]) {
+                    selected[rank] = true;
+                    filled++;
+                }
+            }
+
+            // Les candidats restent triés par distance croissante
+            int offset = i * total;
+            for (int rank = 0; rank < sortKeys.length && offset < (i + 1) * total; rank++) {
+                if (selected[rank]) {
+                    neighbors[offset++] = (int) sortKeys[rank];
+                }
+            }
+        }
+
+        return new NeighborLists(size, total, neighbors);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    /**
+     * rank-ième voisin le plus proche de node (rank 0 = le plus proche).
+     */
+    public int neighbor(int node, int rank) {
+        return neighbors[node * count + rank];
+    }
+}
@@ -0,0 +1,11 @@
+package com.delivery.optimizer;
+
+/**
+ * Suivi d'une optimisation en cours : étape courante et distance de la meilleure tournée connue (km).
+ * Peut être appelé depuis plusieurs threads (multi-départs).
+ */
+@FunctionalInterface
+public interface OptimizationProgress {
+
+    void report(String phase, double distance);
+}
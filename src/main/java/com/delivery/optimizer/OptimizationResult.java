@@ -0,0 +1,73 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Vehicle;
+import com.delivery.entity.Warehouse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tournée produite par un TourOptimizer et ses indicateurs, calculés une seule fois.
+ */
+public final class OptimizationResult {
+
+    private final List<Delivery> route;
+    private final RouteMetrics metrics;
+    private final Double distanceGain;
+
+    public OptimizationResult(List<Delivery> route, RouteMetrics metrics) {
+        this(route, metrics, null);
+    }
+
+    public OptimizationResult(List<Delivery> route, RouteMetrics metrics, Double distanceGain) {
+        this.route = route;
+        this.metrics = metrics;
+        this.distanceGain = distanceGain;
+    }
+
+    /**
+     * Évalue une tournée déjà ordonnée (O(n)).
+     */
+    public static OptimizationResult of(Warehouse warehouse, List<Delivery> route, Vehicle vehicle) {
+        return new OptimizationResult(route, RouteEvaluator.evaluate(warehouse, route, vehicle));
+    }
+
+    /**
+     * Reporte sur les livraisons l'ordre d'une solution calculée sur RoutingProblem.of(warehouse, deliveries, vehicle).
+     */
+    public static OptimizationResult of(RouteSolution solution, List<Delivery> deliveries) {
+        int[] order = solution.getRoute();
+        List<Delivery> route = new ArrayList<>(order.length);
+        for (int i = 0; i < order.length; i++) {
+            Delivery delivery = deliveries.get(order[i] - 1);
+            delivery.setOrder(i + 1);
+            route.add(delivery);
+        }
+        return new OptimizationResult(route, solution.getMetrics(), solution.getDistanceGain());
+    }
+
+    public static OptimizationResult empty() {
+        return new OptimizationResult(new ArrayList<>(),
+                new RouteMetrics(0.0, 0.0, 0.0, new double[0], 0.0, new double[0], new double[0], 0.0, 0, 0.0, false));
+    }
+
+    public List<Delivery> getRoute() {
+        return route;
+    }
+
+    public RouteMetrics getMetrics() {
+        return metrics;
+    }
+
+    public double getTotalDistance() {
+        return metrics.getTotalDistance();
+    }
+
+    /**
+     * Distance gagnée par une étape d'amélioration (km), null si l'optimiseur n'en a pas.
+     */
+    public Double getDistanceGain() {
+        return distanceGain;
+    }
+}
@@ -0,0 +1,11 @@
+package com.delivery.optimizer;
+
+/**
+ * Or-opt : déplace une chaîne de 2 ou 3 livraisons consécutives, éventuellement inversée.
+ */
+public class OrOptImprover extends SegmentMoveImprover {
+
+    public OrOptImprover() {
+        super(2, 3);
+    }
+}
@@ -0,0 +1,11 @@
+package com.delivery.optimizer;
+
+/**
+ * Relocate : déplace une seule livraison vers la position la plus proche qui raccourcit la tournée.
+ */
+public class RelocateImprover extends SegmentMoveImprover {
+
+    public RelocateImprover() {
+        super(1, 1);
+    }
+}
@@ -0,0 +1,141 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Vehicle;
+import com.delivery.entity.Warehouse;
+
+import java.util.List;
+
+/**
+ * Évaluation d'une tournée déjà ordonnée en un seul passage (O(n)) : distance, charge à bord
+ * et respect des créneaux horaires. Aucun réordonnancement n'est fait ici.
+ */
+public final class RouteEvaluator {
+
+    static final double AVERAGE_SPEED_KMH = 30.0;
+    static final double SERVICE_TIME_MINUTES = 5.0;
+
+    // Horaires par défaut si l'entrepôt n'en a pas d'exploitables
+    private static final int DEFAULT_DEPARTURE_MINUTES = 8 * 60;
+    private static final int DEFAULT_CLOSING_MINUTES = 24 * 60;
+
+    private RouteEvaluator() {
+    }
+
+    public static RouteMetrics evaluate(Warehouse warehouse, List<Delivery> route, Vehicle vehicle) {
+        int[] order = new int[route.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i + 1;
+        }
+        return evaluate(RoutingProblem.of(warehouse, route, vehicle), order);
+    }
+
+    /**
+     * Évalue l'ordre de passage route (index du problème) sans toucher aux entités.
+     */
+    public static RouteMetrics evaluate(RoutingProblem problem, int[] route) {
+        int stops = route.length;
+        double totalWeight = 0.0;
+        double totalVolume = 0.0;
+        for (int index : route) {
+            totalWeight += problem.weight(index);
+            totalVolume += problem.volume(index);
+        }
+
+        double[] legDistances = new double[stops];
+        double[] loadProfile = new double[stops];
+        double[] arrivalMinutes = new double[stops];
+        double load = totalWeight;
+        double totalDistance = 0.0;
+        int violations = 0;
+        double lateness = 0.0;
+
+        double time = problem.windowStart(DistanceMatrix.DEPOT);
+        double previousLat = problem.latitude(DistanceMatrix.DEPOT);
+        double previousLon = problem.longitude(DistanceMatrix.DEPOT);
+
+        for (int i = 0; i < stops; i++) {
+            int index = route[i];
+            double legDistance = DistanceMatrix.haversine(previousLat, previousLon,
+                    problem.latitude(index), problem.longitude(index));
+            legDistances[i] = legDistance;
+            totalDistance += legDistance;
+            time += travelMinutes(legDistance);
+
+            // Charge à bord en arrivant chez le client
+            loadProfile[i] = load;
+            load -= problem.weight(index);
+
+            if (problem.hasTimeWindow(index)) {
+                if (time < problem.windowStart(index)) {
+                    // Arrivée en avance : attente de l'ouverture du créneau
+                    time = problem.windowStart(index);
+                } else if (time > problem.windowEnd(index)) {
+                    violations++;
+                    lateness += time - problem.windowEnd(index);
+                }
+            }
+            arrivalMinutes[i] = time;
+            time += SERVICE_TIME_MINUTES;
+
+            previousLat = problem.latitude(index);
+            previousLon = problem.longitude(index);
+        }
+
+        double returnDistance = 0.0;
+        if (stops > 0) {
+            returnDistance = DistanceMatrix.haversine(previousLat, previousLon,
+                    problem.latitude(DistanceMatrix.DEPOT), problem.longitude(DistanceMatrix.DEPOT));
+            totalDistance += returnDistance;
+            time += travelMinutes(returnDistance);
+        }
+
+        boolean capacityExceeded = problem.hasVehicle()
+                && !problem.fitsVehicle(totalWeight, totalVolume, stops);
+
+        return new RouteMetrics(totalDistance, totalWeight, totalVolume, legDistances, returnDistance,
+                loadProfile, arrivalMinutes, time, violations, lateness, capacityExceeded);
+    }
+
+    static double travelMinutes(double distanceKm) {
+        return distanceKm / AVERAGE_SPEED_KMH * 60.0;
+    }
+
+    /**
+     * Horaires d'ouverture de l'entrepôt en minutes depuis minuit (départ et retour au plus tard).
+     */
+    static int[] depotWindow(Warehouse warehouse) {
+        int[] openingHours = parseSlot(warehouse.getOpeningHours());
+        return openingHours != null ? openingHours : new int[]{DEFAULT_DEPARTURE_MINUTES, DEFAULT_CLOSING_MINUTES};
+    }
+
+    /**
+     * Créneau de la livraison (ou à défaut celui du client) en minutes depuis minuit, null si absent.
+     */
+    static int[] timeWindow(Delivery delivery) {
+        String slot = delivery.getPreferredTimeSlot() != null ?
+                delivery.getPreferredTimeSlot() : delivery.getCustomerPreferredTimeSlot();
+        return parseSlot(slot);
+    }
+
+    // Format "HH:MM-HH:MM"
+    private static int[] parseSlot(String slot) {
+        if (slot == null || slot.isEmpty()) {
+            return null;
+        }
+        String[] bounds = slot.split("-");
+        if (bounds.length != 2) {
+            return null;
+        }
+        try {
+            return new int[]{toMinutes(bounds[0]), toMinutes(bounds[1])};
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    private static int toMinutes(String time) {
+        String[] parts = time.trim().split(":");
+        return Integer.parseInt(parts[0]) * 60 + Integer.parseInt(parts[1]);
+    }
+}
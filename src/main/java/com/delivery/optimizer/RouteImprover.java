@@ -0,0 +1,13 @@
+package com.delivery.optimizer;
+
+/**
+ * Mouvement de recherche locale appliqué autour d'un point de la tournée.
+ */
+public interface RouteImprover {
+
+    /**
+     * Applique le premier mouvement améliorant trouvé à partir de node et réactive les points touchés.
+     * Retourne false si aucun mouvement n'améliore la tournée.
+     */
+    boolean improve(LocalSearchRoute route, int node);
+}
@@ -0,0 +1,93 @@
+package com.delivery.optimizer;
+
+/**
+ * Indicateurs d'une tournée ordonnée, calculés par RouteEvaluator.
+ * Les tableaux sont indexés comme la tournée (0 = premier arrêt) ; les heures sont en minutes depuis minuit.
+ */
+public final class RouteMetrics {
+
+    private final double totalDistance;
+    private final double totalWeight;
+    private final double totalVolume;
+    private final double[] legDistances;
+    private final double returnDistance;
+    private final double[] loadProfile;
+    private final double[] arrivalMinutes;
+    private final double returnMinutes;
+    private final int timeWindowViolations;
+    private final double totalLatenessMinutes;
+    private final boolean capacityExceeded;
+
+    RouteMetrics(double totalDistance, double totalWeight, double totalVolume, double[] legDistances,
+                 double returnDistance, double[] loadProfile, double[] arrivalMinutes, double returnMinutes,
+                 int timeWindowViolations, double totalLatenessMinutes, boolean capacityExceeded) {
+        this.totalDistance = totalDistance;
+        this.totalWeight = totalWeight;
+        this.totalVolume = totalVolume;
+        this.legDistances = legDistances;
+        this.returnDistance = returnDistance;
+        this.loadProfile = loadProfile;
+        this.arrivalMinutes = arrivalMinutes;
+        this.returnMinutes = returnMinutes;
+        this.timeWindowViolations = timeWindowViolations;
+        this.totalLatenessMinutes = totalLatenessMinutes;
+        this.capacityExceeded = capacityExceeded;
+    }
+
+    public double getTotalDistance() {
+        return totalDistance; // en km
+    }
+
+    public double getTotalWeight() {
+        return totalWeight;
+    }
+
+    public double getTotalVolume() {
+        return totalVolume;
+    }
+
+    /**
+     * Distance (km) parcourue pour atteindre chaque arrêt depuis le précédent (l'entrepôt pour le premier).
+     */
+    public double[] getLegDistances() {
+        return legDistances.clone();
+    }
+
+    public double getReturnDistance() {
+        return returnDistance; // dernier arrêt -> entrepôt
+    }
+
+    /**
+     * Poids à bord (kg) en arrivant à chaque arrêt.
+     */
+    public double[] getLoadProfile() {
+        return loadProfile.clone();
+    }
+
+    /**
+     * Heure de début de service à chaque arrêt, attente éventuelle comprise.
+     */
+    public double[] getArrivalMinutes() {
+        return arrivalMinutes.clone();
+    }
+
+    public double getReturnMinutes() {
+        return returnMinutes;
+    }
+
+    public int getTimeWindowViolations() {
+        return timeWindowViolations;
+    }
+
+    public double getTotalLatenessMinutes() {
+        return totalLatenessMinutes;
+    }
+
+    public boolean isCapacityExceeded() {
+        return capacityExceeded;
+    }
+
+    public boolean isFeasible() {
+        return !capacityExceeded && timeWindowViolations == 0;
+    }
+}
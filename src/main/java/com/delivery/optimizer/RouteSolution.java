@@ -0,0 +1,65 @@
+package com.delivery.optimizer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tournée calculée sur un RoutingProblem : ordre de passage en index du problème (1 à n, entrepôt exclu)
+ * et indicateurs évalués une fois. Aucune entité n'est touchée.
+ */
+public final class RouteSolution {
+
+    private final RoutingProblem problem;
+    private final int[] route;
+    private final RouteMetrics metrics;
+    private final Double distanceGain;
+
+    public RouteSolution(RoutingProblem problem, int[] route, RouteMetrics metrics, Double distanceGain) {
+        this.problem = problem;
+        this.route = route;
+        this.metrics = metrics;
+        this.distanceGain = distanceGain;
+    }
+
+    public static RouteSolution of(RoutingProblem problem, int[] route) {
+        return of(problem, route, null);
+    }
+
+    public static RouteSolution of(RoutingProblem problem, int[] route, Double distanceGain) {
+        return new RouteSolution(problem, route, RouteEvaluator.evaluate(problem, route), distanceGain);
+    }
+
+    public RoutingProblem getProblem() {
+        return problem;
+    }
+
+    /**
+     * Ordre de passage (tableau partagé : ne pas modifier).
+     */
+    public int[] getRoute() {
+        return route;
+    }
+
+    public RouteMetrics getMetrics() {
+        return metrics;
+    }
+
+    public double getTotalDistance() {
+        return metrics.getTotalDistance();
+    }
+
+    public Double getDistanceGain() {
+        return distanceGain;
+    }
+
+    /**
+     * Identifiants des livraisons dans l'ordre de passage.
+     */
+    public List<Long> getDeliveryIds() {
+        List<Long> ids = new ArrayList<>(route.length);
+        for (int index : route) {
+            ids.add(problem.deliveryId(index));
+        }
+        return ids;
+    }
+}
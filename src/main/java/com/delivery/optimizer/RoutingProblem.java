@@ -0,0 +1,284 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Tour;
+import com.delivery.entity.Vehicle;
+import com.delivery.entity.Warehouse;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Instantané immuable d'un problème de tournée, détaché des entités JPA : coordonnées, poids, volumes
+ * et créneaux en tableaux primitifs (index 0 = entrepôt, i = i-ème livraison, comme DistanceMatrix),
+ * capacités du véhicule et identifiants des livraisons. Lu une seule fois sur les entités, il s'utilise
+ * ensuite sans proxy ni transaction et se partage entre threads ; l'ordre calculé est reporté par identifiant.
+ * Noms, adresses et créneaux saisis sont copiés tels quels pour les optimiseurs qui les exploitent (IA).
+ * Les versions lues (tournée et livraisons) permettent de refuser l'écriture d'une solution devenue périmée.
+ */
+public final class RoutingProblem {
+
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final double[] weights;
+    private final double[] volumes;
+    private final int[] windowStarts;
+    private final int[] windowEnds;
+    private final boolean[] hasWindow;
+    private final Long[] deliveryIds;
+    private final Long[] deliveryVersions;
+    private final Map<Long, Integer> indexById;
+
+    // Index 0 : nom, adresse et horaires de l'entrepôt ; index i : client, adresse et créneaux de la livraison
+    private final String[] names;
+    private final String[] addresses;
+    private final String[] timeSlots;
+    private final String[] customerTimeSlots;
+    private final Long warehouseId;
+    private final Long tourVersion;
+
+    private final boolean hasVehicle;
+    private final double maxWeight;
+    private final double maxVolume;
+    private final int maxDeliveries;
+    private final String vehicleLicensePlate;
+    private final String vehicleType;
+    private final Double vehicleRange;
+
+    // Calculée à la première demande : les heuristiques sans matrice (KD-tree, sweep) ne la paient pas
+    private volatile DistanceMatrix distanceMatrix;
+
+    private RoutingProblem(int size, Warehouse warehouse, Vehicle vehicle, Long tourVersion) {
+        this.latitudes = new double[size];
+        this.longitudes = new double[size];
+        this.weights = new double[size];
+        this.volumes = new double[size];
+        this.windowStarts = new int[size];
+        this.windowEnds = new int[size];
+        this.hasWindow = new boolean[size];
+        this.deliveryIds = new Long[size];
+        this.deliveryVersions = new Long[size];
+        this.indexById = new HashMap<>();
+        this.names = new String[size];
+        this.addresses = new String[size];
+        this.timeSlots = new String[size];
+        this.customerTimeSlots = new String[size];
+        this.warehouseId = warehouse.getId();
+        this.tourVersion = tourVersion;
+
+        this.hasVehicle = vehicle != null;
+        this.maxWeight = vehicle != null ? vehicle.getMaxWeight() : Double.MAX_VALUE;
+        this.maxVolume = vehicle != null ? vehicle.getMaxVolume() : Double.MAX_VALUE;
+        this.maxDeliveries = vehicle != null ? vehicle.getMaxDeliveries() : Integer.MAX_VALUE;
+        this.vehicleLicensePlate = vehicle != null ? vehicle.getLicensePlate() : null;
+        this.vehicleType = vehicle != null && vehicle.getType() != null ? vehicle.getType().toString() : null;
+        this.vehicleRange = vehicle != null ? vehicle.getRange() : null;
+    }
+
+    /**
+     * Lit les entités une fois (vehicle peut être null : capacité illimitée).
+     */
+    public static RoutingProblem of(Warehouse warehouse, List<Delivery> deliveries, Vehicle vehicle) {
+        return of(warehouse, deliveries, vehicle, null);
+    }
+
+    /**
+     * Instantané d'une tournée enregistrée, avec sa version : seul ce problème peut être réécrit sur la tournée.
+     */
+    public static RoutingProblem of(Tour tour) {
+        return of(tour.getWarehouse(), tour.getDeliveries(), tour.getVehicle(), tour.getVersion());
+    }
+
+    private static RoutingProblem of(Warehouse warehouse, List<Delivery> deliveries, Vehicle vehicle, Long tourVersion) {
+        RoutingProblem problem = new RoutingProblem(deliveries.size() + 1, warehouse, vehicle, tourVersion);
+
+        int[] depotWindow = RouteEvaluator.depotWindow(warehouse);
+        problem.latitudes[DistanceMatrix.DEPOT] = warehouse.getLatitude();
+        problem.longitudes[DistanceMatrix.DEPOT] = warehouse.getLongitude();
+        problem.windowStarts[DistanceMatrix.DEPOT] = depotWindow[0];
+        problem.windowEnds[DistanceMatrix.DEPOT] = depotWindow[1];
+        problem.hasWindow[DistanceMatrix.DEPOT] = true;
+        problem.names[DistanceMatrix.DEPOT] = warehouse.getName();
+        problem.addresses[DistanceMatrix.DEPOT] = warehouse.getAddress();
+        problem.timeSlots[DistanceMatrix.DEPOT] = warehouse.getOpeningHours();
+
+        for (int i = 1; i <= deliveries.size(); i++) {
+            Delivery delivery = deliveries.get(i - 1);
+            problem.latitudes[i] = delivery.getLatitude();
+            problem.longitudes[i] = delivery.getLongitude();
+            problem.weights[i] = delivery.getWeight();
+            problem.volumes[i] = delivery.getVolume();
+
+            int[] window = RouteEvaluator.timeWindow(delivery);
+            if (window != null) {
+                problem.windowStarts[i] = window[0];
+                problem.windowEnds[i] = window[1];
+                problem.hasWindow[i] = true;
+            }
+
+            // Client déjà lu pour les coordonnées : aucune requête de plus
+            problem.names[i] = delivery.getCustomer() != null ? delivery.getCustomer().getName() : null;
+            problem.addresses[i] = delivery.getAddress();
+            problem.timeSlots[i] = delivery.getPreferredTimeSlot();
+            problem.customerTimeSlots[i] = delivery.getCustomerPreferredTimeSlot();
+
+            problem.deliveryIds[i] = delivery.getId();
+            problem.deliveryVersions[i] = delivery.getVersion();
+            if (delivery.getId() != null) {
+                problem.indexById.put(delivery.getId(), i);
+            }
+        }
+        return problem;
+    }
+
+    /**
+     * Nombre de points, entrepôt compris.
+     */
+    public int size() {
+        return latitudes.length;
+    }
+
+    public int deliveryCount() {
+        return latitudes.length - 1;
+    }
+
+    public double latitude(int index) {
+        return latitudes[index];
+    }
+
+    public double longitude(int index) {
+        return longitudes[index];
+    }
+
+    public double weight(int index) {
+        return weights[index];
+    }
+
+    public double volume(int index) {
+        return volumes[index];
+    }
+
+    /**
+     * Vrai si le point a un créneau ; l'entrepôt a toujours ses horaires d'ouverture.
+     */
+    public boolean hasTimeWindow(int index) {
+        return hasWindow[index];
+    }
+
+    /**
+     * Début du créneau en minutes depuis minuit (horaires de l'entrepôt si la livraison n'en a pas).
+     */
+    public int windowStart(int index) {
+        return hasWindow[index] ? windowStarts[index] : windowStarts[DistanceMatrix.DEPOT];
+    }
+
+    public int windowEnd(int index) {
+        return hasWindow[index] ? windowEnds[index] : windowEnds[DistanceMatrix.DEPOT];
+    }
+
+    public Long deliveryId(int index) {
+        return deliveryIds[index];
+    }
+
+    /**
+     * Version de la livraison lue dans l'instantané.
+     */
+    public Long deliveryVersion(int index) {
+        return deliveryVersions[index];
+    }
+
+    /**
+     * Index de la livraison d'identifiant id, -1 si elle ne fait pas partie du problème.
+     */
+    public int indexOf(Long id) {
+        Integer index = indexById.get(id);
+        return index != null ? index : -1;
+    }
+
+    public Long warehouseId() {
+        return warehouseId;
+    }
+
+    /**
+     * Version de la tournée lue dans l'instantané, null si le problème n'a pas été construit sur une tournée.
+     */
+    public Long tourVersion() {
+        return tourVersion;
+    }
+
+    /**
+     * Nom de l'entrepôt (index 0) ou du client de la livraison.
+     */
+    public String name(int index) {
+        return names[index];
+    }
+
+    public String address(int index) {
+        return addresses[index];
+    }
+
+    /**
+     * Créneau tel que saisi sur la livraison (horaires d'ouverture pour l'entrepôt), null si absent.
+     */
+    public String timeSlot(int index) {
+        return timeSlots[index];
+    }
+
+    public String customerTimeSlot(int index) {
+        return customerTimeSlots[index];
+    }
+
+    public boolean hasVehicle() {
+        return hasVehicle;
+    }
+
+    /**
+     * Vrai si la charge tient dans le véhicule (toujours vrai sans véhicule).
+     */
+    public boolean fitsVehicle(double weight, double volume, int deliveries) {
+        return weight <= maxWeight && volume <= maxVolume && deliveries <= maxDeliveries;
+    }
+
+    public double maxWeight() {
+        return maxWeight;
+    }
+
+    public double maxVolume() {
+        return maxVolume;
+    }
+
+    public int maxDeliveries() {
+        return maxDeliveries;
+    }
+
+    public String vehicleLicensePlate() {
+        return vehicleLicensePlate;
+    }
+
+    public String vehicleType() {
+        return vehicleType;
+    }
+
+    public Double vehicleRange() {
+        return vehicleRange;
+    }
+
+    public DistanceMatrix distanceMatrix() {
+        DistanceMatrix matrix = distanceMatrix;
+        if (matrix == null) {
+            matrix = DistanceMatrix.fromCoordinates(latitudes, longitudes);
+            distanceMatrix = matrix;
+        }
+        return matrix;
+    }
+
+    // Tableaux internes, en lecture seule, pour les structures qui les indexent directement
+    double[] latitudes() {
+        return latitudes;
+    }
+
+    double[] longitudes() {
+        return longitudes;
+    }
+}
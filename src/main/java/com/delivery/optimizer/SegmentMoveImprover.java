@@ -0,0 +1,94 @@
+package com.delivery.optimizer;
+
+/**
+ * Déplacement d'un segment de livraisons consécutives vers une autre arête de la tournée,
+ * dans le même sens ou inversé. Les arêtes candidates sont celles des voisins proches des extrémités du segment.
+ */
+abstract class SegmentMoveImprover implements RouteImprover {
+
+    private static final double EPSILON = 1e-9;
+
+    private final int minLength;
+    private final int maxLength;
+
+    protected SegmentMoveImprover(int minLength, int maxLength) {
+        this.minLength = minLength;
+        this.maxLength = maxLength;
+    }
+
+    @Override
+    public boolean improve(LocalSearchRoute route, int first) {
+        for (int length = minLength; length <= maxLength && length <= route.size() - 3; length++) {
+            if (moveSegment(route, first, length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean moveSegment(LocalSearchRoute route, int first, int length) {
+        int last = route.after(first, length - 1);
+        int before = route.previous(first);
+        int after = route.next(last);
+
+        // Gain obtenu en retirant le segment et en reliant before -> after
+        double removalGain = route.distance(before, first) + route.distance(last, after) - route.distance(before, after);
+        if (removalGain <= EPSILON) {
+            return false;
+        }
+
+        return tryNeighborsOf(route, first, first, last, length, removalGain)
+                || (length > 1 && tryNeighborsOf(route, last, first, last, length, removalGain));
+    }
+
+    private boolean tryNeighborsOf(LocalSearchRoute route, int endpoint, int first, int last, int length,
+                                   double removalGain) {
+        NeighborLists neighbors = route.neighbors();
+
+        for (int rank = 0; rank < neighbors.count(); rank++) {
+            int candidate = neighbors.neighbor(endpoint, rank);
+            if (route.distance(endpoint, candidate) >= removalGain) {
+                break;
+            }
+            if (route.inSegment(candidate, first, length)) {
+                continue;
+            }
+
+            // Arêtes (candidate, suivant) et (précédent, candidate)
+            if (tryInsert(route, candidate, route.next(candidate), first, last, length, removalGain)
+                    || tryInsert(route, route.previous(candidate), candidate, first, last, length, removalGain)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean tryInsert(LocalSearchRoute route, int x, int y, int first, int last, int length,
+                              double removalGain) {
+        if (route.inSegment(x, first, length) || route.inSegment(y, first, length)) {
+            return false;
+        }
+
+        double edge = route.distance(x, y);
+        double forwardCost = route.distance(x, first) + route.distance(last, y) - edge;
+        double reversedCost = route.distance(x, last) + route.distance(first, y) - edge;
+        boolean reversed = length > 1 && reversedCost < forwardCost;
+        double insertionCost = reversed ? reversedCost : forwardCost;
+
+        if (removalGain - insertionCost <= EPSILON) {
+            return false;
+        }
+
+        int before = route.previous(first);
+        int after = route.next(last);
+        route.moveSegment(first, length, x, reversed);
+
+        route.activate(before);
+        route.activate(after);
+        route.activate(x);
+        route.activate(y);
+        route.activate(first);
+        route.activate(last);
+        return true;
+    }
+}
@@ -0,0 +1,108 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Vehicle;
+import com.delivery.entity.Warehouse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Découpage "sweep" (Gillett et Miller) : les livraisons sont balayées par angle polaire autour de l'entrepôt
+ * et remplissent les véhicules l'un après l'autre, dans l'ordre fourni, jusqu'à la limite de poids,
+ * de volume ou de nombre de livraisons. O(n log n), sans matrice de distances : adapté aux grands volumes.
+ * Le balayage commence après le plus grand écart angulaire, pour ne pas couper une zone dense en deux.
+ */
+public final class SweepClustering {
+
+    private SweepClustering() {
+    }
+
+    /**
+     * Groupe k = livraisons du véhicule vehicles.get(k). Les véhicules en trop ne reçoivent rien ;
+     * les livraisons qui ne tiennent plus dans aucun véhicule n'apparaissent dans aucun groupe.
+     */
+    public static List<List<Delivery>> cluster(Warehouse warehouse, List<Delivery> deliveries, List<Vehicle> vehicles) {
+        List<List<Delivery>> clusters = new ArrayList<>();
+        int count = deliveries.size();
+        if (count == 0 || vehicles.isEmpty()) {
+            return clusters;
+        }
+
+        int[] order = sweepOrder(warehouse, deliveries);
+
+        int vehicleIndex = 0;
+        List<Delivery> current = new ArrayList<>();
+        double weight = 0.0;
+        double volume = 0.0;
+        for (int index : order) {
+            Delivery delivery = deliveries.get(index);
+            Vehicle vehicle = vehicles.get(vehicleIndex);
+
+            if (!vehicle.isValidForDelivery(weight + delivery.getWeight(), volume + delivery.getVolume(), current.size() + 1)) {
+                if (!current.isEmpty()) {
+                    // Véhicule plein : on passe au suivant
+                    clusters.add(current);
+                    current = new ArrayList<>();
+                    weight = 0.0;
+                    volume = 0.0;
+                    if (++vehicleIndex == vehicles.size()) {
+                        break;
+                    }
+                    vehicle = vehicles.get(vehicleIndex);
+                }
+                if (!vehicle.isValidForDelivery(delivery.getWeight(), delivery.getVolume(), 1)) {
+                    continue; // Colis trop gros pour ce véhicule vide : non affecté
+                }
+            }
+
+            current.add(delivery);
+            weight += delivery.getWeight();
+            volume += delivery.getVolume();
+        }
+        if (!current.isEmpty()) {
+            clusters.add(current);
+        }
+        return clusters;
+    }
+
+    // Index des livraisons par angle croissant, en partant juste après le plus grand écart
+    private static int[] sweepOrder(Warehouse warehouse, List<Delivery> deliveries) {
+        int count = deliveries.size();
+        double cosLat = Math.cos(Math.toRadians(warehouse.getLatitude()));
+
+        // Angle ramené dans [0, 2π) : les bits d'un float positif sont dans le même ordre que sa valeur
+        long[] sortKeys = new long[count];
+        for (int i = 0; i < count; i++) {
+            Delivery delivery = deliveries.get(i);
+            double angle = Math.atan2(delivery.getLatitude() - warehouse.getLatitude(),
+                    (delivery.getLongitude() - warehouse.getLongitude()) * cosLat);
+            if (angle < 0) {
+                angle += 2 * Math.PI;
+            }
+            sortKeys[i] = ((long) Float.floatToIntBits((float) angle) << 32) | i;
+        }
+        Arrays.sort(sortKeys);
+
+        int start = 0;
+        double largestGap = angleOf(sortKeys[0]) + 2 * Math.PI - angleOf(sortKeys[count - 1]);
+        for (int k = 1; k < count; k++) {
+            double gap = angleOf(sortKeys[k]) - angleOf(sortKeys[k - 1]);
+            if (gap > largestGap) {
+                largestGap = gap;
+                start = k;
+            }
+        }
+
+        int[] order = new int[count];
+        for (int k = 0; k < count; k++) {
+            order[k] = (int) sortKeys[(start + k) % count];
+        }
+        return order;
+    }
+
+    private static double angleOf(long sortKey) {
+        return Float.intBitsToFloat((int) (sortKey >>> 32));
+    }
+}
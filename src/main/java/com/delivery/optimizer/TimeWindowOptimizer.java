@@ -0,0 +1,243 @@
+package com.delivery.optimizer;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.logging.Logger;
+
+/**
+ * Tournée avec créneaux horaires (VRPTW) par insertion au moindre coût.
+ * Les créneaux sont convertis une fois en minutes ; l'entrepôt impose ses horaires d'ouverture au départ et au retour.
+ * La faisabilité d'une insertion se vérifie en O(1) grâce à l'heure de début au plus tard de chaque arrêt
+ * (marge avant : le décalage provoqué sur le suivant doit rester sous cette limite).
+ * Si des créneaux restent non tenus, un second passage insère par fin de créneau croissante.
+ */
+@Component
+public class TimeWindowOptimizer implements TourOptimizer {
+
+    private static final Logger logger = Logger.getLogger(TimeWindowOptimizer.class.getName());
+
+    private static final double EPSILON = 1e-9;
+
+    @Override
+    public RouteSolution solve(RoutingProblem problem, CancellationToken token) {
+        logger.info("Calculating tour using time window insertion for " + problem.deliveryCount() + " deliveries");
+
+        Schedule schedule = new Schedule(problem);
+        int late = schedule.insertCheapest();
+        if (late > 0) {
+            // L'insertion au moindre coût peut se bloquer sur des créneaux serrés : second essai par échéance
+            Schedule byDeadline = new Schedule(problem);
+            int lateByDeadline = byDeadline.insertByDeadline();
+            if (lateByDeadline < late) {
+                schedule = byDeadline;
+                late = lateByDeadline;
+            }
+        }
+
+        RouteSolution solution = RouteSolution.of(problem, schedule.route());
+        if (late > 0) {
+            logger.warning(late + " deliveries could not be scheduled within their time slot");
+        }
+        logger.info("Time window optimization completed - Distance: " + solution.getTotalDistance() + " km, "
+                + solution.getMetrics().getTimeWindowViolations() + " time slot violations");
+        return solution;
+    }
+
+    /**
+     * Tournée en cours de construction : nodes[0] et nodes[length - 1] sont l'entrepôt.
+     * start[k] = début de service à la position k ; latest[k] = début au plus tard sans rendre la suite infaisable.
+     */
+    private static final class Schedule {
+        private final DistanceMatrix matrix;
+        private final int[] early;
+        private final int[] late;
+
+        private final int[] nodes;
+        private final double[] start;
+        private final double[] latest;
+        private int length;
+
+        private Schedule(RoutingProblem problem) {
+            this.matrix = problem.distanceMatrix();
+            int size = matrix.size();
+            this.early = new int[size];
+            this.late = new int[size];
+
+            // Les livraisons sans créneau prennent les horaires de l'entrepôt
+            for (int i = 0; i < size; i++) {
+                early[i] = problem.windowStart(i);
+                late[i] = problem.windowEnd(i);
+            }
+
+            this.nodes = new int[size + 1];
+            this.start = new double[size + 1];
+            this.latest = new double[size + 1];
+            nodes[0] = DistanceMatrix.DEPOT;
+            nodes[1] = DistanceMatrix.DEPOT;
+            length = 2;
+            updateTimes();
+        }
+
+        /**
+         * Insère toutes les livraisons, la moins coûteuse en distance d'abord ;
+         * retourne le nombre de celles placées sans créneau respecté.
+         */
+        private int insertCheapest() {
+            int stops = matrix.size() - 1;
+            boolean[] routed = new boolean[stops + 1];
+            int remaining = stops;
+
+            // Insertions faisables, la moins coûteuse en distance d'abord
+            while (remaining > 0) {
+                int bestNode = -1;
+                int bestPosition = -1;
+                double bestCost = Double.MAX_VALUE;
+                for (int node = 1; node <= stops; node++) {
+                    if (routed[node]) {
+                        continue;
+                    }
+                    for (int position = 0; position < length - 1; position++) {
+                        double cost = insertionCost(node, position);
+                        if (cost < bestCost && isFeasible(node, position)) {
+                            bestCost = cost;
+                            bestNode = node;
+                            bestPosition = position;
+                        }
+                    }
+                }
+                if (bestNode < 0) {
+                    break;
+                }
+                insert(bestNode, bestPosition);
+                routed[bestNode] = true;
+                remaining--;
+            }
+            return insertLate(routed, remaining);
+        }
+
+        /**
+         * Insère les livraisons par fin de créneau croissante, chacune à sa position faisable la moins coûteuse.
+         * Réussit dès que les créneaux suivent un ordre de passage faisable, là où le choix par distance se bloque.
+         */
+        private int insertByDeadline() {
+            int stops = matrix.size() - 1;
+            Integer[] order = new Integer[stops];
+            for (int node = 1; node <= stops; node++) {
+                order[node - 1] = node;
+            }
+            Arrays.sort(order, Comparator.<Integer>comparingInt(node -> late[node]).thenComparingInt(node -> early[node]));
+
+            boolean[] routed = new boolean[stops + 1];
+            int remaining = stops;
+            for (int node : order) {
+                int bestPosition = -1;
+                double bestCost = Double.MAX_VALUE;
+                for (int position = 0; position < length - 1; position++) {
+                    double cost = insertionCost(node, position);
+                    if (cost < bestCost && isFeasible(node, position)) {
+                        bestCost = cost;
+                        bestPosition = position;
+                    }
+                }
+                if (bestPosition >= 0) {
+                    insert(node, bestPosition);
+                    routed[node] = true;
+                    remaining--;
+                }
+            }
+            return insertLate(routed, remaining);
+        }
+
+        /**
+         * Livraisons impossibles à servir à l'heure : placées sans retarder les autres,
+         * sinon dans la fin de tournée qui ne contient que des livraisons déjà en retard.
+         * Retourne leur nombre.
+         */
+        private int insertLate(boolean[] routed, int remaining) {
+            int stops = matrix.size() - 1;
+            int unscheduled = remaining;
+            int tailStart = length - 2;
+            for (int node = 1; node <= stops && remaining > 0; node++) {
+                if (routed[node]) {
+                    continue;
+                }
+                int bestPosition = length - 2;
+                double bestCost = Double.MAX_VALUE;
+                for (int position = 0; position < length - 1; position++) {
+                    double cost = insertionCost(node, position);
+                    if (cost < bestCost && (position >= tailStart || keepsFollowingFeasible(node, position))) {
+                        bestCost = cost;
+                        bestPosition = position;
+                    }
+                }
+                insert(node, bestPosition);
+                if (bestPosition < tailStart) {
+                    tailStart++;
+                }
+                routed[node] = true;
+                remaining--;
+            }
+            return unscheduled;
+        }
+
+        // Surcoût en distance de l'insertion entre les positions position et position + 1
+        private double insertionCost(int node, int position) {
+            int previous = nodes[position];
+            int next = nodes[position + 1];
+            return matrix.distance(previous, node) + matrix.distance(node, next) - matrix.distance(previous, next);
+        }
+
+        // O(1) : créneau du nouvel arrêt et décalage (push-forward) du suivant sous son début au plus tard
+        private boolean isFeasible(int node, int position) {
+            return nodeStart(node, position) <= late[node] + EPSILON && keepsFollowingFeasible(node, position);
+        }
+
+        private boolean keepsFollowingFeasible(int node, int position) {
+            int next = nodes[position + 1];
+            double nextStart = Math.max(early[next], nodeStart(node, position) + serviceTime(node) + travelTime(node, next));
+            return nextStart <= latest[position + 1] + EPSILON;
+        }
+
+        private double nodeStart(int node, int position) {
+            int previous = nodes[position];
+            return Math.max(early[node], start[position] + serviceTime(previous) + travelTime(previous, node));
+        }
+
+        private void insert(int node, int position) {
+            System.arraycopy(nodes, position + 1, nodes, position + 2, length - position - 1);
+            nodes[position + 1] = node;
+            length++;
+            updateTimes();
+        }
+
+        private void updateTimes() {
+            start[0] = early[DistanceMatrix.DEPOT];
+            for (int k = 1; k < length; k++) {
+                double arrival = start[k - 1] + serviceTime(nodes[k - 1]) + travelTime(nodes[k - 1], nodes[k]);
+                start[k] = k == length - 1 ? arrival : Math.max(early[nodes[k]], arrival);
+            }
+
+            latest[length - 1] = late[DistanceMatrix.DEPOT];
+            for (int k = length - 2; k >= 0; k--) {
+                double latestFromNext = latest[k + 1] - serviceTime(nodes[k]) - travelTime(nodes[k], nodes[k + 1]);
+                latest[k] = Math.min(late[nodes[k]], latestFromNext);
+            }
+        }
+
+        private double serviceTime(int node) {
+            return node == DistanceMatrix.DEPOT ? 0.0 : RouteEvaluator.SERVICE_TIME_MINUTES;
+        }
+
+        private double travelTime(int from, int to) {
+            return RouteEvaluator.travelMinutes(matrix.distance(from, to));
+        }
+
+        private int[] route() {
+            int[] route = new int[length - 2];
+            System.arraycopy(nodes, 1, route, 0, route.length);
+            return route;
+        }
+    }
+}
@@ -7,6 +7,30 @@ import com.delivery.entity.Vehicle;
 import java.util.List;
 
 public interface TourOptimizer {
-    List<Delivery> calculateOptimalTour(Warehouse warehouse, List<Delivery> deliveries, Vehicle vehicle);
-    Double calculateTotalDistance(Warehouse warehouse, List<Delivery> deliveries);
-}
\ No newline at end of file
+
+    /**
+     * Calcule la tournée sur l'instantané détaché, sans entité ni transaction. Les optimiseurs itératifs
+     * s'arrêtent dès que le jeton est annulé ou expiré et retournent la meilleure tournée trouvée ;
+     * les heuristiques de construction l'ignorent.
+     */
+    RouteSolution solve(RoutingProblem problem, CancellationToken token);
+
+    /**
+     * Calcule la tournée une seule fois et la retourne avec ses indicateurs (distance, charge, créneaux).
+     */
+    default OptimizationResult optimize(Warehouse warehouse, List<Delivery> deliveries, Vehicle vehicle) {
+        return optimize(warehouse, deliveries, vehicle, CancellationToken.none());
+    }
+
+    /**
+     * Variante interruptible sur les entités : instantané, calcul, puis ordre reporté sur les livraisons.
+     */
+    default OptimizationResult optimize(Warehouse warehouse, List<Delivery> deliveries, Vehicle vehicle,
+                                        CancellationToken token) {
+        if (deliveries.isEmpty()) {
+            return OptimizationResult.empty();
+        }
+        RouteSolution solution = solve(RoutingProblem.of(warehouse, deliveries, vehicle), token);
+        return OptimizationResult.of(solution, deliveries);
+    }
+}
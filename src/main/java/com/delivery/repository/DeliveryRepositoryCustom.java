@@ -0,0 +1,23 @@
+package com.delivery.repository;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Écritures en masse sur les livraisons, hors du contexte de persistance.
+ */
+public interface DeliveryRepositoryCustom {
+
+    /**
+     * Écrit l'ordre de passage (1 à n, dans l'ordre de la liste) et la tournée des livraisons en un seul lot JDBC.
+     * Chaque ligne n'est écrite que si la livraison est encore dans la version attendue (expectedVersions,
+     * par identifiant) ; sinon ObjectOptimisticLockingFailureException et la transaction est annulée.
+     * Les entités déjà chargées dans la session ne sont pas mises à jour.
+     */
+    int[] updateRouteOrder(Long tourId, List<Long> orderedDeliveryIds, Map<Long, Long> expectedVersions);
+
+    /**
+     * Même écriture pour plusieurs tournées, toutes dans un seul lot JDBC.
+     */
+    int[] updateRouteOrders(Map<Long, List<Long>> orderedDeliveryIdsByTour, Map<Long, Long> expectedVersions);
+}
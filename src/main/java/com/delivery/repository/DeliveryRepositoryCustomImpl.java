@@ -0,0 +1,74 @@
+package com.delivery.repository;
+
+import com.delivery.entity.Delivery;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+
+public class DeliveryRepositoryCustomImpl implements DeliveryRepositoryCustom {
+
+    private static final String UPDATE_ROUTE_ORDER_SQL =
+            "UPDATE deliveries SET delivery_order = ?, tour_id = ?, version = version + 1 WHERE id = ? AND version = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DeliveryRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int[] updateRouteOrder(Long tourId, List<Long> orderedDeliveryIds, Map<Long, Long> expectedVersions) {
+        return updateRouteOrders(Map.of(tourId, orderedDeliveryIds), expectedVersions);
+    }
+
+    @Override
+    public int[] updateRouteOrders(Map<Long, List<Long>> orderedDeliveryIdsByTour, Map<Long, Long> expectedVersions) {
+        int rows = orderedDeliveryIdsByTour.values().stream().mapToInt(List::size).sum();
+        long[] tourIds = new long[rows];
+        long[] deliveryIds = new long[rows];
+        Long[] versions = new Long[rows];
+        int[] orders = new int[rows];
+
+        int row = 0;
+        for (Map.Entry<Long, List<Long>> entry : orderedDeliveryIdsByTour.entrySet()) {
+            List<Long> orderedIds = entry.getValue();
+            for (int i = 0; i < orderedIds.size(); i++) {
+                tourIds[row] = entry.getKey();
+                deliveryIds[row] = orderedIds.get(i);
+                versions[row] = expectedVersions.get(orderedIds.get(i));
+                orders[row] = i + 1;
+                row++;
+            }
+        }
+
+        // Même connexion que la transaction JPA en cours : un seul aller-retour pour toutes les tournées
+        int[] counts = jdbcTemplate.batchUpdate(UPDATE_ROUTE_ORDER_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                statement.setInt(1, orders[i]);
+                statement.setLong(2, tourIds[i]);
+                statement.setLong(3, deliveryIds[i]);
+                statement.setObject(4, versions[i], Types.BIGINT);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return orders.length;
+            }
+        });
+
+        // 0 ligne : livraison modifiée ou supprimée depuis la lecture (SUCCESS_NO_INFO ne dit rien, il est accepté)
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                throw new ObjectOptimisticLockingFailureException(Delivery.class, deliveryIds[i]);
+            }
+        }
+        return counts;
+    }
+}
@@ -1,26 +1,74 @@
 package com.delivery.repository;
 
 import com.delivery.entity.Tour;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TourRepository extends JpaRepository<Tour, Long> {
 
+    // Colonnes de TourSummary ; t.vehicle.id et t.warehouse.id sont lus sur les clés étrangères, sans jointure
+    String SUMMARY_SELECT = "SELECT t.id AS id, t.date AS date, t.vehicle.id AS vehicleId, t.warehouse.id AS warehouseId, " +
+            "t.algorithmUsed AS algorithmUsed, t.totalDistance AS totalDistance, t.distanceGain AS distanceGain, " +
+            "t.status AS status, t.version AS version FROM Tour t ";
+
+    int EXPORT_FETCH_SIZE = 1000;
+
     List<Tour> findByDate(LocalDate date);
 
     List<Tour> findByVehicleId(Long vehicleId);
 
-    @Query("SELECT t FROM Tour t WHERE t.algorithmUsed = 'NEAREST_NEIGHBOR'")
-    List<Tour> findToursWithNearestNeighbor();
+    // Pagination par clé sur la clé primaire : la page suivante reprend après le dernier identifiant renvoyé
+    @Query(SUMMARY_SELECT + "WHERE t.id > :afterId ORDER BY t.id")
+    List<TourSummary> findSummariesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Export complet : projections sans entité gérée, lues par lots de EXPORT_FETCH_SIZE lignes
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+    @Query(SUMMARY_SELECT + "ORDER BY t.id")
+    Stream<TourSummary> streamSummariesForExport();
+
+    // Mêmes pages filtrées, sur les index (date, id), (vehicle_id, id) et (algorithm_used, id)
+    @Query(SUMMARY_SELECT + "WHERE t.date = :date AND t.id > :afterId ORDER BY t.id")
+    List<TourSummary> findSummariesByDateAfter(@Param("date") LocalDate date, @Param("afterId") Long afterId,
+                                               Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE t.vehicle.id = :vehicleId AND t.id > :afterId ORDER BY t.id")
+    List<TourSummary> findSummariesByVehicleIdAfter(@Param("vehicleId") Long vehicleId, @Param("afterId") Long afterId,
+                                                    Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE t.algorithmUsed = :algorithm AND t.id > :afterId ORDER BY t.id")
+    List<TourSummary> findSummariesByAlgorithmAfter(@Param("algorithm") Tour.AlgorithmType algorithm,
+                                                    @Param("afterId") Long afterId, Pageable pageable);
+
+    // Tournée, entrepôt, véhicule, livraisons et clients en une seule requête, pour l'instantané d'optimisation ;
+    // appelée hors transaction (aperçu), elle ouvre la sienne, courte et en lecture seule
+    @Transactional(readOnly = true)
+    @Query("SELECT DISTINCT t FROM Tour t JOIN FETCH t.warehouse JOIN FETCH t.vehicle " +
+            "LEFT JOIN FETCH t.deliveries d LEFT JOIN FETCH d.customer WHERE t.id = :id")
+    Optional<Tour> findForOptimization(@Param("id") Long id);
+
+    // Même chargement pour plusieurs tournées (optimisation groupée)
+    @Query("SELECT DISTINCT t FROM Tour t JOIN FETCH t.warehouse JOIN FETCH t.vehicle " +
+            "LEFT JOIN FETCH t.deliveries d LEFT JOIN FETCH d.customer WHERE t.id IN :ids")
+    List<Tour> findAllForOptimization(@Param("ids") Collection<Long> ids);
 
-    @Query("SELECT t FROM Tour t WHERE t.algorithmUsed = 'CLARKE_WRIGHT'")
-    List<Tour> findToursWithClarkeWright();
+    // Variante de findByDate qui charge aussi les associations de chaque tournée
+    @Query("SELECT DISTINCT t FROM Tour t JOIN FETCH t.warehouse JOIN FETCH t.vehicle " +
+            "LEFT JOIN FETCH t.deliveries d LEFT JOIN FETCH d.customer WHERE t.date = :date")
+    List<Tour> findByDateForOptimization(@Param("date") LocalDate date);
 
     @Query("SELECT t FROM Tour t WHERE t.totalDistance > :minDistance")
     List<Tour> findToursWithDistanceGreaterThan(@Param("minDistance") Double minDistance);
@@ -0,0 +1,30 @@
+package com.delivery.repository;
+
+import com.delivery.entity.Tour;
+
+import java.time.LocalDate;
+
+/**
+ * Projection d'une tournée pour les listes : colonnes de la table seulement,
+ * ni entité gérée ni association chargée (véhicule et entrepôt réduits à leur identifiant).
+ */
+public interface TourSummary {
+
+    Long getId();
+
+    LocalDate getDate();
+
+    Long getVehicleId();
+
+    Long getWarehouseId();
+
+    Tour.AlgorithmType getAlgorithmUsed();
+
+    Double getTotalDistance();
+
+    Double getDistanceGain();
+
+    Tour.TourStatus getStatus();
+
+    Long getVersion();
+}
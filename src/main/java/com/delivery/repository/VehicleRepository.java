@@ -1,11 +1,13 @@
 package com.delivery.repository;
 
 import com.delivery.entity.Vehicle;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @Repository
@@ -13,9 +15,15 @@ public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
 
     List<Vehicle> findByType(Vehicle.VehicleType type);
 
+    @Query("SELECT v FROM Vehicle v WHERE v.id > :afterId ORDER BY v.id")
+    List<Vehicle> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+
     @Query("SELECT v FROM Vehicle v WHERE v.id NOT IN (SELECT t.vehicle.id FROM Tour t WHERE t.date = CURRENT_DATE)")
     List<Vehicle> findAvailableVehicles();
 
+    @Query("SELECT v FROM Vehicle v WHERE v.id NOT IN (SELECT t.vehicle.id FROM Tour t WHERE t.date = :date)")
+    List<Vehicle> findAvailableVehicles(@Param("date") LocalDate date);
+
     @Query("SELECT v FROM Vehicle v WHERE v.maxWeight >= :requiredWeight AND v.maxVolume >= :requiredVolume")
     List<Vehicle> findSuitableVehicles(@Param("requiredWeight") Double requiredWeight,
                                        @Param("requiredVolume") Double requiredVolume);
@@ -1,8 +1,10 @@
 package com.delivery.repository;
 
 import com.delivery.entity.Warehouse;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,6 +12,9 @@ import java.util.List;
 @Repository
 public interface WarehouseRepository extends JpaRepository<Warehouse, Long> {
 
+    @Query("SELECT w FROM Warehouse w WHERE w.id > :afterId ORDER BY w.id")
+    List<Warehouse> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+
     @Query("SELECT w FROM Warehouse w WHERE w.openingHours IS NOT NULL")
     List<Warehouse> findActiveWarehouses();
 
@@ -0,0 +1,135 @@
+package com.delivery.service;
+
+import com.delivery.entity.Tour;
+import com.delivery.optimizer.CancellationToken;
+import com.delivery.optimizer.RouteSolution;
+import com.delivery.optimizer.RoutingProblem;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Optimisation de nombreuses tournées en une demande : lecture de toutes les tournées et de leurs livraisons
+ * en un nombre constant de requêtes, calcul en parallèle sur tous les cœurs hors transaction,
+ * puis une seule transaction d'écriture groupée. L'échec d'une tournée (capacité dépassée, tournée vide,
+ * erreur d'algorithme) est reporté dans son issue sans interrompre les autres.
+ */
+@Service
+public class BatchOptimizationService {
+
+    private static final Logger logger = Logger.getLogger(BatchOptimizationService.class.getName());
+
+    private final TourService tourService;
+    private final TourLocks tourLocks;
+    private final ExecutorService executor;
+
+    public BatchOptimizationService(TourService tourService, TourLocks tourLocks) {
+        this.tourService = tourService;
+        this.tourLocks = tourLocks;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+            Thread thread = new Thread(runnable, "batch-optimization-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public OptimizationBatch optimizeTours(List<Long> tourIds, Tour.AlgorithmType algorithmType, Long timeBudgetMs) {
+        List<Long> distinctIds = tourIds.stream().distinct().toList();
+        logger.info("Batch optimization of " + distinctIds.size() + " tours with algorithm: " + algorithmType);
+        return optimize(distinctIds, tourService.findToursForOptimization(distinctIds), algorithmType, timeBudgetMs);
+    }
+
+    public OptimizationBatch optimizeDay(LocalDate date, Tour.AlgorithmType algorithmType, Long timeBudgetMs) {
+        logger.info("Batch optimization of the tours of " + date + " with algorithm: " + algorithmType);
+        List<Tour> tours = tourService.findToursForOptimization(date);
+        List<Long> tourIds = tours.stream().map(Tour::getId).toList();
+        return optimize(tourIds, tours, algorithmType, timeBudgetMs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private OptimizationBatch optimize(List<Long> tourIds, List<Tour> tours, Tour.AlgorithmType algorithmType,
+                                       Long timeBudgetMs) {
+        long startTime = System.currentTimeMillis();
+
+        Map<Long, Tour> toursById = new LinkedHashMap<>();
+        for (Tour tour : tours) {
+            toursById.put(tour.getId(), tour);
+        }
+
+        // Instantanés lus sur les entités détachées (associations déjà chargées), puis calcul en parallèle
+        Map<Long, OptimizationBatch.TourOutcome> outcomes = new LinkedHashMap<>();
+        Map<Long, Future<RouteSolution>> futures = new LinkedHashMap<>();
+        for (Long tourId : tourIds) {
+            Tour tour = toursById.get(tourId);
+            if (tour == null) {
+                outcomes.put(tourId, OptimizationBatch.TourOutcome.failed(tourId, "Tour not found with id: " + tourId));
+                continue;
+            }
+            try {
+                tourService.checkOptimizable(tour);
+                RoutingProblem problem = RoutingProblem.of(tour);
+                futures.put(tourId, executor.submit(() -> tourService.computeOptimization(problem, algorithmType,
+                        timeBudgetMs != null ? CancellationToken.withBudget(timeBudgetMs) : CancellationToken.none())));
+            } catch (RuntimeException e) {
+                outcomes.put(tourId, OptimizationBatch.TourOutcome.failed(tourId, e.getMessage()));
+            }
+        }
+
+        Map<Long, RouteSolution> solutions = new LinkedHashMap<>();
+        for (Map.Entry<Long, Future<RouteSolution>> entry : futures.entrySet()) {
+            try {
+                solutions.put(entry.getKey(), entry.getValue().get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Batch optimization interrupted", e);
+            } catch (ExecutionException e) {
+                logger.warning("Optimization of tour " + entry.getKey() + " failed: " + e.getCause().getMessage());
+                outcomes.put(entry.getKey(), OptimizationBatch.TourOutcome.failed(entry.getKey(), e.getCause().getMessage()));
+            }
+        }
+
+        // Écriture sous les verrous de toutes les tournées, comme une optimisation unitaire sous celui de la sienne
+        Set<Long> applied = solutions.isEmpty() ? Set.of() : tourLocks.withLocks(solutions.keySet(),
+                () -> tourService.applyOptimizations(algorithmType, solutions));
+        for (Map.Entry<Long, RouteSolution> entry : solutions.entrySet()) {
+            Long tourId = entry.getKey();
+            RouteSolution solution = entry.getValue();
+            outcomes.put(tourId, applied.contains(tourId)
+                    ? OptimizationBatch.TourOutcome.optimized(tourId, toursById.get(tourId).getTotalDistance(),
+                    solution.getTotalDistance(), solution.getDistanceGain())
+                    : OptimizationBatch.TourOutcome.failed(tourId, "Tour not found or changed during optimization: " + tourId));
+        }
+
+        List<OptimizationBatch.TourOutcome> ordered = new ArrayList<>(tourIds.size());
+        for (Long tourId : tourIds) {
+            OptimizationBatch.TourOutcome outcome = outcomes.get(tourId);
+            if (outcome != null) {
+                ordered.add(outcome);
+            }
+        }
+
+        OptimizationBatch batch = new OptimizationBatch(algorithmType, ordered, System.currentTimeMillis() - startTime);
+        logger.info("Batch optimization completed in " + batch.getDurationMs() + " ms: "
+                + batch.count(OptimizationBatch.Status.OPTIMIZED) + " optimized, "
+                + batch.count(OptimizationBatch.Status.FAILED) + " failed");
+        return batch;
+    }
+}
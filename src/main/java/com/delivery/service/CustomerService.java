@@ -28,6 +28,14 @@ public class CustomerService {
         return customerRepository.findAll();
     }
 
+    public KeysetPage<Customer> getCustomers(String cursor, int size) {
+        logger.info("Fetching customers after cursor: " + cursor);
+        PageCursor position = PageCursor.parse(cursor);
+        List<Customer> rows = customerRepository.findPageAfter(position != null ? position.getId() : 0L,
+                KeysetPage.limit(size));
+        return KeysetPage.of(rows, size, customer -> PageCursor.of(customer.getId()));
+    }
+
     public Page<Customer> getAllCustomersPaged(Pageable pageable) {
         logger.info("Fetching customers with pagination");
         return customerRepository.findAll(pageable);
@@ -0,0 +1,41 @@
+package com.delivery.service;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Tour;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Résultat de la planification d'une journée : tournées enregistrées et livraisons restées sans tournée.
+ */
+public class DailyPlan {
+
+    private final LocalDate date;
+    private final List<Tour> tours;
+    private final List<Delivery> unplannedDeliveries;
+    private final long durationMs;
+
+    public DailyPlan(LocalDate date, List<Tour> tours, List<Delivery> unplannedDeliveries, long durationMs) {
+        this.date = date;
+        this.tours = tours;
+        this.unplannedDeliveries = unplannedDeliveries;
+        this.durationMs = durationMs;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public List<Tour> getTours() {
+        return tours;
+    }
+
+    public List<Delivery> getUnplannedDeliveries() {
+        return unplannedDeliveries;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+}
@@ -4,14 +4,18 @@ import com.delivery.entity.DeliveryHistory;
 import com.delivery.entity.Tour;
 import com.delivery.entity.Delivery;
 import com.delivery.repository.DeliveryHistoryRepository;
+import jakarta.persistence.EntityManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -19,10 +23,15 @@ public class DeliveryHistoryService {
 
     private static final Logger logger = Logger.getLogger(DeliveryHistoryService.class.getName());
 
+    // Lignes lues entre deux vidages de la session pendant un export
+    private static final int EXPORT_CLEAR_INTERVAL = DeliveryHistoryRepository.EXPORT_FETCH_SIZE;
+
     private final DeliveryHistoryRepository deliveryHistoryRepository;
+    private final EntityManager entityManager;
 
-    public DeliveryHistoryService(DeliveryHistoryRepository deliveryHistoryRepository) {
+    public DeliveryHistoryService(DeliveryHistoryRepository deliveryHistoryRepository, EntityManager entityManager) {
         this.deliveryHistoryRepository = deliveryHistoryRepository;
+        this.entityManager = entityManager;
     }
 
     public void createDeliveryHistoryFromCompletedTour(Tour tour) {
@@ -79,6 +88,52 @@ public class DeliveryHistoryService {
         return deliveryHistoryRepository.findDelaysGreaterThan(minDelay);
     }
 
+    public KeysetPage<DeliveryHistory> getDelayedDeliveries(Integer minDelay, String cursor, int size) {
+        logger.info("Fetching deliveries delayed by more than " + minDelay + " minutes after cursor: " + cursor);
+        PageCursor position = PageCursor.parse(cursor);
+        List<DeliveryHistory> rows = deliveryHistoryRepository.findDelayedPageAfter(minDelay,
+                position != null ? position.getId() : 0L, KeysetPage.limit(size));
+        return KeysetPage.of(rows, size, history -> PageCursor.of(history.getId()));
+    }
+
+    /**
+     * Historique du plus récent au plus ancien, par clé (date de livraison, identifiant).
+     */
+    public KeysetPage<DeliveryHistory> getDeliveryHistory(String cursor, int size) {
+        logger.info("Fetching delivery history after cursor: " + cursor);
+        PageCursor position = PageCursor.parse(cursor);
+        List<DeliveryHistory> rows;
+        if (position == null) {
+            rows = deliveryHistoryRepository.findFirstPage(KeysetPage.limit(size));
+        } else if (position.getDate() == null) {
+            throw new IllegalArgumentException("Invalid page cursor: " + cursor);
+        } else {
+            rows = deliveryHistoryRepository.findPageBefore(position.getDate(), position.getId(), KeysetPage.limit(size));
+        }
+        return KeysetPage.of(rows, size, history -> PageCursor.of(history.getDeliveryDate(), history.getId()));
+    }
+
+    /**
+     * Parcourt tout l'historique sans le charger en mémoire : les lignes sont lues par lots JDBC et passées
+     * une à une à sink, et la session est vidée régulièrement pour ne pas accumuler les entités déjà écrites.
+     */
+    @Transactional(readOnly = true)
+    public long exportDeliveryHistory(Consumer<DeliveryHistory> sink) {
+        logger.info("Exporting delivery history");
+        long count = 0;
+        try (Stream<DeliveryHistory> rows = deliveryHistoryRepository.streamAllForExport()) {
+            Iterator<DeliveryHistory> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                sink.accept(iterator.next());
+                if (++count % EXPORT_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        logger.info("Exported " + count + " delivery history rows");
+        return count;
+    }
+
     public Page<DeliveryHistory> getDeliveryHistoryPaged(Pageable pageable) {
         logger.info("Fetching delivery history with pagination");
         return deliveryHistoryRepository.findAll(pageable);
@@ -106,12 +161,38 @@ public class DeliveryHistoryService {
         return deliveryHistoryRepository.findByCustomerId(customerId);
     }
 
+    /**
+     * Historique d'un client du plus récent au plus ancien, par clé (date de livraison, identifiant).
+     */
+    public KeysetPage<DeliveryHistory> getCustomerDeliveryHistory(Long customerId, String cursor, int size) {
+        logger.info("Fetching delivery history for customer: " + customerId + " after cursor: " + cursor);
+        PageCursor position = PageCursor.parse(cursor);
+        List<DeliveryHistory> rows;
+        if (position == null) {
+            rows = deliveryHistoryRepository.findFirstPageByCustomerId(customerId, KeysetPage.limit(size));
+        } else if (position.getDate() == null) {
+            throw new IllegalArgumentException("Invalid page cursor: " + cursor);
+        } else {
+            rows = deliveryHistoryRepository.findPageByCustomerIdBefore(customerId, position.getDate(), position.getId(),
+                    KeysetPage.limit(size));
+        }
+        return KeysetPage.of(rows, size, history -> PageCursor.of(history.getDeliveryDate(), history.getId()));
+    }
+
 
     public List<DeliveryHistory> getTourDeliveryHistory(Long tourId) {
         logger.info("Fetching delivery history for tour: " + tourId);
         return deliveryHistoryRepository.findByTourId(tourId);
     }
 
+    public KeysetPage<DeliveryHistory> getTourDeliveryHistory(Long tourId, String cursor, int size) {
+        logger.info("Fetching delivery history for tour: " + tourId + " after cursor: " + cursor);
+        PageCursor position = PageCursor.parse(cursor);
+        List<DeliveryHistory> rows = deliveryHistoryRepository.findPageByTourIdAfter(tourId,
+                position != null ? position.getId() : 0L, KeysetPage.limit(size));
+        return KeysetPage.of(rows, size, history -> PageCursor.of(history.getId()));
+    }
+
 
     public List<DeliveryHistory> getAllDeliveryHistory() {
         return deliveryHistoryRepository.findAll();
@@ -30,6 +30,14 @@ public class DeliveryService {
         return deliveryRepository.findAll();
     }
 
+    public KeysetPage<Delivery> getDeliveries(String cursor, int size) {
+        logger.info("Fetching deliveries after cursor: " + cursor);
+        PageCursor position = PageCursor.parse(cursor);
+        List<Delivery> rows = deliveryRepository.findPageAfter(position != null ? position.getId() : 0L,
+                KeysetPage.limit(size));
+        return KeysetPage.of(rows, size, delivery -> PageCursor.of(delivery.getId()));
+    }
+
     public Optional<Delivery> getDeliveryById(Long id) {
         logger.info("Fetching delivery with id: " + id);
         return deliveryRepository.findById(id);
@@ -105,6 +113,14 @@ public class DeliveryService {
         return deliveryRepository.findByStatus(status);
     }
 
+    public KeysetPage<Delivery> getDeliveriesByStatus(Delivery.DeliveryStatus status, String cursor, int size) {
+        logger.info("Fetching deliveries with status: " + status + " after cursor: " + cursor);
+        PageCursor position = PageCursor.parse(cursor);
+        List<Delivery> rows = deliveryRepository.findPageByStatusAfter(status,
+                position != null ? position.getId() : 0L, KeysetPage.limit(size));
+        return KeysetPage.of(rows, size, delivery -> PageCursor.of(delivery.getId()));
+    }
+
     public List<Delivery> getDeliveriesByTour(Long tourId) {
         logger.info("Fetching deliveries for tour id: " + tourId);
         return deliveryRepository.findByTourIdOrderByOrderAsc(tourId);
@@ -115,6 +131,14 @@ public class DeliveryService {
         return deliveryRepository.findUnassignedDeliveries();
     }
 
+    public KeysetPage<Delivery> getUnassignedDeliveries(String cursor, int size) {
+        logger.info("Fetching unassigned deliveries after cursor: " + cursor);
+        PageCursor position = PageCursor.parse(cursor);
+        List<Delivery> rows = deliveryRepository.findUnassignedPageAfter(position != null ? position.getId() : 0L,
+                KeysetPage.limit(size));
+        return KeysetPage.of(rows, size, delivery -> PageCursor.of(delivery.getId()));
+    }
+
     public List<Delivery> getPendingUnassignedDeliveries() {
         logger.info("Fetching pending unassigned deliveries");
         return deliveryRepository.findPendingUnassignedDeliveries();
@@ -0,0 +1,61 @@
+package com.delivery.service;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Page d'une pagination par clé : les éléments et le jeton de la page suivante (null sur la dernière page).
+ * Chaque page est lue par une recherche sur index à partir de la dernière clé, sans OFFSET ni COUNT :
+ * la page 10 000 coûte autant que la première.
+ */
+public class KeysetPage<T> {
+
+    public static final int MAX_SIZE = 1000;
+
+    private final List<T> items;
+    private final String nextCursor;
+
+    public KeysetPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Limite de la requête : un élément de plus que la page, pour savoir s'il en reste une suivante.
+     */
+    public static Pageable limit(int size) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_SIZE + ", got " + size);
+        }
+        return PageRequest.ofSize(size + 1);
+    }
+
+    // rows vient d'une requête bornée par limit(size)
+    public static <T> KeysetPage<T> of(List<T> rows, int size, Function<T, PageCursor> cursorOf) {
+        if (rows.size() <= size) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> items = new ArrayList<>(rows.subList(0, size));
+        return new KeysetPage<>(items, cursorOf.apply(items.get(size - 1)).toToken());
+    }
+
+    public <R> KeysetPage<R> map(Function<T, R> mapper) {
+        List<R> mapped = new ArrayList<>(items.size());
+        for (T item : items) {
+            mapped.add(mapper.apply(item));
+        }
+        return new KeysetPage<>(mapped, nextCursor);
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,164 @@
+package com.delivery.service;
+
+import com.delivery.entity.Tour;
+import com.delivery.exception.OptimizationRejectedException;
+import com.delivery.optimizer.CancellationToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Contrôle d'admission devant chaque appel à un TourOptimizer : par algorithme, un nombre borné de calculs
+ * simultanés, une file d'attente bornée et un délai maximal d'attente en file. Au-delà, la demande est refusée
+ * tout de suite (OptimizationRejectedException) plutôt que d'occuper un thread HTTP ou un cœur de plus.
+ * Réglages sous app.optimizer.admission, surchargeables par algorithme (app.optimizer.admission.algorithms.LIN_KERNIGHAN.*).
+ * Métriques : optimizer.admission.queue, .active, .wait, .execution et .rejected, par algorithme.
+ */
+@Component
+public class OptimizationAdmission {
+
+    private static final Logger logger = Logger.getLogger(OptimizationAdmission.class.getName());
+
+    private static final String PREFIX = "app.optimizer.admission.";
+
+    // Bornes du délai Retry-After conseillé, en secondes
+    private static final long MIN_RETRY_AFTER_SECONDS = 1;
+    private static final long MAX_RETRY_AFTER_SECONDS = 60;
+
+    private final Map<Tour.AlgorithmType, Lane> lanes = new EnumMap<>(Tour.AlgorithmType.class);
+
+    public OptimizationAdmission(Environment environment, MeterRegistry meterRegistry) {
+        int defaultConcurrency = environment.getProperty(PREFIX + "max-concurrent", Integer.class,
+                Runtime.getRuntime().availableProcessors());
+        int defaultQueueCapacity = environment.getProperty(PREFIX + "queue-capacity", Integer.class, 16);
+        long defaultMaxWaitMs = environment.getProperty(PREFIX + "max-wait-ms", Long.class, 10_000L);
+
+        for (Tour.AlgorithmType algorithm : Tour.AlgorithmType.values()) {
+            String prefix = PREFIX + "algorithms." + algorithm.name() + ".";
+            Lane lane = new Lane(algorithm,
+                    environment.getProperty(prefix + "max-concurrent", Integer.class, defaultConcurrency),
+                    environment.getProperty(prefix + "queue-capacity", Integer.class, defaultQueueCapacity),
+                    environment.getProperty(prefix + "max-wait-ms", Long.class, defaultMaxWaitMs),
+                    meterRegistry);
+            lanes.put(algorithm, lane);
+        }
+    }
+
+    public <T> T admit(Tour.AlgorithmType algorithmType, Supplier<T> action) {
+        return admit(algorithmType, CancellationToken.none(), action);
+    }
+
+    /**
+     * Exécute le calcul dès qu'une place de l'algorithme est libre. L'attente en file est bornée par max-wait-ms
+     * et par le temps restant du jeton : inutile de démarrer un calcul dont le budget est déjà consommé.
+     */
+    public <T> T admit(Tour.AlgorithmType algorithmType, CancellationToken token, Supplier<T> action) {
+        Lane lane = lanes.get(algorithmType);
+
+        if (lane.waiting.get() > 0 || !lane.permits.tryAcquire()) {
+            if (lane.waiting.incrementAndGet() > lane.queueCapacity) {
+                lane.waiting.decrementAndGet();
+                throw lane.reject(OptimizationRejectedException.Reason.QUEUE_FULL,
+                        "Optimization queue full for algorithm " + algorithmType);
+            }
+
+            long start = System.nanoTime();
+            boolean acquired;
+            try {
+                acquired = lane.permits.tryAcquire(Math.min(lane.maxWaitMs, token.remainingMillis()), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw lane.reject(OptimizationRejectedException.Reason.QUEUE_TIMEOUT,
+                        "Interrupted while waiting for algorithm " + algorithmType);
+            } finally {
+                lane.waiting.decrementAndGet();
+                lane.waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            if (!acquired) {
+                throw lane.reject(OptimizationRejectedException.Reason.QUEUE_TIMEOUT,
+                        "Timed out waiting for algorithm " + algorithmType);
+            }
+        } else {
+            lane.waitTimer.record(0, TimeUnit.NANOSECONDS);
+        }
+
+        lane.active.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            lane.executionTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            lane.active.decrementAndGet();
+            lane.permits.release();
+        }
+    }
+
+    public int queueDepth(Tour.AlgorithmType algorithmType) {
+        return lanes.get(algorithmType).waiting.get();
+    }
+
+    /**
+     * File d'un algorithme : places de calcul, demandes en attente et métriques associées.
+     */
+    private static final class Lane {
+        private final int maxConcurrent;
+        private final int queueCapacity;
+        private final long maxWaitMs;
+        private final Semaphore permits;
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final AtomicInteger active = new AtomicInteger();
+        private final Timer waitTimer;
+        private final Timer executionTimer;
+        private final Counter queueFullRejections;
+        private final Counter queueTimeoutRejections;
+
+        Lane(Tour.AlgorithmType algorithm, int maxConcurrent, int queueCapacity, long maxWaitMs, MeterRegistry registry) {
+            this.maxConcurrent = maxConcurrent;
+            this.queueCapacity = queueCapacity;
+            this.maxWaitMs = maxWaitMs;
+            this.permits = new Semaphore(maxConcurrent, true);
+
+            String tag = algorithm.name();
+            Gauge.builder("optimizer.admission.queue", waiting, AtomicInteger::get)
+                    .description("Optimizations waiting for a slot").tag("algorithm", tag).register(registry);
+            Gauge.builder("optimizer.admission.active", active, AtomicInteger::get)
+                    .description("Optimizations running").tag("algorithm", tag).register(registry);
+            this.waitTimer = Timer.builder("optimizer.admission.wait")
+                    .description("Time spent waiting for a slot").tag("algorithm", tag).register(registry);
+            this.executionTimer = Timer.builder("optimizer.admission.execution")
+                    .description("Time spent optimizing once admitted").tag("algorithm", tag).register(registry);
+            this.queueFullRejections = Counter.builder("optimizer.admission.rejected")
+                    .tag("algorithm", tag).tag("reason", OptimizationRejectedException.Reason.QUEUE_FULL.name())
+                    .register(registry);
+            this.queueTimeoutRejections = Counter.builder("optimizer.admission.rejected")
+                    .tag("algorithm", tag).tag("reason", OptimizationRejectedException.Reason.QUEUE_TIMEOUT.name())
+                    .register(registry);
+        }
+
+        OptimizationRejectedException reject(OptimizationRejectedException.Reason reason, String message) {
+            (reason == OptimizationRejectedException.Reason.QUEUE_FULL ? queueFullRejections : queueTimeoutRejections)
+                    .increment();
+            logger.warning(message + " (" + waiting.get() + " waiting, " + active.get() + " running)");
+            return new OptimizationRejectedException(message, reason, retryAfterSeconds());
+        }
+
+        // Durée moyenne d'un calcul multipliée par le nombre de « tours de file » avant une place libre
+        private long retryAfterSeconds() {
+            double meanMs = executionTimer.count() > 0 ? executionTimer.mean(TimeUnit.MILLISECONDS) : maxWaitMs;
+            double estimateMs = meanMs * (waiting.get() + 1) / maxConcurrent;
+            long seconds = (long) Math.ceil(estimateMs / 1000.0);
+            return Math.max(MIN_RETRY_AFTER_SECONDS, Math.min(MAX_RETRY_AFTER_SECONDS, seconds));
+        }
+    }
+}
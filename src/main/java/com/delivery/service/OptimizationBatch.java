@@ -0,0 +1,95 @@
+package com.delivery.service;
+
+import com.delivery.entity.Tour;
+
+import java.util.List;
+
+/**
+ * Résultat d'une optimisation groupée : issue de chaque tournée demandée, dans l'ordre de la demande.
+ */
+public class OptimizationBatch {
+
+    public enum Status {
+        OPTIMIZED, FAILED
+    }
+
+    private final Tour.AlgorithmType algorithm;
+    private final List<TourOutcome> outcomes;
+    private final long durationMs;
+
+    public OptimizationBatch(Tour.AlgorithmType algorithm, List<TourOutcome> outcomes, long durationMs) {
+        this.algorithm = algorithm;
+        this.outcomes = outcomes;
+        this.durationMs = durationMs;
+    }
+
+    public Tour.AlgorithmType getAlgorithm() {
+        return algorithm;
+    }
+
+    public List<TourOutcome> getOutcomes() {
+        return outcomes;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public long count(Status status) {
+        return outcomes.stream().filter(outcome -> outcome.getStatus() == status).count();
+    }
+
+    /**
+     * Issue pour une tournée : distances avant et après si elle a été optimisée, sinon la cause de l'échec.
+     */
+    public static class TourOutcome {
+        private final Long tourId;
+        private final Status status;
+        private final Double previousDistance;
+        private final Double totalDistance;
+        private final Double distanceGain;
+        private final String error;
+
+        private TourOutcome(Long tourId, Status status, Double previousDistance, Double totalDistance,
+                            Double distanceGain, String error) {
+            this.tourId = tourId;
+            this.status = status;
+            this.previousDistance = previousDistance;
+            this.totalDistance = totalDistance;
+            this.distanceGain = distanceGain;
+            this.error = error;
+        }
+
+        public static TourOutcome optimized(Long tourId, Double previousDistance, Double totalDistance, Double distanceGain) {
+            return new TourOutcome(tourId, Status.OPTIMIZED, previousDistance, totalDistance, distanceGain, null);
+        }
+
+        public static TourOutcome failed(Long tourId, String error) {
+            return new TourOutcome(tourId, Status.FAILED, null, null, null, error);
+        }
+
+        public Long getTourId() {
+            return tourId;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public Double getPreviousDistance() {
+            return previousDistance;
+        }
+
+        public Double getTotalDistance() {
+            return totalDistance;
+        }
+
+        public Double getDistanceGain() {
+            return distanceGain;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.delivery.service;
+
+import com.delivery.entity.Tour;
+import com.delivery.optimizer.CancellationToken;
+import com.delivery.optimizer.RouteSolution;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Optimisation d'une tournée exécutée en tâche de fond : état consultable et abonnements aux changements.
+ * Les mises à jour viennent du thread de l'optimiseur, les lectures des requêtes HTTP (accès synchronisés).
+ */
+public class OptimizationJob {
+
+    private static final Logger logger = Logger.getLogger(OptimizationJob.class.getName());
+
+    // Intervalle minimal entre deux notifications de progression ; les changements d'état sont toujours notifiés
+    private static final long PROGRESS_INTERVAL_NANOS = 250_000_000L;
+
+    public enum Status {
+        QUEUED, RUNNING, SAVING, COMPLETED, FAILED, CANCELLED
+    }
+
+    private final String id;
+    private final Long tourId;
+    private final Tour.AlgorithmType algorithm;
+    private final Long timeBudgetMs;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+    private final List<Consumer<OptimizationJob>> listeners = new ArrayList<>();
+
+    private Status status = Status.QUEUED;
+    private CancellationToken token;
+    private String phase;
+    private Double bestDistance;
+    private Double distanceGain;
+    private String error;
+    private LocalDateTime finishedAt;
+    private long lastNotificationNanos;
+
+    OptimizationJob(String id, Long tourId, Tour.AlgorithmType algorithm, Long timeBudgetMs) {
+        this.id = id;
+        this.tourId = tourId;
+        this.algorithm = algorithm;
+        this.timeBudgetMs = timeBudgetMs;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Long getTourId() {
+        return tourId;
+    }
+
+    public Tour.AlgorithmType getAlgorithm() {
+        return algorithm;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public synchronized Status getStatus() {
+        return status;
+    }
+
+    public synchronized String getPhase() {
+        return phase;
+    }
+
+    /**
+     * Distance de la meilleure tournée connue (km), null tant que l'optimiseur n'en a pas signalé.
+     */
+    public synchronized Double getBestDistance() {
+        return bestDistance;
+    }
+
+    public synchronized Double getDistanceGain() {
+        return distanceGain;
+    }
+
+    public synchronized String getError() {
+        return error;
+    }
+
+    public synchronized LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public synchronized boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED || status == Status.CANCELLED;
+    }
+
+    /**
+     * Abonne listener aux changements ; il reçoit immédiatement l'état courant.
+     * Retourne l'action de désabonnement.
+     */
+    public synchronized Runnable subscribe(Consumer<OptimizationJob> listener) {
+        listener.accept(this);
+        if (!isFinished()) {
+            listeners.add(listener);
+        }
+        return () -> unsubscribe(listener);
+    }
+
+    private synchronized void unsubscribe(Consumer<OptimizationJob> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Passe en cours d'exécution ; le budget de temps court à partir d'ici, pas de la soumission.
+     * Retourne le jeton de l'optimisation, null si la tâche a été annulée dans la file.
+     */
+    synchronized CancellationToken start() {
+        if (status != Status.QUEUED) {
+            return null;
+        }
+        token = timeBudgetMs != null ? CancellationToken.withBudget(timeBudgetMs) : CancellationToken.none();
+        token.onProgress(this::progress);
+        status = Status.RUNNING;
+        phase = "loading";
+        notifyListeners();
+        return token;
+    }
+
+    synchronized void phase(String phase) {
+        this.phase = phase;
+        notifyListeners();
+    }
+
+    synchronized void progress(String phase, double distance) {
+        this.phase = phase;
+        if (bestDistance == null || distance < bestDistance) {
+            bestDistance = distance;
+        }
+        if (System.nanoTime() - lastNotificationNanos >= PROGRESS_INTERVAL_NANOS) {
+            notifyListeners();
+        }
+    }
+
+    synchronized void saving(RouteSolution solution) {
+        status = Status.SAVING;
+        phase = "saving";
+        bestDistance = solution.getTotalDistance();
+        distanceGain = solution.getDistanceGain();
+        notifyListeners();
+    }
+
+    synchronized void complete() {
+        status = Status.COMPLETED;
+        phase = null;
+        finish();
+    }
+
+    synchronized void fail(String message) {
+        status = Status.FAILED;
+        error = message;
+        finish();
+    }
+
+    /**
+     * Une tâche en file est annulée ; une tâche en cours s'arrête au plus tôt et garde la meilleure tournée trouvée.
+     */
+    synchronized void cancel() {
+        if (status == Status.QUEUED) {
+            status = Status.CANCELLED;
+            finish();
+        } else if (token != null) {
+            token.cancel();
+        }
+    }
+
+    private void finish() {
+        finishedAt = LocalDateTime.now();
+        notifyListeners();
+        listeners.clear();
+    }
+
+    private void notifyListeners() {
+        lastNotificationNanos = System.nanoTime();
+        for (Consumer<OptimizationJob> listener : new ArrayList<>(listeners)) {
+            try {
+                listener.accept(this);
+            } catch (RuntimeException e) {
+                logger.warning("Optimization job " + id + " listener failed: " + e.getMessage());
+            }
+        }
+    }
+}
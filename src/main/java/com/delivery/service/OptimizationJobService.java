@@ -0,0 +1,133 @@
+package com.delivery.service;
+
+import com.delivery.entity.Tour;
+import com.delivery.optimizer.CancellationToken;
+import com.delivery.optimizer.RouteSolution;
+import com.delivery.optimizer.RoutingProblem;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Optimisations de tournées en tâche de fond, sur un pool borné distinct des threads HTTP.
+ * Chaque tâche charge la tournée (transaction courte en lecture), optimise sans transaction ni connexion,
+ * puis enregistre le résultat dans une seconde transaction courte, sous le verrou de la tournée.
+ * Une demande identique (même tournée, même algorithme) à une tâche non terminée rend cette tâche.
+ * Quand la file est pleine, la soumission est refusée plutôt que d'accumuler des calculs.
+ */
+@Service
+public class OptimizationJobService {
+
+    private static final Logger logger = Logger.getLogger(OptimizationJobService.class.getName());
+
+    // Durée pendant laquelle une tâche terminée reste consultable
+    private static final long RETENTION_MINUTES = 60;
+
+    private final TourService tourService;
+    private final TourLocks tourLocks;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, OptimizationJob> jobs = new ConcurrentHashMap<>();
+
+    public OptimizationJobService(TourService tourService, TourLocks tourLocks,
+                                  @Value("${app.optimizer.jobs.threads:2}") int threads,
+                                  @Value("${app.optimizer.jobs.queue-capacity:20}") int queueCapacity) {
+        this.tourService = tourService;
+        this.tourLocks = tourLocks;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "optimization-job-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Met l'optimisation en file et rend la main immédiatement.
+     * Lève RejectedExecutionException si la file est pleine.
+     */
+    public synchronized OptimizationJob submit(Long tourId, Tour.AlgorithmType algorithmType, Long timeBudgetMs) {
+        if (tourService.getTourById(tourId).isEmpty()) {
+            throw new RuntimeException("Tour not found with id: " + tourId);
+        }
+        evictFinishedJobs();
+
+        Optional<OptimizationJob> active = jobs.values().stream()
+                .filter(job -> !job.isFinished() && job.getTourId().equals(tourId) && job.getAlgorithm() == algorithmType)
+                .findFirst();
+        if (active.isPresent()) {
+            logger.info("Optimization job " + active.get().getId() + " already active for tour " + tourId + ", reusing it");
+            return active.get();
+        }
+
+        OptimizationJob job = new OptimizationJob(UUID.randomUUID().toString(), tourId, algorithmType, timeBudgetMs);
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            logger.warning("Optimization queue full, job rejected for tour " + tourId);
+            throw e;
+        }
+
+        logger.info("Optimization job " + job.getId() + " queued for tour " + tourId + " with algorithm: " + algorithmType);
+        return job;
+    }
+
+    public Optional<OptimizationJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    public Optional<OptimizationJob> cancelJob(String jobId) {
+        OptimizationJob job = jobs.get(jobId);
+        if (job != null) {
+            logger.info("Cancelling optimization job " + jobId);
+            job.cancel();
+        }
+        return Optional.ofNullable(job);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.values().forEach(OptimizationJob::cancel);
+        executor.shutdownNow();
+    }
+
+    private void run(OptimizationJob job) {
+        CancellationToken token = job.start();
+        if (token == null) {
+            return;
+        }
+
+        try {
+            RoutingProblem problem = tourService.loadOptimizationProblem(job.getTourId());
+            job.phase("optimizing");
+            RouteSolution solution = tourService.computeOptimization(problem, job.getAlgorithm(), token);
+            job.saving(solution);
+            tourLocks.withLock(job.getTourId(), () -> tourService.applyOptimization(job.getTourId(), job.getAlgorithm(), solution));
+            job.complete();
+            logger.info("Optimization job " + job.getId() + " completed - Distance: " + solution.getTotalDistance() + "km");
+        } catch (Exception e) {
+            logger.severe("Optimization job " + job.getId() + " failed: " + e.getMessage());
+            job.fail(e.getMessage());
+        }
+    }
+
+    private void evictFinishedJobs() {
+        LocalDateTime limit = LocalDateTime.now().minusMinutes(RETENTION_MINUTES);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(limit));
+    }
+}
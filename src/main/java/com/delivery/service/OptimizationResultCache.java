@@ -0,0 +1,180 @@
+package com.delivery.service;
+
+import com.delivery.entity.Tour;
+import com.delivery.optimizer.DistanceMatrix;
+import com.delivery.optimizer.RouteSolution;
+import com.delivery.optimizer.RoutingProblem;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Cache des tournées calculées, adressé par le contenu du problème : SHA-256 de l'algorithme, de l'entrepôt,
+ * des livraisons triées par identifiant (coordonnées, poids, volume, créneau) et des capacités du véhicule.
+ * Toute modification du problème change la clé ; les entrées d'une tournée modifiée sont en plus libérées tout de suite.
+ * L'index des clés par tournée suit les évictions du cache : il ne garde que des clés encore présentes.
+ * Éviction W-TinyLFU bornée par le nombre total d'arrêts mémorisés ; succès et défauts exposés dans /actuator/metrics.
+ */
+@Component
+public class OptimizationResultCache {
+
+    private static final Logger logger = Logger.getLogger(OptimizationResultCache.class.getName());
+
+    private final Cache<String, CachedRoute> cache;
+
+    // Clés présentes dans le cache pour chaque tournée ; une tournée sans clé n'y figure plus
+    private final Map<Long, Set<String>> keysByTour = new ConcurrentHashMap<>();
+
+    public OptimizationResultCache(@Value("${app.optimizer.cache.max-stops:200000}") long maxStops,
+                                   MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxStops)
+                .weigher((String key, CachedRoute route) -> route.deliveryIds.length + 1)
+                .evictionListener((String key, CachedRoute route, RemovalCause cause) -> {
+                    if (key != null && route != null) {
+                        forget(route.tourId, key);
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "optimizationResults");
+    }
+
+    /**
+     * Tournée déjà calculée pour un problème identique, sinon calculée par solver et mémorisée.
+     * Le résultat mémorisé est reporté par identifiant sur les index du problème courant.
+     */
+    public RouteSolution get(Long tourId, Tour.AlgorithmType algorithmType, RoutingProblem problem,
+                             Supplier<RouteSolution> solver) {
+        String key = key(algorithmType, problem);
+        CachedRoute cached = cache.getIfPresent(key);
+        if (cached != null) {
+            int[] route = cached.toRoute(problem);
+            if (route != null) {
+                logger.fine("Optimization result served from cache for tour " + tourId);
+                return RouteSolution.of(problem, route, cached.distanceGain);
+            }
+        }
+
+        RouteSolution solution = solver.get();
+        if (cached != null && !Objects.equals(cached.tourId, tourId)) {
+            forget(cached.tourId, key);
+        }
+        // Clé indexée avant l'insertion : une éviction immédiate la retire aussitôt
+        if (tourId != null) {
+            keysByTour.compute(tourId, (id, keys) -> {
+                Set<String> tracked = keys != null ? keys : ConcurrentHashMap.newKeySet();
+                tracked.add(key);
+                return tracked;
+            });
+        }
+        cache.put(key, CachedRoute.of(tourId, solution));
+        return solution;
+    }
+
+    /**
+     * Libère les résultats calculés pour la tournée (appelé à chaque modification de la tournée).
+     */
+    public void evictTour(Long tourId) {
+        Set<String> keys = keysByTour.remove(tourId);
+        if (keys != null) {
+            cache.invalidateAll(keys);
+        }
+    }
+
+    // Retire la clé de l'index de sa tournée, et la tournée elle-même quand c'était sa dernière clé
+    private void forget(Long tourId, String key) {
+        if (tourId != null) {
+            keysByTour.computeIfPresent(tourId, (id, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    static String key(Tour.AlgorithmType algorithmType, RoutingProblem problem) {
+        int size = problem.size();
+        Integer[] byId = new Integer[problem.deliveryCount()];
+        for (int i = 0; i < byId.length; i++) {
+            byId[i] = i + 1;
+        }
+        Arrays.sort(byId, (a, b) -> Long.compare(idOf(problem, a), idOf(problem, b)));
+
+        // Représentation binaire canonique : 48 octets par livraison, plus l'en-tête
+        ByteBuffer buffer = ByteBuffer.allocate(64 + 48 * size);
+        buffer.putInt(algorithmType.ordinal());
+        buffer.putDouble(problem.maxWeight()).putDouble(problem.maxVolume()).putInt(problem.maxDeliveries());
+        putPoint(buffer, problem, DistanceMatrix.DEPOT);
+        for (int index : byId) {
+            buffer.putLong(idOf(problem, index));
+            putPoint(buffer, problem, index);
+        }
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(buffer.array(), 0, buffer.position());
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static void putPoint(ByteBuffer buffer, RoutingProblem problem, int index) {
+        buffer.putDouble(problem.latitude(index)).putDouble(problem.longitude(index))
+                .putDouble(problem.weight(index)).putDouble(problem.volume(index))
+                .putInt(problem.hasTimeWindow(index) ? problem.windowStart(index) : -1)
+                .putInt(problem.hasTimeWindow(index) ? problem.windowEnd(index) : -1);
+    }
+
+    private static long idOf(RoutingProblem problem, int index) {
+        Long id = problem.deliveryId(index);
+        return id != null ? id : -index;
+    }
+
+    /**
+     * Ordre de passage mémorisé par identifiant, indépendant de l'ordre des livraisons dans le problème.
+     */
+    private static final class CachedRoute {
+        private final Long tourId;
+        private final Long[] deliveryIds;
+        private final Double distanceGain;
+
+        private CachedRoute(Long tourId, Long[] deliveryIds, Double distanceGain) {
+            this.tourId = tourId;
+            this.deliveryIds = deliveryIds;
+            this.distanceGain = distanceGain;
+        }
+
+        static CachedRoute of(Long tourId, RouteSolution solution) {
+            return new CachedRoute(tourId, solution.getDeliveryIds().toArray(new Long[0]), solution.getDistanceGain());
+        }
+
+        // null si une livraison n'est plus dans le problème (livraisons sans identifiant)
+        int[] toRoute(RoutingProblem problem) {
+            int[] route = new int[deliveryIds.length];
+            for (int i = 0; i < route.length; i++) {
+                route[i] = deliveryIds[i] != null ? problem.indexOf(deliveryIds[i]) : -1;
+                if (route[i] < 0) {
+                    return null;
+                }
+            }
+            return route;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.delivery.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position d'une pagination par clé : dernier identifiant renvoyé, précédé de sa date pour les listes triées par date.
+ * Le jeton transmis au client est opaque (Base64 URL) ; il n'a de sens que pour la liste qui l'a produit.
+ */
+public final class PageCursor {
+
+    private static final char SEPARATOR = ':';
+
+    private final LocalDate date;
+    private final long id;
+
+    private PageCursor(LocalDate date, long id) {
+        this.date = date;
+        this.id = id;
+    }
+
+    public static PageCursor of(long id) {
+        return new PageCursor(null, id);
+    }
+
+    public static PageCursor of(LocalDate date, long id) {
+        return new PageCursor(date, id);
+    }
+
+    /**
+     * Décode un jeton reçu du client ; null ou vide désigne la première page.
+     */
+    public static PageCursor parse(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            if (separator < 0) {
+                return of(Long.parseLong(value));
+            }
+            return of(LocalDate.parse(value.substring(0, separator)), Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid page cursor: " + token);
+        }
+    }
+
+    public String toToken() {
+        String value = date != null ? date.toString() + SEPARATOR + id : Long.toString(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,253 @@
+package com.delivery.service;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Tour;
+import com.delivery.entity.Vehicle;
+import com.delivery.entity.Warehouse;
+import com.delivery.exception.OptimizationRejectedException;
+import com.delivery.optimizer.DistanceMatrix;
+import com.delivery.optimizer.LocalSearch;
+import com.delivery.optimizer.LocalSearchOptimizer;
+import com.delivery.optimizer.OptimizationResult;
+import com.delivery.optimizer.SweepClustering;
+import com.delivery.optimizer.TourOptimizer;
+import com.delivery.optimizer.VehiclePacking;
+import com.delivery.repository.DeliveryRepository;
+import com.delivery.repository.VehicleRepository;
+import com.delivery.repository.WarehouseRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Planification d'une journée pour toute la flotte : chaque livraison en attente est rattachée à l'entrepôt
+ * le plus proche, les véhicules libres sont répartis selon la charge de chaque entrepôt, puis les entrepôts
+ * sont résolus en parallèle (découpage sweep, ou affectation par capacité pour utiliser le moins de véhicules,
+ * puis plus proche voisin + recherche locale par tournée).
+ * Le calcul se fait hors transaction ; toutes les tournées sont enregistrées en une seule écriture.
+ */
+@Service
+public class PlanningService {
+
+    private static final Logger logger = Logger.getLogger(PlanningService.class.getName());
+
+    // Marge sur la charge d'un entrepôt : le découpage laisse un peu de place perdue dans chaque véhicule
+    private static final double PACKING_SLACK = 1.1;
+
+    private final DeliveryRepository deliveryRepository;
+    private final VehicleRepository vehicleRepository;
+    private final WarehouseRepository warehouseRepository;
+    private final TourService tourService;
+    private final TourOptimizer routeOptimizer;
+    private final OptimizationAdmission admission;
+    private final ExecutorService executor;
+
+    public PlanningService(DeliveryRepository deliveryRepository, VehicleRepository vehicleRepository,
+                           WarehouseRepository warehouseRepository, TourService tourService,
+                           TourOptimizer nearestNeighborOptimizer, LocalSearch localSearch,
+                           OptimizationAdmission admission) {
+        this.deliveryRepository = deliveryRepository;
+        this.vehicleRepository = vehicleRepository;
+        this.warehouseRepository = warehouseRepository;
+        this.tourService = tourService;
+        this.routeOptimizer = new LocalSearchOptimizer(nearestNeighborOptimizer, localSearch);
+        this.admission = admission;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+            Thread thread = new Thread(runnable, "planning-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public DailyPlan planDay(LocalDate date) {
+        return planDay(date, false);
+    }
+
+    /**
+     * minimizeVehicles : les livraisons de chaque entrepôt sont réparties par VehiclePacking (le moins de véhicules,
+     * chacun le plus petit possible) plutôt que par secteurs géographiques.
+     */
+    public DailyPlan planDay(LocalDate date, boolean minimizeVehicles) {
+        logger.info("Planning all warehouses for " + date + (minimizeVehicles ? " (minimizing vehicles)" : ""));
+        long startTime = System.currentTimeMillis();
+
+        List<Warehouse> warehouses = warehouseRepository.findAll();
+        if (warehouses.isEmpty()) {
+            throw new RuntimeException("No warehouse available for planning");
+        }
+        List<Delivery> deliveries = deliveryRepository.findPendingUnassignedDeliveries();
+        List<Vehicle> vehicles = vehicleRepository.findAvailableVehicles(date);
+        logger.info(deliveries.size() + " pending deliveries, " + vehicles.size() + " available vehicles, "
+                + warehouses.size() + " warehouses");
+
+        List<List<Delivery>> warehouseDeliveries = assignToWarehouses(warehouses, deliveries);
+        List<List<Vehicle>> warehouseVehicles = allocateVehicles(warehouseDeliveries, vehicles);
+
+        List<Future<List<Tour>>> futures = new ArrayList<>();
+        for (int w = 0; w < warehouses.size(); w++) {
+            Warehouse warehouse = warehouses.get(w);
+            List<Delivery> assigned = warehouseDeliveries.get(w);
+            List<Vehicle> fleet = warehouseVehicles.get(w);
+            if (!assigned.isEmpty() && !fleet.isEmpty()) {
+                futures.add(executor.submit(() -> planWarehouse(date, warehouse, assigned, fleet, minimizeVehicles)));
+            }
+        }
+
+        List<Tour> tours = new ArrayList<>();
+        for (Future<List<Tour>> future : futures) {
+            tours.addAll(join(future));
+        }
+
+        Set<Long> plannedIds = new HashSet<>();
+        for (Tour tour : tours) {
+            for (Delivery delivery : tour.getDeliveries()) {
+                plannedIds.add(delivery.getId());
+            }
+        }
+        List<Delivery> unplanned = new ArrayList<>();
+        for (Delivery delivery : deliveries) {
+            if (!plannedIds.contains(delivery.getId())) {
+                unplanned.add(delivery);
+            }
+        }
+
+        List<Tour> savedTours = tours.isEmpty() ? tours : tourService.savePlannedTours(tours);
+
+        long duration = System.currentTimeMillis() - startTime;
+        logger.info("Planned " + savedTours.size() + " tours for " + plannedIds.size() + " deliveries on " + date
+                + " in " + duration + " ms (" + unplanned.size() + " unplanned)");
+        if (!unplanned.isEmpty()) {
+            logger.warning(unplanned.size() + " deliveries could not be planned on " + date + " (not enough vehicle capacity)");
+        }
+        return new DailyPlan(date, savedTours, unplanned, duration);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private List<Tour> planWarehouse(LocalDate date, Warehouse warehouse, List<Delivery> deliveries, List<Vehicle> fleet,
+                                     boolean minimizeVehicles) {
+        List<List<Delivery>> clusters;
+        List<Vehicle> vehicles;
+        if (minimizeVehicles) {
+            VehiclePacking.Packing packing = VehiclePacking.pack(deliveries, fleet);
+            clusters = packing.getLoads();
+            vehicles = packing.getVehicles();
+        } else {
+            clusters = SweepClustering.cluster(warehouse, deliveries, fleet);
+            vehicles = fleet;
+        }
+
+        List<Tour> tours = new ArrayList<>(clusters.size());
+        for (int k = 0; k < clusters.size(); k++) {
+            Vehicle vehicle = vehicles.get(k);
+            List<Delivery> cluster = clusters.get(k);
+            // Même file que les optimisations NEAREST_NEIGHBOR_2OPT unitaires : la planification n'occupe pas plus de cœurs
+            OptimizationResult result = admission.admit(Tour.AlgorithmType.NEAREST_NEIGHBOR_2OPT,
+                    () -> routeOptimizer.optimize(warehouse, cluster, vehicle));
+            tours.add(TourService.buildPlannedTour(date, warehouse, vehicle, result.getRoute(),
+                    Tour.AlgorithmType.NEAREST_NEIGHBOR_2OPT));
+        }
+        return tours;
+    }
+
+    // Livraisons groupées par entrepôt le plus proche (même index que warehouses)
+    private List<List<Delivery>> assignToWarehouses(List<Warehouse> warehouses, List<Delivery> deliveries) {
+        List<List<Delivery>> assigned = new ArrayList<>(warehouses.size());
+        for (int w = 0; w < warehouses.size(); w++) {
+            assigned.add(new ArrayList<>());
+        }
+
+        for (Delivery delivery : deliveries) {
+            int nearest = 0;
+            double nearestDistance = Double.MAX_VALUE;
+            for (int w = 0; w < warehouses.size(); w++) {
+                Warehouse warehouse = warehouses.get(w);
+                double distance = DistanceMatrix.haversine(warehouse.getLatitude(), warehouse.getLongitude(),
+                        delivery.getLatitude(), delivery.getLongitude());
+                if (distance < nearestDistance) {
+                    nearestDistance = distance;
+                    nearest = w;
+                }
+            }
+            assigned.get(nearest).add(delivery);
+        }
+        return assigned;
+    }
+
+    /**
+     * Répartition gloutonne des véhicules, du plus grand au plus petit : chacun va à l'entrepôt dont la charge
+     * restant à couvrir représente le plus de véhicules de ce gabarit (poids, volume ou nombre de livraisons).
+     * S'arrête quand toutes les charges sont couvertes ; chaque flotte reste triée par capacité décroissante.
+     */
+    private List<List<Vehicle>> allocateVehicles(List<List<Delivery>> warehouseDeliveries, List<Vehicle> vehicles) {
+        int warehouseCount = warehouseDeliveries.size();
+        double[] weightToCover = new double[warehouseCount];
+        double[] volumeToCover = new double[warehouseCount];
+        double[] deliveriesToCover = new double[warehouseCount];
+        List<List<Vehicle>> fleets = new ArrayList<>(warehouseCount);
+        for (int w = 0; w < warehouseCount; w++) {
+            for (Delivery delivery : warehouseDeliveries.get(w)) {
+                weightToCover[w] += delivery.getWeight() * PACKING_SLACK;
+                volumeToCover[w] += delivery.getVolume() * PACKING_SLACK;
+            }
+            deliveriesToCover[w] = warehouseDeliveries.get(w).size() * PACKING_SLACK;
+            fleets.add(new ArrayList<>());
+        }
+
+        List<Vehicle> largestFirst = new ArrayList<>(vehicles);
+        largestFirst.sort(Comparator.comparingDouble(Vehicle::getMaxWeight)
+                .thenComparingDouble(Vehicle::getMaxVolume).reversed());
+
+        for (Vehicle vehicle : largestFirst) {
+            int neediest = -1;
+            double largestNeed = 0.0;
+            for (int w = 0; w < warehouseCount; w++) {
+                double need = Math.max(weightToCover[w] / vehicle.getMaxWeight(),
+                        Math.max(volumeToCover[w] / vehicle.getMaxVolume(), deliveriesToCover[w] / vehicle.getMaxDeliveries()));
+                if (need > largestNeed) {
+                    largestNeed = need;
+                    neediest = w;
+                }
+            }
+            if (neediest < 0) {
+                break;
+            }
+            fleets.get(neediest).add(vehicle);
+            weightToCover[neediest] -= vehicle.getMaxWeight();
+            volumeToCover[neediest] -= vehicle.getMaxVolume();
+            deliveriesToCover[neediest] -= vehicle.getMaxDeliveries();
+        }
+        return fleets;
+    }
+
+    private List<Tour> join(Future<List<Tour>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Daily planning interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof OptimizationRejectedException rejected) {
+                throw rejected;
+            }
+            throw new RuntimeException("Daily planning failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+}
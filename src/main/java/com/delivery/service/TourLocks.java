@@ -0,0 +1,167 @@
+package com.delivery.service;
+
+import com.delivery.optimizer.CancellationToken;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Sérialise, dans cette instance, les écritures sur une même tournée (optimisation, ajout/retrait de livraisons, statut).
+ * Les verrous sont répartis par bandes (tours d'identifiants différents peuvent partager une bande) pour garder
+ * une mémoire bornée. Entre instances, c'est la colonne version des entités qui détecte les conflits.
+ */
+@Component
+public class TourLocks {
+
+    private static final Logger logger = Logger.getLogger(TourLocks.class.getName());
+
+    private final ReentrantLock[] stripes;
+    private final long timeoutMs;
+
+    // Requêtes identiques en cours : les suivantes attendent le résultat de la première au lieu de le recalculer
+    private final Map<String, SharedComputation> inFlight = new ConcurrentHashMap<>();
+
+    public TourLocks(@Value("${app.tours.lock-stripes:64}") int stripeCount,
+                     @Value("${app.tours.lock-timeout-ms:30000}") long timeoutMs) {
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Exécute l'action sous le verrou de la tournée.
+     * Lève ConcurrencyFailureException si le verrou n'est pas obtenu dans le délai.
+     */
+    public <T> T withLock(Long tourId, Supplier<T> action) {
+        ReentrantLock lock = stripes[stripe(tourId)];
+        acquire(lock, "tour " + tourId);
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Exécute l'action sous les verrous de toutes les tournées (déplacement entre tournées, écriture groupée).
+     * Les bandes sont prises dans l'ordre croissant de leur index, quel que soit l'ordre des identifiants :
+     * deux appels concurrents ne peuvent pas s'attendre mutuellement.
+     */
+    public <T> T withLocks(Collection<Long> tourIds, Supplier<T> action) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        for (Long tourId : tourIds) {
+            indexes.add(stripe(tourId));
+        }
+
+        List<ReentrantLock> acquired = new ArrayList<>(indexes.size());
+        try {
+            for (int index : indexes) {
+                acquire(stripes[index], tourIds.size() + " tours");
+                acquired.add(stripes[index]);
+            }
+            return action.get();
+        } finally {
+            acquired.forEach(ReentrantLock::unlock);
+        }
+    }
+
+    private int stripe(Long tourId) {
+        return Math.floorMod(tourId.hashCode(), stripes.length);
+    }
+
+    private void acquire(ReentrantLock lock, String target) {
+        try {
+            if (!lock.tryLock(timeoutMs, TimeUnit.MILLISECONDS)) {
+                logger.warning("Timed out waiting for lock on " + target);
+                throw new ConcurrencyFailureException("Could not lock " + target + " in time, try again later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrencyFailureException("Interrupted while waiting for lock on " + target, e);
+        }
+    }
+
+    public void withLock(Long tourId, Runnable action) {
+        withLock(tourId, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Exécute l'action, ou si une action de même clé est déjà en cours, attend et partage son résultat (ou son erreur).
+     * L'action reçoit un jeton partagé, annulé seulement quand toutes les requêtes jointes ont annulé le leur
+     * (terminées, expirées ou abandonnées) : une requête qui part n'interrompt pas le calcul des autres.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T coalesce(String key, CancellationToken token, Function<CancellationToken, T> action) {
+        SharedComputation own = new SharedComputation();
+        own.join(token);
+        SharedComputation running = inFlight.putIfAbsent(key, own);
+        if (running != null) {
+            if (!running.join(token)) {
+                // Calcul en cours déjà abandonné par toutes ses requêtes : il rendra une tournée écourtée
+                return action.apply(token);
+            }
+            logger.info("Joining request already in progress: " + key);
+            try {
+                return (T) running.result.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        try {
+            T result = action.apply(own.token);
+            own.result.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            own.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    // Calcul partagé par des requêtes identiques, avec le nombre de celles qui l'attendent encore
+    private static final class SharedComputation {
+
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private final CancellationToken token = CancellationToken.none();
+        private int participants;
+
+        synchronized boolean join(CancellationToken requestToken) {
+            if (token.isCancelled()) {
+                return false;
+            }
+            participants++;
+            requestToken.onCancel(this::leave);
+            return true;
+        }
+
+        private synchronized void leave() {
+            if (--participants == 0 && !result.isDone()) {
+                token.cancel();
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.delivery.service;
+
+import com.delivery.repository.TourSummary;
+
+import java.util.List;
+
+/**
+ * Tournée telle qu'affichée dans les listes : ses colonnes et les identifiants de ses livraisons dans l'ordre de passage.
+ */
+public class TourOverview {
+
+    private final TourSummary summary;
+    private final List<Long> deliveryIds;
+
+    public TourOverview(TourSummary summary, List<Long> deliveryIds) {
+        this.summary = summary;
+        this.deliveryIds = deliveryIds;
+    }
+
+    public TourSummary getSummary() {
+        return summary;
+    }
+
+    public List<Long> getDeliveryIds() {
+        return deliveryIds;
+    }
+}
@@ -1,18 +1,43 @@
 package com.delivery.service;
 
 import com.delivery.entity.*;
+import com.delivery.optimizer.CancellationToken;
+import com.delivery.optimizer.DistanceMatrix;
+import com.delivery.optimizer.FleetOptimizer;
+import com.delivery.optimizer.IncrementalRouting;
+import com.delivery.optimizer.LocalSearch;
+import com.delivery.optimizer.LocalSearchOptimizer;
+import com.delivery.optimizer.RouteSolution;
+import com.delivery.optimizer.RoutingProblem;
 import com.delivery.optimizer.TourOptimizer;
 import com.delivery.repository.TourRepository;
+import com.delivery.repository.TourSummary;
 import com.delivery.repository.DeliveryRepository;
 import com.delivery.repository.VehicleRepository;
 import com.delivery.repository.WarehouseRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.lang.Nullable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.logging.Logger;
 
 @Service
@@ -21,6 +46,9 @@ public class TourService {
 
     private static final Logger logger = Logger.getLogger(TourService.class.getName());
 
+    // Nombre d'identifiants par requête IN lors du rechargement des livraisons
+    private static final int ID_BATCH_SIZE = 1000;
+
     private final TourRepository tourRepository;
     private final DeliveryRepository deliveryRepository;
     private final VehicleRepository vehicleRepository;
@@ -28,10 +56,23 @@ public class TourService {
     private final DeliveryHistoryService deliveryHistoryService;
     private final TourOptimizer nearestNeighborOptimizer;
     private final TourOptimizer clarkeWrightOptimizer;
+    private final TourOptimizer multiStartOptimizer;
+    private final TourOptimizer linKernighanOptimizer;
+    private final TourOptimizer timeWindowOptimizer;
+    private final TourOptimizer aiOptimizer;
+    private final FleetOptimizer fleetOptimizer;
+    private final LocalSearch localSearch;
+    private final OptimizationResultCache resultCache;
+    private final OptimizationAdmission admission;
 
     public TourService(TourRepository tourRepository, DeliveryRepository deliveryRepository,
                        VehicleRepository vehicleRepository, WarehouseRepository warehouseRepository, DeliveryHistoryService deliveryHistoryService,
-                       TourOptimizer nearestNeighborOptimizer, TourOptimizer clarkeWrightOptimizer) {
+                       TourOptimizer nearestNeighborOptimizer, TourOptimizer clarkeWrightOptimizer,
+                       TourOptimizer multiStartOptimizer, TourOptimizer linKernighanOptimizer,
+                       TourOptimizer timeWindowOptimizer,
+                       @Qualifier("aiOptimizer") @Nullable TourOptimizer aiOptimizer,
+                       FleetOptimizer fleetOptimizer, LocalSearch localSearch, OptimizationResultCache resultCache,
+                       OptimizationAdmission admission) {
         this.tourRepository = tourRepository;
         this.deliveryRepository = deliveryRepository;
         this.vehicleRepository = vehicleRepository;
@@ -39,6 +80,14 @@ public class TourService {
         this.deliveryHistoryService = deliveryHistoryService;
         this.nearestNeighborOptimizer = nearestNeighborOptimizer;
         this.clarkeWrightOptimizer = clarkeWrightOptimizer;
+        this.multiStartOptimizer = multiStartOptimizer;
+        this.linKernighanOptimizer = linKernighanOptimizer;
+        this.timeWindowOptimizer = timeWindowOptimizer;
+        this.aiOptimizer = aiOptimizer;
+        this.fleetOptimizer = fleetOptimizer;
+        this.localSearch = localSearch;
+        this.resultCache = resultCache;
+        this.admission = admission;
     }
 
     public List<Tour> getAllTours() {
@@ -80,22 +129,143 @@ public class TourService {
         return tourRepository.save(tour);
     }
 
+    /**
+     * Première étape d'une optimisation en tâche de fond : lit la tournée et ses associations en une requête,
+     * dans une transaction courte en lecture seule, et en tire un instantané détaché des entités.
+     */
+    @Transactional(readOnly = true)
+    public RoutingProblem loadOptimizationProblem(Long tourId) {
+        Tour tour = tourRepository.findForOptimization(tourId)
+                .orElseThrow(() -> new RuntimeException("Tour not found with id: " + tourId));
+
+        checkOptimizable(tour);
+        return RoutingProblem.of(tour);
+    }
+
+    /**
+     * Calcul hors transaction : aucune connexion n'est retenue et aucune entité n'est touchée pendant l'optimisation.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public RouteSolution computeOptimization(RoutingProblem problem, Tour.AlgorithmType algorithmType,
+                                             CancellationToken token) {
+        logger.info("Computing optimization of " + problem.deliveryCount() + " deliveries with algorithm: " + algorithmType);
+        TourOptimizer optimizer = resolveOptimizer(algorithmType);
+        return admission.admit(algorithmType, token, () -> optimizer.solve(problem, token));
+    }
+
+    /**
+     * Enregistre le résultat d'une optimisation dans une transaction courte.
+     * L'ordre est reporté par identifiant, à condition que la tournée et ses livraisons soient encore
+     * dans la version de l'instantané ; sinon rien n'est écrit (ObjectOptimisticLockingFailureException).
+     */
     @Transactional
-    public Tour optimizeTour(Long tourId, Tour.AlgorithmType algorithmType) {
-        logger.info("Optimizing tour " + tourId + " with algorithm: " + algorithmType);
+    public Tour applyOptimization(Long tourId, Tour.AlgorithmType algorithmType, RouteSolution solution) {
+        Tour tour = tourRepository.findById(tourId)
+                .orElseThrow(() -> new RuntimeException("Tour not found with id: " + tourId));
 
-        Optional<Tour> tourOpt = tourRepository.findById(tourId);
-        if (tourOpt.isEmpty()) {
-            throw new RuntimeException("Tour not found with id: " + tourId);
+        // Identifiants seulement : les livraisons ne sont pas chargées dans la session
+        Set<Long> currentIds = new HashSet<>(deliveryRepository.findIdsByTourId(tourId));
+        if (!isCurrent(tour, currentIds, solution)) {
+            throw new ObjectOptimisticLockingFailureException(Tour.class, tourId);
         }
+        Map<Long, Long> versions = new HashMap<>();
+        collectVersions(solution.getProblem(), versions);
+        deliveryRepository.updateRouteOrder(tourId, solution.getDeliveryIds(), versions);
 
-        Tour tour = tourOpt.get();
+        tour.setAlgorithmUsed(algorithmType);
+        tour.setTotalDistance(solution.getTotalDistance());
+        tour.setDistanceGain(solution.getDistanceGain());
+
+        logger.info("Optimization applied to tour " + tourId + " - Distance: " + solution.getTotalDistance() + "km");
+        return tourRepository.save(tour);
+    }
+
+    /**
+     * Tournées d'une optimisation groupée avec entrepôt, véhicule, livraisons et clients,
+     * en une requête par lot de ID_BATCH_SIZE identifiants ; les identifiants inconnus sont ignorés.
+     */
+    @Transactional(readOnly = true)
+    public List<Tour> findToursForOptimization(List<Long> tourIds) {
+        List<Tour> tours = new ArrayList<>(tourIds.size());
+        for (int from = 0; from < tourIds.size(); from += ID_BATCH_SIZE) {
+            tours.addAll(tourRepository.findAllForOptimization(
+                    tourIds.subList(from, Math.min(from + ID_BATCH_SIZE, tourIds.size()))));
+        }
+        return tours;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Tour> findToursForOptimization(LocalDate date) {
+        return tourRepository.findByDateForOptimization(date);
+    }
+
+    /**
+     * Enregistre les résultats d'une optimisation groupée dans une seule transaction : l'ordre de toutes
+     * les livraisons part en un lot JDBC, les tournées sont mises à jour par lots Hibernate à la validation.
+     * Retourne les identifiants des tournées mises à jour : une tournée supprimée ou modifiée depuis
+     * son instantané est absente et garde son ordre.
+     */
+    @Transactional
+    public Set<Long> applyOptimizations(Tour.AlgorithmType algorithmType, Map<Long, RouteSolution> solutions) {
+        List<Long> tourIds = new ArrayList<>(solutions.keySet());
+        Map<Long, Set<Long>> currentIds = new HashMap<>();
+        List<Tour> tours = new ArrayList<>(tourIds.size());
+        for (int from = 0; from < tourIds.size(); from += ID_BATCH_SIZE) {
+            List<Long> batch = tourIds.subList(from, Math.min(from + ID_BATCH_SIZE, tourIds.size()));
+            for (Object[] row : deliveryRepository.findIdsByTourIds(batch)) {
+                currentIds.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((Long) row[1]);
+            }
+            tours.addAll(tourRepository.findAllById(batch));
+        }
+
+        Map<Long, List<Long>> routeOrders = new HashMap<>();
+        Map<Long, Long> versions = new HashMap<>();
+        Set<Long> applied = new HashSet<>();
+        for (Tour tour : tours) {
+            RouteSolution solution = solutions.get(tour.getId());
+            if (!isCurrent(tour, currentIds.getOrDefault(tour.getId(), Set.of()), solution)) {
+                continue;
+            }
+            routeOrders.put(tour.getId(), solution.getDeliveryIds());
+            collectVersions(solution.getProblem(), versions);
+            tour.setAlgorithmUsed(algorithmType);
+            tour.setTotalDistance(solution.getTotalDistance());
+            tour.setDistanceGain(solution.getDistanceGain());
+            applied.add(tour.getId());
+        }
+        deliveryRepository.updateRouteOrders(routeOrders, versions);
+
+        logger.info("Batch optimization applied to " + applied.size() + " tours with algorithm: " + algorithmType);
+        return applied;
+    }
+
+    /**
+     * Vrai si la tournée est encore celle de l'instantané : même version et mêmes livraisons.
+     * Une solution calculée avant un ajout, un retrait ou une modification n'écrase pas ce changement.
+     */
+    private boolean isCurrent(Tour tour, Set<Long> currentIds, RouteSolution solution) {
+        List<Long> solvedIds = solution.getDeliveryIds();
+        if (Objects.equals(solution.getProblem().tourVersion(), tour.getVersion())
+                && solvedIds.size() == currentIds.size() && currentIds.containsAll(solvedIds)) {
+            return true;
+        }
+        logger.warning("Tour " + tour.getId() + " changed during optimization, solution discarded");
+        return false;
+    }
+
+    // Versions lues dans l'instantané : l'écriture de l'ordre échoue sur une livraison modifiée depuis
+    private static void collectVersions(RoutingProblem problem, Map<Long, Long> versions) {
+        for (int i = 1; i < problem.size(); i++) {
+            versions.put(problem.deliveryId(i), problem.deliveryVersion(i));
+        }
+    }
+
+    void checkOptimizable(Tour tour) {
         List<Delivery> deliveries = tour.getDeliveries();
-        Warehouse warehouse = tour.getWarehouse();
         Vehicle vehicle = tour.getVehicle();
 
         if (deliveries.isEmpty()) {
-            throw new RuntimeException("No deliveries found for tour id: " + tourId);
+            throw new RuntimeException("No deliveries found for tour id: " + tour.getId());
         }
 
         double totalWeight = deliveries.stream().mapToDouble(Delivery::getWeight).sum();
@@ -110,63 +280,52 @@ public class TourService {
             logger.severe(errorMsg);
             throw new RuntimeException(errorMsg);
         }
-
-        TourOptimizer optimizer = algorithmType == Tour.AlgorithmType.NEAREST_NEIGHBOR ?
-                nearestNeighborOptimizer : clarkeWrightOptimizer;
-
-        List<Delivery> optimizedDeliveries = optimizer.calculateOptimalTour(warehouse, deliveries, vehicle);
-        Double totalDistance = optimizer.calculateTotalDistance(warehouse, optimizedDeliveries);
-
-        // Mettre à jour les livraisons avec le nouvel ordre
-        for (Delivery delivery : optimizedDeliveries) {
-            delivery.setTour(tour);
-            deliveryRepository.save(delivery);
-        }
-
-        tour.setDeliveries(optimizedDeliveries);
-        tour.setAlgorithmUsed(algorithmType);
-        tour.setTotalDistance(totalDistance);
-
-        logger.info("Optimization completed for tour " + tourId + " - Distance: " + totalDistance + "km");
-
-        return tourRepository.save(tour);
     }
 
-    public List<Delivery> getOptimizedTour(Long tourId, Tour.AlgorithmType algorithmType) {
-        logger.info("Getting optimized tour for tour " + tourId + " with algorithm: " + algorithmType);
-
-        Optional<Tour> tourOpt = tourRepository.findById(tourId);
-        if (tourOpt.isEmpty()) {
-            throw new RuntimeException("Tour not found with id: " + tourId);
-        }
-
-        Tour tour = tourOpt.get();
-        List<Delivery> deliveries = tour.getDeliveries();
-        Warehouse warehouse = tour.getWarehouse();
-        Vehicle vehicle = tour.getVehicle();
-
-        TourOptimizer optimizer = algorithmType == Tour.AlgorithmType.NEAREST_NEIGHBOR ?
-                nearestNeighborOptimizer : clarkeWrightOptimizer;
+    /**
+     * Aperçu d'optimisation sans effet de bord : calcul sur l'instantané détaché, aucune livraison n'est modifiée
+     * ni écrite. Un problème identique déjà calculé est servi par le cache.
+     * Seule la lecture de l'instantané est transactionnelle ; l'attente d'admission et le calcul ne retiennent
+     * aucune connexion.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public RouteSolution previewOptimization(Long tourId, Tour.AlgorithmType algorithmType) {
+        logger.info("Previewing optimized tour " + tourId + " with algorithm: " + algorithmType);
+
+        Tour tour = tourRepository.findForOptimization(tourId)
+                .orElseThrow(() -> new RuntimeException("Tour not found with id: " + tourId));
+        RoutingProblem problem = RoutingProblem.of(tour);
 
-        return optimizer.calculateOptimalTour(warehouse, deliveries, vehicle);
+        TourOptimizer optimizer = resolveOptimizer(algorithmType);
+        return resultCache.get(tourId, algorithmType, problem,
+                () -> admission.admit(algorithmType, () -> optimizer.solve(problem, CancellationToken.none())));
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Double getTotalDistance(Long tourId, Tour.AlgorithmType algorithmType) {
         logger.info("Calculating total distance for tour " + tourId + " with algorithm: " + algorithmType);
+        return previewOptimization(tourId, algorithmType).getTotalDistance();
+    }
 
-        Optional<Tour> tourOpt = tourRepository.findById(tourId);
-        if (tourOpt.isEmpty()) {
-            throw new RuntimeException("Tour not found with id: " + tourId);
-        }
-
-        Tour tour = tourOpt.get();
-        List<Delivery> deliveries = tour.getDeliveries();
-        Warehouse warehouse = tour.getWarehouse();
-
-        TourOptimizer optimizer = algorithmType == Tour.AlgorithmType.NEAREST_NEIGHBOR ?
-                nearestNeighborOptimizer : clarkeWrightOptimizer;
-
-        return optimizer.calculateTotalDistance(warehouse, deliveries);
+    /**
+     * L'optimiseur IA n'existe que si app.optimizer.active=ai ; sinon AI_OPTIMIZER est refusé plutôt que remplacé.
+     */
+    private TourOptimizer resolveOptimizer(Tour.AlgorithmType algorithmType) {
+        return switch (algorithmType) {
+            case NEAREST_NEIGHBOR -> nearestNeighborOptimizer;
+            case CLARKE_WRIGHT -> clarkeWrightOptimizer;
+            case AI_OPTIMIZER -> {
+                if (aiOptimizer == null) {
+                    throw new IllegalArgumentException("AI optimizer is not enabled (app.optimizer.active=ai)");
+                }
+                yield aiOptimizer;
+            }
+            case NEAREST_NEIGHBOR_2OPT -> new LocalSearchOptimizer(nearestNeighborOptimizer, localSearch);
+            case CLARKE_WRIGHT_2OPT -> new LocalSearchOptimizer(clarkeWrightOptimizer, localSearch);
+            case MULTI_START -> multiStartOptimizer;
+            case LIN_KERNIGHAN -> linKernighanOptimizer;
+            case TIME_WINDOW -> timeWindowOptimizer;
+        };
     }
 
     public List<Tour> getToursByDate(LocalDate date) {
@@ -179,18 +338,114 @@ public class TourService {
         return tourRepository.findByVehicleId(vehicleId);
     }
 
-    public List<Tour> getToursWithNearestNeighbor() {
-        logger.info("Fetching tours optimized with Nearest Neighbor");
-        return tourRepository.findToursWithNearestNeighbor();
+    /**
+     * Listes de tournées sans charger les entités : une requête pour les colonnes des tournées,
+     * une pour les identifiants de leurs livraisons, quel que soit le nombre de tournées.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<TourOverview> getTourOverviews(String cursor, int size) {
+        logger.info("Fetching tour overviews after cursor: " + cursor);
+        PageCursor position = PageCursor.parse(cursor);
+        return overviewPage(tourRepository.findSummariesAfter(afterId(position), KeysetPage.limit(size)), size);
+    }
+
+    @Transactional(readOnly = true)
+    public KeysetPage<TourOverview> getTourOverviewsByDate(LocalDate date, String cursor, int size) {
+        logger.info("Fetching tour overviews for date: " + date + " after cursor: " + cursor);
+        PageCursor position = PageCursor.parse(cursor);
+        return overviewPage(tourRepository.findSummariesByDateAfter(date, afterId(position), KeysetPage.limit(size)),
+                size);
     }
 
-    public List<Tour> getToursWithClarkeWright() {
-        logger.info("Fetching tours optimized with Clarke & Wright");
-        return tourRepository.findToursWithClarkeWright();
+    @Transactional(readOnly = true)
+    public KeysetPage<TourOverview> getTourOverviewsByVehicle(Long vehicleId, String cursor, int size) {
+        logger.info("Fetching tour overviews for vehicle id: " + vehicleId + " after cursor: " + cursor);
+        PageCursor position = PageCursor.parse(cursor);
+        return overviewPage(tourRepository.findSummariesByVehicleIdAfter(vehicleId, afterId(position),
+                KeysetPage.limit(size)), size);
+    }
+
+    @Transactional(readOnly = true)
+    public KeysetPage<TourOverview> getTourOverviewsByAlgorithm(Tour.AlgorithmType algorithm, String cursor, int size) {
+        logger.info("Fetching tour overviews optimized with " + algorithm + " after cursor: " + cursor);
+        PageCursor position = PageCursor.parse(cursor);
+        return overviewPage(tourRepository.findSummariesByAlgorithmAfter(algorithm, afterId(position),
+                KeysetPage.limit(size)), size);
+    }
+
+    private static long afterId(PageCursor position) {
+        return position != null ? position.getId() : 0L;
+    }
+
+    // Page de projections bornée par KeysetPage.limit(size), complétée par les identifiants de livraisons en une requête
+    private KeysetPage<TourOverview> overviewPage(List<TourSummary> rows, int size) {
+        KeysetPage<TourSummary> page = KeysetPage.of(rows, size, summary -> PageCursor.of(summary.getId()));
+        if (page.getItems().isEmpty()) {
+            return page.map(summary -> new TourOverview(summary, new ArrayList<>()));
+        }
+        List<Long> tourIds = page.getItems().stream().map(TourSummary::getId).collect(Collectors.toList());
+        List<TourOverview> overviews = overviews(page.getItems(), deliveryRepository.findTourDeliveryIdsByTourIds(tourIds));
+        return new KeysetPage<>(overviews, page.getNextCursor());
+    }
+
+    /**
+     * Export de toutes les tournées au fil de l'eau : les projections sont lues par lots,
+     * et les identifiants de livraisons chargés une fois par lot plutôt qu'une fois par tournée.
+     */
+    @Transactional(readOnly = true)
+    public long exportTours(Consumer<TourOverview> sink) {
+        logger.info("Exporting tours");
+        long count = 0;
+        List<TourSummary> batch = new ArrayList<>(TourRepository.EXPORT_FETCH_SIZE);
+        try (Stream<TourSummary> rows = tourRepository.streamSummariesForExport()) {
+            Iterator<TourSummary> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == TourRepository.EXPORT_FETCH_SIZE || !iterator.hasNext()) {
+                    List<Long> tourIds = batch.stream().map(TourSummary::getId).collect(Collectors.toList());
+                    overviews(batch, deliveryRepository.findTourDeliveryIdsByTourIds(tourIds)).forEach(sink);
+                    count += batch.size();
+                    batch.clear();
+                }
+            }
+        }
+        logger.info("Exported " + count + " tours");
+        return count;
+    }
+
+    // Regroupe les couples [tournée, livraison], déjà triés dans l'ordre de passage, par tournée
+    private List<TourOverview> overviews(List<TourSummary> summaries, List<Object[]> deliveryIds) {
+        Map<Long, List<Long>> idsByTour = new HashMap<>();
+        for (Object[] row : deliveryIds) {
+            idsByTour.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((Long) row[1]);
+        }
+
+        List<TourOverview> overviews = new ArrayList<>(summaries.size());
+        for (TourSummary summary : summaries) {
+            overviews.add(new TourOverview(summary, idsByTour.getOrDefault(summary.getId(), new ArrayList<>())));
+        }
+        return overviews;
     }
 
     @Transactional
     public void addDeliveryToTour(Long tourId, Long deliveryId) {
+        addDeliveryToTour(tourId, deliveryId, false);
+    }
+
+    /**
+     * Tournée actuelle de la livraison, sans la charger : un déplacement verrouille aussi la tournée d'origine.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> findTourIdOfDelivery(Long deliveryId) {
+        return deliveryRepository.findTourIdById(deliveryId);
+    }
+
+    /**
+     * Insère la livraison au moindre coût dans l'ordre existant (capacité et créneaux vérifiés)
+     * et met à jour la distance par différence ; repair lance une réparation locale bornée autour du nouvel arrêt.
+     */
+    @Transactional
+    public void addDeliveryToTour(Long tourId, Long deliveryId, boolean repair) {
         logger.info("Adding delivery " + deliveryId + " to tour " + tourId);
 
         Tour tour = tourRepository.findById(tourId)
@@ -199,12 +454,57 @@ public class TourService {
         Delivery delivery = deliveryRepository.findById(deliveryId)
                 .orElseThrow(() -> new RuntimeException("Delivery not found with id: " + deliveryId));
 
+        if (delivery.getTour() != null && tourId.equals(delivery.getTour().getId())) {
+            logger.info("Delivery " + deliveryId + " is already in tour " + tourId);
+            return;
+        }
+
+        Vehicle vehicle = tour.getVehicle();
+        if (vehicle != null && !vehicle.isValidForDelivery(tour.getTotalWeight() + delivery.getWeight(),
+                tour.getTotalVolume() + delivery.getVolume(), tour.getDeliveryCount() + 1)) {
+            throw new IllegalArgumentException("Delivery " + deliveryId + " exceeds the capacity of vehicle "
+                    + vehicle.getLicensePlate() + " for tour " + tourId);
+        }
+
+        // Une livraison déplacée depuis une autre tournée en est d'abord retirée proprement
+        if (delivery.getTour() != null) {
+            detachFromRoute(delivery.getTour(), delivery, false);
+        }
+
+        List<Delivery> stops = new ArrayList<>(tour.getDeliveries());
+        stops.add(delivery);
+        RoutingProblem problem = RoutingProblem.of(tour.getWarehouse(), stops, vehicle);
+        int[] route = currentRoute(stops.size() - 1);
+        int node = stops.size();
+
+        IncrementalRouting.Insertion insertion = IncrementalRouting.cheapestInsertion(problem, route, node);
+        int[] updatedRoute = IncrementalRouting.insert(route, insertion.getPosition(), node);
+        double delta = insertion.getDistanceDelta();
+        if (repair) {
+            delta += IncrementalRouting.repair(problem, updatedRoute, insertion.getPosition());
+        }
+        if (!insertion.isOnTime()) {
+            logger.warning("Delivery " + deliveryId + " cannot be served within its time slot in tour " + tourId);
+        }
+
         delivery.setTour(tour);
+        applyRouteOrder(tour, stops, updatedRoute, delta);
         deliveryRepository.save(delivery);
+
+        logger.info("Delivery " + deliveryId + " inserted at position " + (insertion.getPosition() + 1)
+                + " of tour " + tourId + " - Distance: " + tour.getTotalDistance() + "km");
     }
 
     @Transactional
     public void removeDeliveryFromTour(Long tourId, Long deliveryId) {
+        removeDeliveryFromTour(tourId, deliveryId, false);
+    }
+
+    /**
+     * Retire la livraison en reliant ses voisins ; l'ordre des suivantes et la distance sont mis à jour par différence.
+     */
+    @Transactional
+    public void removeDeliveryFromTour(Long tourId, Long deliveryId, boolean repair) {
         logger.info("Removing delivery " + deliveryId + " from tour " + tourId);
 
         Delivery delivery = deliveryRepository.findById(deliveryId)
@@ -214,11 +514,64 @@ public class TourService {
             throw new RuntimeException("Delivery " + deliveryId + " is not assigned to tour " + tourId);
         }
 
+        detachFromRoute(delivery.getTour(), delivery, repair);
         delivery.setTour(null);
         delivery.setOrder(null);
         deliveryRepository.save(delivery);
     }
 
+    private void detachFromRoute(Tour tour, Delivery delivery, boolean repair) {
+        List<Delivery> stops = new ArrayList<>(tour.getDeliveries());
+        int position = 0;
+        while (position < stops.size() && stops.get(position) != delivery) {
+            position++;
+        }
+        if (position == stops.size()) {
+            return;
+        }
+
+        RoutingProblem problem = RoutingProblem.of(tour.getWarehouse(), stops, tour.getVehicle());
+        int[] route = currentRoute(stops.size());
+        double delta = IncrementalRouting.removalDelta(problem, route, position);
+        int[] updatedRoute = IncrementalRouting.remove(route, position);
+        if (repair && updatedRoute.length > 0) {
+            delta += IncrementalRouting.repair(problem, updatedRoute, Math.min(position, updatedRoute.length - 1));
+        }
+
+        applyRouteOrder(tour, stops, updatedRoute, delta);
+    }
+
+    // Ordre stocké de la tournée, en index du problème construit sur ses livraisons
+    private int[] currentRoute(int stops) {
+        int[] route = new int[stops];
+        for (int i = 0; i < stops; i++) {
+            route[i] = i + 1;
+        }
+        return route;
+    }
+
+    /**
+     * Reporte l'ordre de passage sur les livraisons (seules celles qui changent de rang sont écrites)
+     * et la variation de distance sur la tournée. Si l'ordre stocké était incomplet, la distance est recalculée.
+     */
+    private void applyRouteOrder(Tour tour, List<Delivery> stops, int[] route, double distanceDelta) {
+        boolean maintained = tour.getTotalDistance() != null
+                && tour.getDeliveries().stream().allMatch(delivery -> delivery.getOrder() != null);
+
+        resultCache.evictTour(tour.getId());
+        List<Delivery> ordered = tour.getDeliveries();
+        ordered.clear();
+        for (int i = 0; i < route.length; i++) {
+            Delivery delivery = stops.get(route[i] - 1);
+            delivery.setOrder(i + 1);
+            ordered.add(delivery);
+        }
+
+        tour.setTotalDistance(maintained
+                ? Math.max(0.0, tour.getTotalDistance() + distanceDelta)
+                : DistanceMatrix.routeDistance(tour.getWarehouse(), ordered));
+    }
+
     @Transactional
     public Tour updateTour(Long id, Tour tourDetails) {
         logger.info("Updating tour with id: " + id);
@@ -230,6 +583,11 @@ public class TourService {
 
         Tour tour = tourOpt.get();
 
+        // Le client qui envoie la version lue refuse d'écraser une modification faite entre-temps
+        if (tourDetails.getVersion() != null && !tourDetails.getVersion().equals(tour.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Tour.class, id);
+        }
+
         // Mettre à jour les champs modifiables
         if (tourDetails.getDate() != null) {
             tour.setDate(tourDetails.getDate());
@@ -265,6 +623,7 @@ public class TourService {
             throw new RuntimeException("Erreur de validation: " + e.getMessage());
         }
 
+        resultCache.evictTour(id);
         return tourRepository.save(tour);
     }
 
@@ -272,24 +631,16 @@ public class TourService {
     public void deleteTour(Long id) {
         logger.info("Deleting tour with id: " + id);
 
-        Optional<Tour> tourOpt = tourRepository.findById(id);
-        if (tourOpt.isEmpty()) {
+        if (!tourRepository.existsById(id)) {
             throw new RuntimeException("Tour not found with id: " + id);
         }
 
-        Tour tour = tourOpt.get();
-
-        // Désassocier les livraisons de cette tournée
-        if (!tour.getDeliveries().isEmpty()) {
-            for (Delivery delivery : tour.getDeliveries()) {
-                delivery.setTour(null);
-                delivery.setOrder(null);
-                deliveryRepository.save(delivery);
-            }
-            tour.getDeliveries().clear();
-        }
+        // Désassocier les livraisons de cette tournée en une seule requête, avant la suppression en cascade
+        int detached = deliveryRepository.detachFromTour(id);
+        logger.info(detached + " deliveries detached from tour " + id);
 
-        tourRepository.delete(tour);
+        tourRepository.deleteById(id);
+        resultCache.evictTour(id);
         logger.info("Tour deleted successfully with id: " + id);
     }
 
@@ -352,4 +703,178 @@ public class TourService {
         logger.info("Batch creation completed. Success: " + createdTours.size() + "/" + tours.size());
         return createdTours;
     }
+
+    @Transactional
+    public List<Tour> planWarehouseTours(Long warehouseId, LocalDate date, List<Long> deliveryIds) {
+        logger.info("Planning tours for warehouse " + warehouseId + " on " + date);
+
+        Warehouse warehouse = warehouseRepository.findById(warehouseId)
+                .orElseThrow(() -> new RuntimeException("Warehouse not found with id: " + warehouseId));
+
+        List<Delivery> deliveries = deliveryIds == null || deliveryIds.isEmpty()
+                ? pendingDeliveriesNearest(warehouse)
+                : plannableDeliveries(deliveryIds);
+        if (deliveries.isEmpty()) {
+            throw new RuntimeException("No deliveries to plan for warehouse id: " + warehouseId);
+        }
+
+        // Véhicules libres ce jour-là et capables de porter au moins le plus gros colis
+        double largestWeight = deliveries.stream().mapToDouble(Delivery::getWeight).max().orElse(0.0);
+        double largestVolume = deliveries.stream().mapToDouble(Delivery::getVolume).max().orElse(0.0);
+        Set<Long> busyVehicleIds = tourRepository.findByDate(date).stream()
+                .map(tour -> tour.getVehicle().getId())
+                .collect(Collectors.toSet());
+        List<Vehicle> availableVehicles = vehicleRepository.findSuitableVehicles(largestWeight, largestVolume).stream()
+                .filter(vehicle -> !busyVehicleIds.contains(vehicle.getId()))
+                .collect(Collectors.toList());
+
+        List<Tour> tours = new ArrayList<>();
+        // Découpage Clarke & Wright : admis dans la file CLARKE_WRIGHT, comme les optimisations de ce type
+        Deque<List<Delivery>> pendingRoutes = new ArrayDeque<>(admission.admit(Tour.AlgorithmType.CLARKE_WRIGHT,
+                () -> fleetOptimizer.calculateRoutes(warehouse, deliveries, largestVehicle(availableVehicles))));
+
+        while (!pendingRoutes.isEmpty()) {
+            if (availableVehicles.isEmpty()) {
+                throw new RuntimeException("Not enough vehicles available on " + date + " for "
+                        + (pendingRoutes.size()) + " remaining routes");
+            }
+
+            List<Delivery> route = pendingRoutes.poll();
+            double routeWeight = route.stream().mapToDouble(Delivery::getWeight).sum();
+            double routeVolume = route.stream().mapToDouble(Delivery::getVolume).sum();
+
+            // Le plus petit véhicule qui convient (best fit)
+            Optional<Vehicle> vehicle = availableVehicles.stream()
+                    .filter(v -> v.isValidForDelivery(routeWeight, routeVolume, route.size()))
+                    .min(Comparator.comparingDouble(Vehicle::getMaxWeight).thenComparingDouble(Vehicle::getMaxVolume));
+
+            if (vehicle.isEmpty()) {
+                // Tournée trop chargée pour les véhicules restants : la redécouper à leur capacité
+                List<List<Delivery>> splitRoutes = admission.admit(Tour.AlgorithmType.CLARKE_WRIGHT,
+                        () -> fleetOptimizer.calculateRoutes(warehouse, route, largestVehicle(availableVehicles)));
+                splitRoutes.forEach(pendingRoutes::addFirst);
+                continue;
+            }
+
+            availableVehicles.remove(vehicle.get());
+            tours.add(buildPlannedTour(date, warehouse, vehicle.get(), route, Tour.AlgorithmType.CLARKE_WRIGHT));
+        }
+
+        List<Tour> savedTours = tourRepository.saveAll(tours);
+        deliveryRepository.saveAll(deliveries);
+
+        logger.info("Planned " + savedTours.size() + " tours for " + deliveries.size()
+                + " deliveries from warehouse " + warehouseId);
+        return savedTours;
+    }
+
+    /**
+     * Livraisons demandées explicitement : toutes doivent exister, être en attente et n'appartenir à aucune tournée,
+     * comme à l'enregistrement d'un plan (savePlannedTours). Sinon rien n'est planifié.
+     */
+    private List<Delivery> plannableDeliveries(List<Long> deliveryIds) {
+        Set<Long> requestedIds = new HashSet<>(deliveryIds);
+        List<Delivery> deliveries = deliveryRepository.findAllById(requestedIds);
+
+        Set<Long> foundIds = deliveries.stream().map(Delivery::getId).collect(Collectors.toSet());
+        List<Long> missingIds = requestedIds.stream().filter(id -> !foundIds.contains(id)).sorted().collect(Collectors.toList());
+        if (!missingIds.isEmpty()) {
+            throw new IllegalArgumentException("Deliveries not found with ids: " + missingIds);
+        }
+
+        List<Long> unavailableIds = deliveries.stream()
+                .filter(delivery -> delivery.getTour() != null || delivery.getStatus() != Delivery.DeliveryStatus.PENDING)
+                .map(Delivery::getId)
+                .sorted()
+                .collect(Collectors.toList());
+        if (!unavailableIds.isEmpty()) {
+            throw new IllegalArgumentException("Deliveries already assigned or not pending: " + unavailableIds);
+        }
+        return deliveries;
+    }
+
+    // Livraisons en attente dont l'entrepôt le plus proche est celui-ci (même répartition que la planification du jour)
+    private List<Delivery> pendingDeliveriesNearest(Warehouse warehouse) {
+        List<Warehouse> warehouses = warehouseRepository.findAll();
+        return deliveryRepository.findPendingUnassignedDeliveries().stream()
+                .filter(delivery -> isNearestWarehouse(warehouse, delivery, warehouses))
+                .collect(Collectors.toList());
+    }
+
+    private static boolean isNearestWarehouse(Warehouse warehouse, Delivery delivery, List<Warehouse> warehouses) {
+        double distance = DistanceMatrix.haversine(warehouse.getLatitude(), warehouse.getLongitude(),
+                delivery.getLatitude(), delivery.getLongitude());
+        for (Warehouse other : warehouses) {
+            if (!other.getId().equals(warehouse.getId()) && DistanceMatrix.haversine(other.getLatitude(),
+                    other.getLongitude(), delivery.getLatitude(), delivery.getLongitude()) < distance) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Vehicle largestVehicle(List<Vehicle> vehicles) {
+        return vehicles.stream()
+                .max(Comparator.comparingDouble(Vehicle::getMaxWeight).thenComparingDouble(Vehicle::getMaxVolume))
+                .orElseThrow(() -> new RuntimeException("No suitable vehicle available"));
+    }
+
+    /**
+     * Enregistre en une écriture groupée des tournées planifiées hors transaction.
+     * Les livraisons sont rechargées par identifiant (requêtes IN par lots) ; si l'une d'elles
+     * a été affectée entre-temps, rien n'est enregistré.
+     */
+    @Transactional
+    public List<Tour> savePlannedTours(List<Tour> tours) {
+        List<Long> deliveryIds = tours.stream()
+                .flatMap(tour -> tour.getDeliveries().stream())
+                .map(Delivery::getId)
+                .collect(Collectors.toList());
+
+        Map<Long, Delivery> managedDeliveries = new HashMap<>();
+        for (int from = 0; from < deliveryIds.size(); from += ID_BATCH_SIZE) {
+            List<Long> batch = deliveryIds.subList(from, Math.min(from + ID_BATCH_SIZE, deliveryIds.size()));
+            for (Delivery delivery : deliveryRepository.findAllById(batch)) {
+                managedDeliveries.put(delivery.getId(), delivery);
+            }
+        }
+
+        for (Tour tour : tours) {
+            List<Delivery> route = new ArrayList<>(tour.getDeliveries().size());
+            for (Delivery planned : tour.getDeliveries()) {
+                Delivery delivery = managedDeliveries.get(planned.getId());
+                if (delivery == null || delivery.getTour() != null) {
+                    throw new RuntimeException("Delivery " + planned.getId() + " is no longer available for planning");
+                }
+                delivery.setOrder(planned.getOrder());
+                delivery.setTour(tour);
+                route.add(delivery);
+            }
+            tour.setDeliveries(route);
+        }
+
+        List<Tour> savedTours = tourRepository.saveAll(tours);
+        logger.info("Saved " + savedTours.size() + " planned tours for " + deliveryIds.size() + " deliveries");
+        return savedTours;
+    }
+
+    static Tour buildPlannedTour(LocalDate date, Warehouse warehouse, Vehicle vehicle, List<Delivery> route,
+                                 Tour.AlgorithmType algorithmType) {
+        Tour tour = new Tour();
+        tour.setDate(date);
+        tour.setWarehouse(warehouse);
+        tour.setVehicle(vehicle);
+        tour.setAlgorithmUsed(algorithmType);
+        tour.setStatus(Tour.TourStatus.PLANNED);
+        tour.setTotalDistance(DistanceMatrix.routeDistance(warehouse, route));
+        tour.setDeliveries(new ArrayList<>(route));
+
+        // L'ordre de chaque livraison a été fixé par l'optimiseur
+        for (Delivery delivery : route) {
+            delivery.setTour(tour);
+        }
+
+        tour.validate();
+        return tour;
+    }
 }
\ No newline at end of file
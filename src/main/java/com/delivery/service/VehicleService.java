@@ -27,6 +27,14 @@ public class VehicleService {
         return vehicleRepository.findAll();
     }
 
+    public KeysetPage<Vehicle> getVehicles(String cursor, int size) {
+        logger.info("Fetching vehicles after cursor: " + cursor);
+        PageCursor position = PageCursor.parse(cursor);
+        List<Vehicle> rows = vehicleRepository.findPageAfter(position != null ? position.getId() : 0L,
+                KeysetPage.limit(size));
+        return KeysetPage.of(rows, size, vehicle -> PageCursor.of(vehicle.getId()));
+    }
+
     public Optional<Vehicle> getVehicleById(Long id) {
         logger.info("Fetching vehicle with id: " + id);
         return vehicleRepository.findById(id);
@@ -27,6 +27,14 @@ public class WarehouseService {
         return warehouseRepository.findAll();
     }
 
+    public KeysetPage<Warehouse> getWarehouses(String cursor, int size) {
+        logger.info("Fetching warehouses after cursor: " + cursor);
+        PageCursor position = PageCursor.parse(cursor);
+        List<Warehouse> rows = warehouseRepository.findPageAfter(position != null ? position.getId() : 0L,
+                KeysetPage.limit(size));
+        return KeysetPage.of(rows, size, warehouse -> PageCursor.of(warehouse.getId()));
+    }
+
     public Optional<Warehouse> getWarehouseById(Long id) {
         logger.info("Fetching warehouse with id: " + id);
         return warehouseRepository.findById(id);
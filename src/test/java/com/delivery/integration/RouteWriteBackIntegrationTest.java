@@ -0,0 +1,263 @@
+package com.delivery.integration;
+
+import com.delivery.entity.Customer;
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Tour;
+import com.delivery.entity.Vehicle;
+import com.delivery.entity.Warehouse;
+import com.delivery.optimizer.CancellationToken;
+import com.delivery.optimizer.RouteSolution;
+import com.delivery.optimizer.RoutingProblem;
+import com.delivery.service.TourService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("dev")
+@Transactional
+class RouteWriteBackIntegrationTest {
+
+    private static final int STOPS = 100;
+
+    @Autowired
+    private TourService tourService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void loadOptimizationProblem_ShouldLoadTourAggregateInSingleQuery() {
+        // Arrange
+        Tour tour = createTour(STOPS);
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        statementCounter.reset();
+
+        // Act
+        RoutingProblem problem = tourService.loadOptimizationProblem(tour.getId());
+
+        // Assert : tournée, entrepôt, véhicule, livraisons et clients chargés par la même requête, aucun chargement paresseux
+        assertEquals(STOPS, problem.deliveryCount());
+        long statements = statementCounter.count();
+        assertTrue(statements <= 2, "Expected at most 2 queries to load " + STOPS + " stops, got " + statements);
+        assertEquals(0, statistics.getEntityFetchCount());
+        assertEquals(0, statistics.getCollectionFetchCount());
+    }
+
+    @Test
+    void applyOptimization_ShouldWriteDeliveryOrderInSingleJdbcBatch() {
+        // Arrange : chargement et calcul comme le contrôleur, puis une session neuve pour l'écriture
+        Tour tour = createTour(STOPS);
+        entityManager.flush();
+        entityManager.clear();
+        RoutingProblem problem = tourService.loadOptimizationProblem(tour.getId());
+        RouteSolution solution = tourService.computeOptimization(problem, Tour.AlgorithmType.NEAREST_NEIGHBOR,
+                CancellationToken.none());
+        entityManager.clear();
+        statistics.clear();
+        statementCounter.reset();
+
+        // Act
+        tourService.applyOptimization(tour.getId(), Tour.AlgorithmType.NEAREST_NEIGHBOR, solution);
+        entityManager.flush();
+
+        // Assert : tournée, identifiants des livraisons, un lot JDBC pour les 100 livraisons et l'UPDATE de la tournée,
+        // au lieu d'un aller-retour par livraison ; aucune livraison chargée dans la session
+        long statements = statementCounter.count();
+        assertTrue(statements <= 4, "Expected at most 4 JDBC statements for " + STOPS + " stops, got " + statements);
+        assertEquals(1, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getCollectionFetchCount());
+    }
+
+    @Test
+    void applyOptimization_ShouldWriteOrderByDeliveryId() {
+        // Arrange
+        Tour tour = createTour(STOPS);
+        entityManager.flush();
+
+        List<Long> deliveryIds = new ArrayList<>();
+        int[] reversed = new int[STOPS];
+        for (int i = 0; i < STOPS; i++) {
+            deliveryIds.add(tour.getDeliveries().get(i).getId());
+            reversed[i] = STOPS - i;
+        }
+        RoutingProblem problem = RoutingProblem.of(tour);
+        entityManager.clear();
+
+        // Act : un seul lot JDBC pour les 100 livraisons
+        tourService.applyOptimization(tour.getId(), Tour.AlgorithmType.LIN_KERNIGHAN, RouteSolution.of(problem, reversed));
+        entityManager.flush();
+
+        // Assert
+        List<Long> storedOrder = jdbcTemplate.queryForList(
+                "SELECT id FROM deliveries WHERE tour_id = ? ORDER BY delivery_order", Long.class, tour.getId());
+        Collections.reverse(deliveryIds);
+        assertEquals(deliveryIds, storedOrder);
+    }
+
+    @Test
+    void applyOptimization_WhenDeliveryChangedSinceSnapshot_ShouldRejectStaleOrder() {
+        // Arrange : une livraison modifiée ailleurs après la lecture de l'instantané
+        Tour tour = createTour(STOPS);
+        entityManager.flush();
+
+        int[] reversed = new int[STOPS];
+        for (int i = 0; i < STOPS; i++) {
+            reversed[i] = STOPS - i;
+        }
+        RoutingProblem problem = RoutingProblem.of(tour);
+        entityManager.clear();
+        jdbcTemplate.update("UPDATE deliveries SET version = version + 1 WHERE id = ?", problem.deliveryId(STOPS / 2));
+
+        // Act & Assert : le lot vérifie la version de chaque livraison
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> tourService.applyOptimization(
+                tour.getId(), Tour.AlgorithmType.LIN_KERNIGHAN, RouteSolution.of(problem, reversed)));
+    }
+
+    private Tour createTour(int stops) {
+        Warehouse warehouse = new Warehouse();
+        warehouse.setName("Entrepôt Lots");
+        warehouse.setAddress("1 Rue des Lots, Casablanca");
+        warehouse.setLatitude(33.5731);
+        warehouse.setLongitude(-7.5898);
+        warehouse.setOpeningHours("06:00-22:00");
+        entityManager.persist(warehouse);
+
+        Vehicle vehicle = new Vehicle();
+        vehicle.setLicensePlate("LOT-" + (System.nanoTime() % 1_000_000));
+        vehicle.setType(Vehicle.VehicleType.TRUCK);
+        vehicle.setMaxWeight(5000.0);
+        vehicle.setMaxVolume(40.0);
+        vehicle.setMaxDeliveries(stops);
+        vehicle.setRange(500.0);
+        entityManager.persist(vehicle);
+
+        Tour tour = new Tour();
+        tour.setDate(LocalDate.now());
+        tour.setWarehouse(warehouse);
+        tour.setVehicle(vehicle);
+        tour.setAlgorithmUsed(Tour.AlgorithmType.NEAREST_NEIGHBOR);
+        tour.setTotalDistance(0.0);
+        entityManager.persist(tour);
+
+        for (int i = 0; i < stops; i++) {
+            Customer customer = new Customer();
+            customer.setName("Client " + i);
+            customer.setAddress(i + " Rue Test, Casablanca");
+            customer.setLatitude(33.5 + (i % 10) * 0.01);
+            customer.setLongitude(-7.6 + (i / 10) * 0.01);
+            entityManager.persist(customer);
+
+            Delivery delivery = new Delivery();
+            delivery.setWeight(5.0);
+            delivery.setVolume(0.1);
+            delivery.setCustomer(customer);
+            delivery.setTour(tour);
+            delivery.setOrder(i + 1);
+            entityManager.persist(delivery);
+            tour.getDeliveries().add(delivery);
+        }
+        return tour;
+    }
+
+    /**
+     * Compte les instructions préparées sur toutes les connexions, celles d'Hibernate comme celles de JdbcTemplate :
+     * les statistiques d'Hibernate ne voient pas le lot JDBC de la réécriture de l'ordre.
+     */
+    @TestConfiguration
+    static class StatementCountingConfig {
+
+        @Bean
+        static StatementCounter statementCounter() {
+            return new StatementCounter();
+        }
+
+        @Bean
+        static BeanPostProcessor statementCountingDataSource(StatementCounter statementCounter) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? statementCounter.wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    static final class StatementCounter {
+
+        private final AtomicLong prepared = new AtomicLong();
+
+        void reset() {
+            prepared.set(0);
+        }
+
+        long count() {
+            return prepared.get();
+        }
+
+        DataSource wrap(DataSource target) {
+            return (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{DataSource.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(target, method, args);
+                        return result instanceof Connection connection ? wrap(connection) : result;
+                    });
+        }
+
+        private Connection wrap(Connection target) {
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().startsWith("prepare") || method.getName().equals("createStatement")) {
+                            prepared.incrementAndGet();
+                        }
+                        return invoke(target, method, args);
+                    });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -54,6 +54,7 @@ class SimpleDataIntegrationTest {
                 Delivery.DeliveryStatus.PENDING,
                 null,
                 null,
+                null,
                 null
         );
 
@@ -0,0 +1,71 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Vehicle;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClarkeWrightOptimizerTest {
+
+    private final ClarkeWrightOptimizer optimizer = new ClarkeWrightOptimizer();
+
+    @Test
+    void calculateRoutes_ShouldRespectCapacityAndCoverEachDeliveryOnce() {
+        for (long seed = 1; seed <= 5; seed++) {
+            // Arrange : capacité limitée en poids et en nombre de livraisons, donc plusieurs tournées
+            List<Delivery> deliveries = RoutingFixtures.randomDeliveries(seed, 120);
+            Vehicle vehicle = RoutingFixtures.vehicle(200.0, 8);
+
+            // Act
+            List<List<Delivery>> routes = optimizer.calculateRoutes(RoutingFixtures.warehouse(), deliveries, vehicle);
+
+            // Assert
+            assertTrue(routes.size() > 1, "seed " + seed);
+            Set<Long> served = new HashSet<>();
+            for (List<Delivery> route : routes) {
+                double weight = 0.0;
+                for (Delivery delivery : route) {
+                    weight += delivery.getWeight();
+                    assertTrue(served.add(delivery.getId()), "delivery " + delivery.getId() + " served twice");
+                }
+                assertTrue(weight <= vehicle.getMaxWeight(), "seed " + seed + ": weight " + weight);
+                assertTrue(route.size() <= vehicle.getMaxDeliveries(), "seed " + seed + ": " + route.size() + " stops");
+            }
+            assertEquals(deliveries.size(), served.size(), "seed " + seed);
+        }
+    }
+
+    @Test
+    void calculateRoutes_WithoutVehicle_ShouldMergeIntoSingleRoute() {
+        // Arrange
+        List<Delivery> deliveries = RoutingFixtures.randomDeliveries(2, 50);
+
+        // Act
+        List<List<Delivery>> routes = optimizer.calculateRoutes(RoutingFixtures.warehouse(), deliveries, null);
+
+        // Assert
+        assertEquals(1, routes.size());
+        assertEquals(50, new HashSet<>(routes.get(0)).size());
+        for (int i = 0; i < routes.get(0).size(); i++) {
+            assertEquals(i + 1, routes.get(0).get(i).getOrder());
+        }
+    }
+
+    @Test
+    void solve_WithLimitedVehicle_ShouldChainRoutesIntoPermutation() {
+        // Arrange
+        RoutingProblem problem = RoutingProblem.of(RoutingFixtures.warehouse(),
+                RoutingFixtures.randomDeliveries(4, 60), RoutingFixtures.vehicle(150.0, 6));
+
+        // Act
+        RouteSolution solution = optimizer.solve(problem, CancellationToken.none());
+
+        // Assert
+        assertTrue(RoutingFixtures.isPermutation(solution.getRoute(), 60));
+    }
+}
@@ -0,0 +1,98 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Delivery;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KdTreeTest {
+
+    private static final double EARTH_RADIUS_KM = 6371;
+
+    @Test
+    void nearestNeighborOrder_ShouldMatchLinearScan() {
+        for (long seed = 1; seed <= 10; seed++) {
+            // Arrange
+            RoutingProblem problem = RoutingFixtures.randomProblem(seed, 500);
+
+            // Act
+            int[] route = NearestNeighborOptimizer.buildRoute(KdTree.of(problem));
+
+            // Assert
+            assertArrayEquals(linearScanOrder(problem), route);
+        }
+    }
+
+    @Test
+    void nearestNeighborOrder_WithPointsSharingCoordinates_ShouldMatchLinearScan() {
+        // Arrange : livraisons alignées sur quelques latitudes, beaucoup d'égalités sur l'axe de découpe
+        Random random = new Random(42);
+        List<Delivery> deliveries = new ArrayList<>();
+        for (int i = 1; i <= 300; i++) {
+            deliveries.add(RoutingFixtures.delivery(i, RoutingFixtures.DEPOT_LATITUDE + 0.01 * random.nextInt(5),
+                    RoutingFixtures.DEPOT_LONGITUDE + (random.nextDouble() - 0.5) * 0.2, 1.0, null));
+        }
+        RoutingProblem problem = RoutingProblem.of(RoutingFixtures.warehouse(), deliveries, null);
+
+        // Act
+        int[] route = NearestNeighborOptimizer.buildRoute(KdTree.of(problem));
+
+        // Assert
+        assertArrayEquals(linearScanOrder(problem), route);
+    }
+
+    @Test
+    void remove_ShouldEmptyTreeAndIgnoreRepeatedRemoval() {
+        // Arrange
+        KdTree tree = KdTree.of(RoutingFixtures.randomProblem(3, 3));
+
+        // Act
+        tree.remove(0);
+        tree.remove(0);
+        tree.remove(1);
+
+        // Assert
+        assertFalse(tree.isEmpty());
+        assertEquals(2, tree.nearestToOrigin());
+        tree.remove(2);
+        assertTrue(tree.isEmpty());
+        assertEquals(-1, tree.nearestToOrigin());
+    }
+
+    // Plus proche voisin par parcours linéaire, dans la même projection que le KD-tree
+    private static int[] linearScanOrder(RoutingProblem problem) {
+        int stops = problem.deliveryCount();
+        double cosLat = Math.cos(Math.toRadians(problem.latitude(DistanceMatrix.DEPOT)));
+        double[] xs = new double[stops + 1];
+        double[] ys = new double[stops + 1];
+        for (int i = 0; i <= stops; i++) {
+            xs[i] = Math.toRadians(problem.longitude(i)) * cosLat * EARTH_RADIUS_KM;
+            ys[i] = Math.toRadians(problem.latitude(i)) * EARTH_RADIUS_KM;
+        }
+
+        int[] route = new int[stops];
+        boolean[] visited = new boolean[stops + 1];
+        int current = DistanceMatrix.DEPOT;
+        for (int step = 0; step < stops; step++) {
+            int next = -1;
+            double nextDistance = Double.MAX_VALUE;
+            for (int candidate = 1; candidate <= stops; candidate++) {
+                double dx = xs[candidate] - xs[current];
+                double dy = ys[candidate] - ys[current];
+                double distance = dx * dx + dy * dy;
+                if (!visited[candidate] && distance < nextDistance) {
+                    nextDistance = distance;
+                    next = candidate;
+                }
+            }
+            visited[next] = true;
+            route[step] = next;
+            current = next;
+        }
+        return route;
+    }
+}
@@ -0,0 +1,82 @@
+package com.delivery.optimizer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LinKernighanOptimizerTest {
+
+    private static final double EPSILON = 1e-9;
+
+    private final LinKernighanOptimizer optimizer = new LinKernighanOptimizer();
+
+    @Test
+    void solve_ShouldNeverReturnLongerRouteThanNearestNeighborStart() {
+        for (long seed = 1; seed <= 5; seed++) {
+            // Arrange
+            RoutingProblem problem = RoutingFixtures.randomProblem(seed, 60);
+            int[] start = NearestNeighborOptimizer.buildRoute(KdTree.of(problem));
+
+            // Act
+            RouteSolution solution = optimizer.solve(problem, CancellationToken.none());
+
+            // Assert
+            int[] route = solution.getRoute();
+            assertTrue(RoutingFixtures.isPermutation(route, 60), "seed " + seed);
+            assertTrue(problem.distanceMatrix().routeDistance(route)
+                    <= problem.distanceMatrix().routeDistance(start) + EPSILON, "seed " + seed);
+        }
+    }
+
+    @Test
+    void improver_ShouldNeverLengthenRouteAndKeepEveryStop() {
+        LocalSearch linKernighan = new LocalSearch(List.of(new LinKernighanImprover()));
+        for (long seed = 1; seed <= 5; seed++) {
+            // Arrange : tournée de départ mélangée, donc très croisée
+            RoutingProblem problem = RoutingFixtures.randomProblem(seed, 40);
+            DistanceMatrix matrix = problem.distanceMatrix();
+            int[] start = shuffledRoute(40, new Random(seed));
+            double startDistance = matrix.routeDistance(start);
+
+            // Act
+            int[] route = linKernighan.improve(matrix, start);
+
+            // Assert
+            assertTrue(RoutingFixtures.isPermutation(route, 40), "seed " + seed);
+            assertTrue(matrix.routeDistance(route) <= startDistance + EPSILON, "seed " + seed);
+        }
+    }
+
+    @Test
+    void solve_WithEightStops_ShouldReachBruteForceOptimum() {
+        for (long seed = 1; seed <= 5; seed++) {
+            // Arrange
+            RoutingProblem problem = RoutingFixtures.randomProblem(seed, 8);
+            double optimum = RoutingFixtures.bruteForceOptimum(problem.distanceMatrix());
+
+            // Act
+            RouteSolution solution = optimizer.solve(problem, CancellationToken.none());
+
+            // Assert
+            assertTrue(RoutingFixtures.isPermutation(solution.getRoute(), 8), "seed " + seed);
+            assertEquals(optimum, problem.distanceMatrix().routeDistance(solution.getRoute()), 1e-6, "seed " + seed);
+        }
+    }
+
+    private static int[] shuffledRoute(int stops, Random random) {
+        int[] route = new int[stops];
+        for (int i = 0; i < stops; i++) {
+            route[i] = i + 1;
+        }
+        for (int i = stops - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = route[i];
+            route[i] = route[j];
+            route[j] = swap;
+        }
+        return route;
+    }
+}
@@ -0,0 +1,112 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Delivery;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalSearchTest {
+
+    private static final double EPSILON = 1e-9;
+
+    // Recherche locale par défaut : 2-opt, Or-opt, relocate et file de points actifs
+    private final LocalSearch localSearch = new LocalSearch();
+
+    @Test
+    void improve_WithCrossedRoute_ShouldUncrossAndNeverLengthen() {
+        // Arrange : entrepôt et livraisons sur un cercle, visitées un point sur deux puis l'autre moitié
+        int stops = 15;
+        RoutingProblem problem = circleProblem(stops);
+        int[] crossed = new int[stops];
+        int position = 0;
+        for (int i = 1; i <= stops; i += 2) {
+            crossed[position++] = i;
+        }
+        for (int i = 2; i <= stops; i += 2) {
+            crossed[position++] = i;
+        }
+        DistanceMatrix matrix = problem.distanceMatrix();
+        assertTrue(hasCrossing(problem, crossed));
+
+        // Act
+        int[] route = localSearch.improve(problem, crossed, CancellationToken.none());
+
+        // Assert : en position convexe, une tournée sans croisement est le tour du cercle
+        assertTrue(RoutingFixtures.isPermutation(route, stops));
+        assertFalse(hasCrossing(problem, route));
+        assertTrue(matrix.routeDistance(route) <= matrix.routeDistance(crossed) + EPSILON);
+        int[] circle = new int[stops];
+        for (int i = 0; i < stops; i++) {
+            circle[i] = i + 1;
+        }
+        assertEquals(matrix.routeDistance(circle), matrix.routeDistance(route), 1e-6);
+    }
+
+    @Test
+    void improve_WithRandomRoutes_ShouldRemoveEveryCrossingAndNeverLengthen() {
+        for (long seed = 1; seed <= 5; seed++) {
+            // Arrange : ordre d'identifiant, sans rapport avec la géographie
+            RoutingProblem problem = RoutingFixtures.randomProblem(seed, 60);
+            int[] start = new int[60];
+            for (int i = 0; i < start.length; i++) {
+                start[i] = i + 1;
+            }
+            DistanceMatrix matrix = problem.distanceMatrix();
+
+            // Act
+            int[] route = localSearch.improve(problem, start, CancellationToken.none());
+
+            // Assert
+            assertTrue(RoutingFixtures.isPermutation(route, 60), "seed " + seed);
+            assertTrue(matrix.routeDistance(route) <= matrix.routeDistance(start) + EPSILON, "seed " + seed);
+            assertFalse(hasCrossing(problem, route), "seed " + seed);
+        }
+    }
+
+    // Entrepôt au point 0 d'un cercle d'environ 5 km, livraisons aux points suivants dans le sens trigonométrique
+    private static RoutingProblem circleProblem(int stops) {
+        List<Delivery> deliveries = new ArrayList<>();
+        for (int i = 1; i <= stops; i++) {
+            double angle = 2 * Math.PI * i / (stops + 1);
+            deliveries.add(RoutingFixtures.delivery(i,
+                    RoutingFixtures.DEPOT_LATITUDE - 0.045 + 0.045 * Math.cos(angle),
+                    RoutingFixtures.DEPOT_LONGITUDE + 0.054 * Math.sin(angle), 1.0, null));
+        }
+        // Le premier point du cercle (angle 0) est l'entrepôt lui-même
+        return RoutingProblem.of(RoutingFixtures.warehouse(), deliveries, null);
+    }
+
+    // Vrai si deux arêtes non adjacentes de la tournée fermée (entrepôt compris) se coupent
+    private static boolean hasCrossing(RoutingProblem problem, int[] route) {
+        int[] tour = new int[route.length + 1];
+        System.arraycopy(route, 0, tour, 1, route.length);
+        int edges = tour.length;
+        for (int a = 0; a < edges; a++) {
+            for (int b = a + 2; b < edges; b++) {
+                if (a == 0 && b == edges - 1) {
+                    continue;
+                }
+                if (intersects(problem, tour[a], tour[(a + 1) % edges], tour[b], tour[(b + 1) % edges])) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean intersects(RoutingProblem problem, int p1, int p2, int q1, int q2) {
+        double d1 = orientation(problem, q1, q2, p1);
+        double d2 = orientation(problem, q1, q2, p2);
+        double d3 = orientation(problem, p1, p2, q1);
+        double d4 = orientation(problem, p1, p2, q2);
+        return d1 * d2 < 0 && d3 * d4 < 0;
+    }
+
+    private static double orientation(RoutingProblem problem, int a, int b, int c) {
+        return (problem.longitude(b) - problem.longitude(a)) * (problem.latitude(c) - problem.latitude(a))
+                - (problem.latitude(b) - problem.latitude(a)) * (problem.longitude(c) - problem.longitude(a));
+    }
+}
@@ -0,0 +1,86 @@
+package com.delivery.optimizer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MultiStartOptimizerTest {
+
+    private static final double EPSILON = 1e-9;
+
+    private final LocalSearch localSearch = new LocalSearch();
+    private final MultiStartOptimizer optimizer = new MultiStartOptimizer(localSearch);
+
+    @AfterEach
+    void tearDown() {
+        optimizer.shutdown();
+    }
+
+    @Test
+    void solve_ShouldNeverBeWorseThanPlainNearestNeighborStart() {
+        for (long seed = 1; seed <= 5; seed++) {
+            // Arrange : le départ 0 est le plus proche voisin classique suivi de la recherche locale
+            RoutingProblem problem = RoutingFixtures.randomProblem(seed, 80);
+            DistanceMatrix matrix = problem.distanceMatrix();
+            int[] firstStart = localSearch.improve(matrix, nearestNeighbor(matrix));
+
+            // Act
+            RouteSolution solution = optimizer.solve(problem, CancellationToken.none());
+
+            // Assert
+            assertTrue(RoutingFixtures.isPermutation(solution.getRoute(), 80), "seed " + seed);
+            assertTrue(matrix.routeDistance(solution.getRoute()) <= matrix.routeDistance(firstStart) + EPSILON,
+                    "seed " + seed);
+        }
+    }
+
+    @Test
+    void solve_WithCancelledToken_ShouldStillReturnCompleteRoute() {
+        // Arrange
+        RoutingProblem problem = RoutingFixtures.randomProblem(3, 80);
+        CancellationToken token = CancellationToken.none();
+        token.cancel();
+
+        // Act
+        RouteSolution solution = optimizer.solve(problem, token);
+
+        // Assert : les départs randomisés sont sautés, le départ 0 rend au moins le plus proche voisin
+        assertTrue(RoutingFixtures.isPermutation(solution.getRoute(), 80));
+        assertTrue(solution.getTotalDistance()
+                <= problem.distanceMatrix().routeDistance(nearestNeighbor(problem.distanceMatrix())) + EPSILON);
+    }
+
+    @Test
+    void solve_ShouldBeDeterministic() {
+        // Arrange : départs à graine fixe, résultat indépendant de l'ordre d'exécution sur le pool
+        RoutingProblem problem = RoutingFixtures.randomProblem(5, 80);
+
+        // Act
+        RouteSolution first = optimizer.solve(problem, CancellationToken.none());
+        RouteSolution second = optimizer.solve(RoutingFixtures.randomProblem(5, 80), CancellationToken.none());
+
+        // Assert
+        assertArrayEquals(first.getRoute(), second.getRoute());
+    }
+
+    // Plus proche voisin par parcours linéaire de la matrice, comme le départ 0
+    private static int[] nearestNeighbor(DistanceMatrix matrix) {
+        int stops = matrix.size() - 1;
+        int[] route = new int[stops];
+        boolean[] visited = new boolean[stops + 1];
+        int current = DistanceMatrix.DEPOT;
+        for (int step = 0; step < stops; step++) {
+            int next = -1;
+            for (int candidate = 1; candidate <= stops; candidate++) {
+                if (!visited[candidate] && (next < 0 || matrix.distance(current, candidate) < matrix.distance(current, next))) {
+                    next = candidate;
+                }
+            }
+            visited[next] = true;
+            route[step] = next;
+            current = next;
+        }
+        return route;
+    }
+}
@@ -0,0 +1,124 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Customer;
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Vehicle;
+import com.delivery.entity.Warehouse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Jeux de données des tests d'optimiseurs : entrepôt à Casablanca et livraisons tirées au hasard
+ * (graine fixe) dans un carré d'environ 20 km autour de lui.
+ */
+final class RoutingFixtures {
+
+    static final double DEPOT_LATITUDE = 33.5731;
+    static final double DEPOT_LONGITUDE = -7.5898;
+
+    private RoutingFixtures() {
+    }
+
+    static Warehouse warehouse() {
+        Warehouse warehouse = new Warehouse();
+        warehouse.setId(1L);
+        warehouse.setName("Entrepôt Principal");
+        warehouse.setLatitude(DEPOT_LATITUDE);
+        warehouse.setLongitude(DEPOT_LONGITUDE);
+        warehouse.setOpeningHours("06:00-22:00");
+        return warehouse;
+    }
+
+    static Vehicle vehicle(double maxWeight, int maxDeliveries) {
+        Vehicle vehicle = new Vehicle();
+        vehicle.setId(1L);
+        vehicle.setLicensePlate("ABC123");
+        vehicle.setType(Vehicle.VehicleType.VAN);
+        vehicle.setMaxWeight(maxWeight);
+        vehicle.setMaxVolume(1000.0);
+        vehicle.setMaxDeliveries(maxDeliveries);
+        vehicle.setRange(500.0);
+        return vehicle;
+    }
+
+    static Delivery delivery(long id, double latitude, double longitude, double weight, String timeSlot) {
+        Customer customer = new Customer();
+        customer.setId(id);
+        customer.setName("Client " + id);
+        customer.setLatitude(latitude);
+        customer.setLongitude(longitude);
+
+        Delivery delivery = new Delivery();
+        delivery.setId(id);
+        delivery.setWeight(weight);
+        delivery.setVolume(0.5);
+        delivery.setPreferredTimeSlot(timeSlot);
+        delivery.setCustomer(customer);
+        return delivery;
+    }
+
+    static List<Delivery> randomDeliveries(long seed, int count) {
+        Random random = new Random(seed);
+        List<Delivery> deliveries = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            deliveries.add(delivery(i,
+                    DEPOT_LATITUDE + (random.nextDouble() - 0.5) * 0.2,
+                    DEPOT_LONGITUDE + (random.nextDouble() - 0.5) * 0.2,
+                    1.0 + random.nextInt(50), null));
+        }
+        return deliveries;
+    }
+
+    static RoutingProblem randomProblem(long seed, int count) {
+        return RoutingProblem.of(warehouse(), randomDeliveries(seed, count), null);
+    }
+
+    /**
+     * Vrai si route contient exactement une fois chaque index de 1 à stops.
+     */
+    static boolean isPermutation(int[] route, int stops) {
+        if (route.length != stops) {
+            return false;
+        }
+        boolean[] seen = new boolean[stops + 1];
+        for (int index : route) {
+            if (index < 1 || index > stops || seen[index]) {
+                return false;
+            }
+            seen[index] = true;
+        }
+        return true;
+    }
+
+    /**
+     * Distance de la meilleure tournée par énumération de toutes les permutations (petites instances uniquement).
+     */
+    static double bruteForceOptimum(DistanceMatrix matrix) {
+        int stops = matrix.size() - 1;
+        int[] route = new int[stops];
+        for (int i = 0; i < stops; i++) {
+            route[i] = i + 1;
+        }
+        return permute(matrix, route, 0, Double.MAX_VALUE);
+    }
+
+    private static double permute(DistanceMatrix matrix, int[] route, int position, double best) {
+        if (position == route.length) {
+            return Math.min(best, matrix.routeDistance(route));
+        }
+        for (int i = position; i < route.length; i++) {
+            swap(route, position, i);
+            best = permute(matrix, route, position + 1, best);
+            swap(route, position, i);
+        }
+        return best;
+    }
+
+    private static void swap(int[] route, int i, int j) {
+        int swap = route[i];
+        route[i] = route[j];
+        route[j] = swap;
+    }
+}
@@ -0,0 +1,74 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Delivery;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeWindowOptimizerTest {
+
+    private final TimeWindowOptimizer optimizer = new TimeWindowOptimizer();
+
+    @Test
+    void solve_WithFeasibleSlots_ShouldHaveNoViolation() {
+        for (long seed = 1; seed <= 5; seed++) {
+            // Arrange : créneaux de deux heures autour de l'heure de passage d'une tournée plus proche voisin
+            List<Delivery> deliveries = RoutingFixtures.randomDeliveries(seed, 15);
+            RoutingProblem unconstrained = RoutingProblem.of(RoutingFixtures.warehouse(), deliveries, null);
+            int[] reference = NearestNeighborOptimizer.buildRoute(KdTree.of(unconstrained));
+            double[] arrivals = RouteEvaluator.evaluate(unconstrained, reference).getArrivalMinutes();
+            for (int i = 0; i < reference.length; i++) {
+                deliveries.get(reference[i] - 1).setPreferredTimeSlot(slotAround(arrivals[i]));
+            }
+            RoutingProblem problem = RoutingProblem.of(RoutingFixtures.warehouse(), deliveries, null);
+
+            // Act
+            RouteSolution solution = optimizer.solve(problem, CancellationToken.none());
+
+            // Assert
+            assertTrue(RoutingFixtures.isPermutation(solution.getRoute(), 15), "seed " + seed);
+            assertEquals(0, solution.getMetrics().getTimeWindowViolations(), "seed " + seed);
+        }
+    }
+
+    @Test
+    void solve_WithUnreachableSlot_ShouldNotMakeOnTimeDeliveriesLate() {
+        // Arrange : deux livraisons à plus de 10 km dont le créneau se ferme dès l'ouverture de l'entrepôt
+        List<Delivery> deliveries = RoutingFixtures.randomDeliveries(7, 12);
+        for (Delivery delivery : deliveries) {
+            delivery.setPreferredTimeSlot("08:00-12:00");
+        }
+        deliveries.add(RoutingFixtures.delivery(13, RoutingFixtures.DEPOT_LATITUDE + 0.1,
+                RoutingFixtures.DEPOT_LONGITUDE, 10.0, "06:00-06:05"));
+        deliveries.add(RoutingFixtures.delivery(14, RoutingFixtures.DEPOT_LATITUDE - 0.1,
+                RoutingFixtures.DEPOT_LONGITUDE + 0.05, 10.0, "06:00-06:05"));
+        RoutingProblem problem = RoutingProblem.of(RoutingFixtures.warehouse(), deliveries, null);
+
+        // Act
+        RouteSolution solution = optimizer.solve(problem, CancellationToken.none());
+
+        // Assert : toutes les livraisons sont placées et seules les deux injoignables sont en retard
+        int[] route = solution.getRoute();
+        assertTrue(RoutingFixtures.isPermutation(route, 14));
+        assertEquals(2, solution.getMetrics().getTimeWindowViolations());
+
+        double[] arrivals = solution.getMetrics().getArrivalMinutes();
+        for (int i = 0; i < route.length; i++) {
+            if (route[i] <= 12) {
+                assertTrue(arrivals[i] <= problem.windowEnd(route[i]), "delivery " + route[i] + " is late");
+            }
+        }
+    }
+
+    // Créneau "HH:MM-HH:MM" d'une heure avant à une heure après l'heure donnée
+    private static String slotAround(double minutes) {
+        int arrival = (int) Math.round(minutes);
+        return time(arrival - 60) + "-" + time(arrival + 60);
+    }
+
+    private static String time(int minutes) {
+        return String.format("%02d:%02d", minutes / 60, minutes % 60);
+    }
+}
@@ -0,0 +1,184 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Vehicle;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VehiclePackingTest {
+
+    @Test
+    void pack_ShouldNotExceedVehicleWeight() {
+        // Arrange : deux colis de 60 kg ne tiennent pas ensemble dans 100 kg
+        List<Delivery> deliveries = Arrays.asList(parcel(1L, 60.0, 0.1), parcel(2L, 60.0, 0.1), parcel(3L, 60.0, 0.1));
+        List<Vehicle> fleet = Arrays.asList(vehicle(1L, 100.0, 10.0, 10), vehicle(2L, 100.0, 10.0, 10),
+                vehicle(3L, 100.0, 10.0, 10));
+
+        // Act
+        VehiclePacking.Packing packing = VehiclePacking.pack(deliveries, fleet);
+
+        // Assert
+        assertEquals(3, packing.getLoads().size());
+        assertTrue(packing.getUnassigned().isEmpty());
+        assertWithinLimits(packing);
+    }
+
+    @Test
+    void pack_ShouldNotExceedVehicleVolume() {
+        // Arrange : légers mais encombrants, deux colis de 6 m³ ne tiennent pas ensemble dans 10 m³
+        List<Delivery> deliveries = Arrays.asList(parcel(1L, 1.0, 6.0), parcel(2L, 1.0, 6.0), parcel(3L, 1.0, 6.0));
+        List<Vehicle> fleet = Arrays.asList(vehicle(1L, 100.0, 10.0, 10), vehicle(2L, 100.0, 10.0, 10),
+                vehicle(3L, 100.0, 10.0, 10));
+
+        // Act
+        VehiclePacking.Packing packing = VehiclePacking.pack(deliveries, fleet);
+
+        // Assert
+        assertEquals(3, packing.getLoads().size());
+        assertTrue(packing.getUnassigned().isEmpty());
+        assertWithinLimits(packing);
+    }
+
+    @Test
+    void pack_ShouldNotExceedVehicleDeliveryCount() {
+        // Arrange : cinq petits colis, deux livraisons au plus par véhicule
+        List<Delivery> deliveries = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            deliveries.add(parcel(id, 1.0, 0.1));
+        }
+        List<Vehicle> fleet = Arrays.asList(vehicle(1L, 100.0, 10.0, 2), vehicle(2L, 100.0, 10.0, 2),
+                vehicle(3L, 100.0, 10.0, 2));
+
+        // Act
+        VehiclePacking.Packing packing = VehiclePacking.pack(deliveries, fleet);
+
+        // Assert
+        assertEquals(3, packing.getLoads().size());
+        assertTrue(packing.getUnassigned().isEmpty());
+        assertWithinLimits(packing);
+    }
+
+    @Test
+    void pack_ShouldReturnOversizeParcelsAsUnassignedInInputOrder() {
+        // Arrange : un colis trop lourd et un trop volumineux pour tout véhicule
+        Delivery heavy = parcel(1L, 150.0, 1.0);
+        Delivery small = parcel(2L, 10.0, 1.0);
+        Delivery bulky = parcel(3L, 10.0, 20.0);
+        Delivery other = parcel(4L, 10.0, 1.0);
+        List<Vehicle> fleet = Arrays.asList(vehicle(1L, 100.0, 10.0, 10), vehicle(2L, 100.0, 10.0, 10));
+
+        // Act
+        VehiclePacking.Packing packing = VehiclePacking.pack(Arrays.asList(heavy, small, bulky, other), fleet);
+
+        // Assert
+        assertEquals(Arrays.asList(heavy, bulky), packing.getUnassigned());
+        assertEquals(1, packing.getLoads().size());
+        assertEquals(Set.of(small, other), new HashSet<>(packing.getLoads().get(0)));
+    }
+
+    @Test
+    void pack_ShouldEmptyLightestVehicleIntoTheOthers() {
+        // Arrange : le premier remplissage ouvre trois véhicules, 155 kg tiennent pourtant dans deux de 100 kg
+        List<Delivery> deliveries = Arrays.asList(parcel(1L, 5.0, 10.0), parcel(2L, 70.0, 50.0), parcel(3L, 10.0, 40.0),
+                parcel(4L, 65.0, 65.0), parcel(5L, 5.0, 20.0));
+        List<Vehicle> fleet = Arrays.asList(vehicle(1L, 100.0, 100.0, 10), vehicle(2L, 100.0, 100.0, 10),
+                vehicle(3L, 100.0, 100.0, 10));
+
+        // Act
+        VehiclePacking.Packing packing = VehiclePacking.pack(deliveries, fleet);
+
+        // Assert
+        assertEquals(2, packing.getLoads().size());
+        assertTrue(packing.getUnassigned().isEmpty());
+        assertWithinLimits(packing);
+    }
+
+    @Test
+    void pack_ShouldMoveLoadToSmallestVehicleThatCarriesIt() {
+        // Arrange : le camion, le plus grand, est ouvert en premier mais la camionnette suffit
+        Vehicle truck = vehicle(1L, 1000.0, 10.0, 50);
+        Vehicle van = vehicle(2L, 100.0, 1.0, 10);
+        Vehicle scooter = vehicle(3L, 20.0, 0.2, 2);
+        List<Delivery> deliveries = Arrays.asList(parcel(1L, 10.0, 0.1), parcel(2L, 10.0, 0.1), parcel(3L, 10.0, 0.1));
+
+        // Act
+        VehiclePacking.Packing packing = VehiclePacking.pack(deliveries, Arrays.asList(truck, van, scooter));
+
+        // Assert
+        assertEquals(List.of(van), packing.getVehicles());
+        assertEquals(3, packing.getLoads().get(0).size());
+    }
+
+    @Test
+    void pack_ShouldNeverOverloadVehiclesAndPlaceEachDeliveryOnce() {
+        for (long seed = 1; seed <= 20; seed++) {
+            // Arrange : flotte hétérogène, colis de tailles variées dont certains hors gabarit
+            Random random = new Random(seed);
+            List<Vehicle> fleet = new ArrayList<>();
+            for (long id = 1; id <= 15; id++) {
+                fleet.add(vehicle(id, 100.0 + random.nextInt(900), 1.0 + random.nextInt(15), 5 + random.nextInt(30)));
+            }
+            List<Delivery> deliveries = new ArrayList<>();
+            for (long id = 1; id <= 300; id++) {
+                deliveries.add(parcel(id, 0.5 + random.nextDouble() * 120.0, 0.01 + random.nextDouble() * 2.0));
+            }
+
+            // Act
+            VehiclePacking.Packing packing = VehiclePacking.pack(deliveries, fleet);
+
+            // Assert
+            assertWithinLimits(packing);
+            assertEquals(packing.getVehicles().size(), new HashSet<>(packing.getVehicles()).size(), "seed " + seed);
+            Set<Long> placed = new HashSet<>();
+            for (List<Delivery> load : packing.getLoads()) {
+                for (Delivery delivery : load) {
+                    assertTrue(placed.add(delivery.getId()), "seed " + seed + ": delivery " + delivery.getId() + " placed twice");
+                }
+            }
+            for (Delivery delivery : packing.getUnassigned()) {
+                assertTrue(placed.add(delivery.getId()), "seed " + seed + ": delivery " + delivery.getId() + " placed twice");
+            }
+            assertEquals(deliveries.size(), placed.size(), "seed " + seed);
+        }
+    }
+
+    private static void assertWithinLimits(VehiclePacking.Packing packing) {
+        assertEquals(packing.getVehicles().size(), packing.getLoads().size());
+        for (int k = 0; k < packing.getLoads().size(); k++) {
+            Vehicle vehicle = packing.getVehicles().get(k);
+            List<Delivery> load = packing.getLoads().get(k);
+            double weight = load.stream().mapToDouble(Delivery::getWeight).sum();
+            double volume = load.stream().mapToDouble(Delivery::getVolume).sum();
+            assertFalse(load.isEmpty(), "vehicle " + vehicle.getId() + " has an empty load");
+            assertTrue(vehicle.isValidForDelivery(weight, volume, load.size()),
+                    "vehicle " + vehicle.getId() + " overloaded: " + weight + " kg, " + volume + " m³, " + load.size() + " stops");
+        }
+    }
+
+    private static Vehicle vehicle(Long id, double maxWeight, double maxVolume, int maxDeliveries) {
+        Vehicle vehicle = new Vehicle();
+        vehicle.setId(id);
+        vehicle.setLicensePlate("VP-" + id);
+        vehicle.setType(Vehicle.VehicleType.VAN);
+        vehicle.setMaxWeight(maxWeight);
+        vehicle.setMaxVolume(maxVolume);
+        vehicle.setMaxDeliveries(maxDeliveries);
+        return vehicle;
+    }
+
+    private static Delivery parcel(Long id, double weight, double volume) {
+        Delivery delivery = new Delivery();
+        delivery.setId(id);
+        delivery.setWeight(weight);
+        delivery.setVolume(volume);
+        return delivery;
+    }
+}
@@ -0,0 +1,133 @@
+package com.delivery.service;
+
+import com.delivery.entity.*;
+import com.delivery.optimizer.CancellationToken;
+import com.delivery.optimizer.RouteSolution;
+import com.delivery.optimizer.RoutingProblem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchOptimizationServiceTest {
+
+    @Mock
+    private TourService tourService;
+
+    private BatchOptimizationService batchOptimizationService;
+
+    private Warehouse warehouse;
+
+    @BeforeEach
+    void setUp() {
+        batchOptimizationService = new BatchOptimizationService(tourService, new TourLocks(4, 100));
+
+        warehouse = new Warehouse();
+        warehouse.setId(1L);
+        warehouse.setLatitude(33.5731);
+        warehouse.setLongitude(-7.5898);
+        warehouse.setOpeningHours("06:00-22:00");
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchOptimizationService.shutdown();
+    }
+
+    @Test
+    void optimizeTours_ShouldReportEachTourWithoutAbortingOnFailures() {
+        // Arrange : tournée 1 optimisable, tournée 2 hors capacité, tournée 3 inexistante
+        Tour feasible = tour(1L);
+        Tour overloaded = tour(2L);
+        List<Long> tourIds = Arrays.asList(1L, 2L, 3L);
+        when(tourService.findToursForOptimization(tourIds)).thenReturn(Arrays.asList(overloaded, feasible));
+        lenient().doThrow(new RuntimeException("Le véhicule ne peut pas transporter 2 livraisons"))
+                .when(tourService).checkOptimizable(overloaded);
+        when(tourService.computeOptimization(any(RoutingProblem.class), eq(Tour.AlgorithmType.LIN_KERNIGHAN),
+                any(CancellationToken.class)))
+                .thenAnswer(invocation -> RouteSolution.of(invocation.getArgument(0), new int[]{2, 1}));
+        when(tourService.applyOptimizations(eq(Tour.AlgorithmType.LIN_KERNIGHAN), anyMap())).thenReturn(Set.of(1L));
+
+        // Act
+        OptimizationBatch batch = batchOptimizationService.optimizeTours(tourIds, Tour.AlgorithmType.LIN_KERNIGHAN, null);
+
+        // Assert
+        List<OptimizationBatch.TourOutcome> outcomes = batch.getOutcomes();
+        assertEquals(3, outcomes.size());
+        assertEquals(1L, outcomes.get(0).getTourId());
+        assertEquals(OptimizationBatch.Status.OPTIMIZED, outcomes.get(0).getStatus());
+        assertEquals(50.0, outcomes.get(0).getPreviousDistance());
+        assertNotNull(outcomes.get(0).getTotalDistance());
+        assertEquals(OptimizationBatch.Status.FAILED, outcomes.get(1).getStatus());
+        assertTrue(outcomes.get(1).getError().contains("ne peut pas transporter"));
+        assertEquals("Tour not found with id: 3", outcomes.get(2).getError());
+        assertEquals(1, batch.count(OptimizationBatch.Status.OPTIMIZED));
+        verify(tourService, times(1)).computeOptimization(any(), any(), any());
+        verify(tourService, times(1)).applyOptimizations(eq(Tour.AlgorithmType.LIN_KERNIGHAN),
+                argThat((Map<Long, RouteSolution> solutions) -> solutions.keySet().equals(Set.of(1L))));
+    }
+
+    @Test
+    void optimizeDay_WhenAlgorithmFails_ShouldNotWriteAnything() {
+        // Arrange
+        LocalDate date = LocalDate.of(2024, 1, 15);
+        when(tourService.findToursForOptimization(date)).thenReturn(List.of(tour(1L)));
+        when(tourService.computeOptimization(any(RoutingProblem.class), any(), any(CancellationToken.class)))
+                .thenThrow(new IllegalStateException("Optimizer unavailable"));
+
+        // Act
+        OptimizationBatch batch = batchOptimizationService.optimizeDay(date, Tour.AlgorithmType.NEAREST_NEIGHBOR, null);
+
+        // Assert
+        assertEquals(1, batch.getOutcomes().size());
+        assertEquals(OptimizationBatch.Status.FAILED, batch.getOutcomes().get(0).getStatus());
+        assertEquals("Optimizer unavailable", batch.getOutcomes().get(0).getError());
+        verify(tourService, never()).applyOptimizations(any(), anyMap());
+    }
+
+    private Tour tour(Long id) {
+        Vehicle vehicle = new Vehicle();
+        vehicle.setId(id);
+        vehicle.setMaxWeight(1000.0);
+        vehicle.setMaxVolume(8.0);
+        vehicle.setMaxDeliveries(50);
+
+        Tour tour = new Tour();
+        tour.setId(id);
+        tour.setWarehouse(warehouse);
+        tour.setVehicle(vehicle);
+        tour.setTotalDistance(50.0);
+        tour.setDeliveries(new ArrayList<>(Arrays.asList(delivery(id * 10, 33.5800, -7.6000),
+                delivery(id * 10 + 1, 33.5900, -7.5800))));
+        return tour;
+    }
+
+    private Delivery delivery(Long id, double latitude, double longitude) {
+        Customer customer = new Customer();
+        customer.setLatitude(latitude);
+        customer.setLongitude(longitude);
+
+        Delivery delivery = new Delivery();
+        delivery.setId(id);
+        delivery.setWeight(5.0);
+        delivery.setVolume(0.5);
+        delivery.setCustomer(customer);
+        return delivery;
+    }
+}
@@ -2,6 +2,7 @@ package com.delivery.service;
 
 import com.delivery.entity.*;
 import com.delivery.repository.DeliveryHistoryRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,11 +15,14 @@ import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,6 +31,9 @@ class DeliveryHistoryServiceTest {
     @Mock
     private DeliveryHistoryRepository deliveryHistoryRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
     @InjectMocks
     private DeliveryHistoryService deliveryHistoryService;
 
@@ -99,6 +106,29 @@ class DeliveryHistoryServiceTest {
         verify(deliveryHistoryRepository, times(1)).findByCustomerId(1L);
     }
 
+    @Test
+    void getCustomerDeliveryHistory_WithCursor_ShouldSeekBeforeLastDateAndId() {
+        // Arrange : page de un élément, la requête en lit deux
+        DeliveryHistory older = new DeliveryHistory();
+        older.setId(2L);
+        older.setDeliveryDate(LocalDate.now().minusDays(1));
+        when(deliveryHistoryRepository.findFirstPageByCustomerId(eq(1L), any(Pageable.class)))
+                .thenReturn(Arrays.asList(deliveryHistory, older));
+        when(deliveryHistoryRepository.findPageByCustomerIdBefore(eq(1L), eq(LocalDate.now()), eq(1L), any(Pageable.class)))
+                .thenReturn(Arrays.asList(older));
+
+        // Act
+        KeysetPage<DeliveryHistory> first = deliveryHistoryService.getCustomerDeliveryHistory(1L, null, 1);
+        KeysetPage<DeliveryHistory> last = deliveryHistoryService.getCustomerDeliveryHistory(1L, first.getNextCursor(), 1);
+
+        // Assert : un curseur sans date ne convient pas à cette liste
+        assertEquals(Arrays.asList(deliveryHistory), first.getItems());
+        assertEquals(Arrays.asList(older), last.getItems());
+        assertNull(last.getNextCursor());
+        assertThrows(IllegalArgumentException.class, () ->
+                deliveryHistoryService.getCustomerDeliveryHistory(1L, PageCursor.of(1L).toToken(), 1));
+    }
+
     @Test
     void getTourDeliveryHistory_ShouldReturnTourHistory() {
         // Arrange
@@ -182,4 +212,21 @@ class DeliveryHistoryServiceTest {
         // Assert
         assertEquals(java.time.DayOfWeek.MONDAY, deliveryHistory.getDayOfWeek());
     }
-}
\ No newline at end of file
+
+    @Test
+    void exportDeliveryHistory_ShouldPassEveryRowAndClearSessionPeriodically() {
+        // Arrange : deux lots complets et un lot partiel
+        int rows = 2 * DeliveryHistoryRepository.EXPORT_FETCH_SIZE + 10;
+        when(deliveryHistoryRepository.streamAllForExport())
+                .thenReturn(IntStream.range(0, rows).mapToObj(i -> deliveryHistory));
+        List<DeliveryHistory> exported = new ArrayList<>();
+
+        // Act
+        long count = deliveryHistoryService.exportDeliveryHistory(exported::add);
+
+        // Assert
+        assertEquals(rows, count);
+        assertEquals(rows, exported.size());
+        verify(entityManager, times(2)).clear();
+    }
+}
@@ -10,6 +10,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
 
 import java.util.Arrays;
 import java.util.List;
@@ -17,6 +18,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -72,6 +74,35 @@ class DeliveryServiceTest {
         verify(deliveryRepository, times(1)).findAll();
     }
 
+    @Test
+    void getDeliveries_ShouldReturnPageAndCursorOfLastItem() {
+        // Arrange : la requête lit un élément de plus que la page demandée
+        Delivery second = new Delivery();
+        second.setId(2L);
+        Delivery third = new Delivery();
+        third.setId(3L);
+        when(deliveryRepository.findPageAfter(eq(0L), any(Pageable.class)))
+                .thenReturn(Arrays.asList(delivery, second, third));
+        when(deliveryRepository.findPageAfter(eq(2L), any(Pageable.class))).thenReturn(Arrays.asList(third));
+
+        // Act
+        KeysetPage<Delivery> first = deliveryService.getDeliveries(null, 2);
+        KeysetPage<Delivery> last = deliveryService.getDeliveries(first.getNextCursor(), 2);
+
+        // Assert : la seconde page reprend après l'identifiant 2, sans OFFSET
+        assertEquals(Arrays.asList(delivery, second), first.getItems());
+        assertNotNull(first.getNextCursor());
+        assertEquals(Arrays.asList(third), last.getItems());
+        assertNull(last.getNextCursor());
+    }
+
+    @Test
+    void getDeliveries_WithInvalidCursorOrSize_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> deliveryService.getDeliveries("not a cursor!", 10));
+        assertThrows(IllegalArgumentException.class, () -> deliveryService.getDeliveries(null, KeysetPage.MAX_SIZE + 1));
+        verify(deliveryRepository, never()).findPageAfter(any(), any());
+    }
+
     @Test
     void getDeliveryById_WithValidId_ShouldReturnDeliveryWithCustomer() {
         // Arrange
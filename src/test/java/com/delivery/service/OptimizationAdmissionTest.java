@@ -0,0 +1,115 @@
+package com.delivery.service;
+
+import com.delivery.entity.Tour;
+import com.delivery.exception.OptimizationRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimizationAdmissionTest {
+
+    private OptimizationAdmission admission;
+    private ExecutorService executor;
+    private CountDownLatch running;
+    private CountDownLatch release;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("app.optimizer.admission.max-concurrent", "1")
+                .withProperty("app.optimizer.admission.queue-capacity", "1")
+                .withProperty("app.optimizer.admission.max-wait-ms", "5000")
+                .withProperty("app.optimizer.admission.algorithms.NEAREST_NEIGHBOR.max-wait-ms", "100");
+        admission = new OptimizationAdmission(environment, new SimpleMeterRegistry());
+        executor = Executors.newFixedThreadPool(2);
+        running = new CountDownLatch(1);
+        release = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void admit_WhenQueueFull_ShouldRejectImmediately() throws Exception {
+        // Arrange : une optimisation en cours, une seconde en file (capacité 1)
+        CompletableFuture<String> first = occupy(Tour.AlgorithmType.LIN_KERNIGHAN);
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(
+                () -> admission.admit(Tour.AlgorithmType.LIN_KERNIGHAN, () -> "queued"), executor);
+        waitForQueueDepth(Tour.AlgorithmType.LIN_KERNIGHAN, 1);
+
+        // Act
+        OptimizationRejectedException rejection = assertThrows(OptimizationRejectedException.class,
+                () -> admission.admit(Tour.AlgorithmType.LIN_KERNIGHAN, () -> "rejected"));
+
+        // Assert
+        assertEquals(OptimizationRejectedException.Reason.QUEUE_FULL, rejection.getReason());
+        assertTrue(rejection.getRetryAfterSeconds() >= 1);
+        release.countDown();
+        assertEquals("done", first.get(5, TimeUnit.SECONDS));
+        assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+        assertEquals(0, admission.queueDepth(Tour.AlgorithmType.LIN_KERNIGHAN));
+    }
+
+    @Test
+    void admit_WhenWaitExceedsDeadline_ShouldRejectWithTimeout() throws Exception {
+        // Arrange
+        occupy(Tour.AlgorithmType.NEAREST_NEIGHBOR);
+
+        // Act
+        OptimizationRejectedException rejection = assertThrows(OptimizationRejectedException.class,
+                () -> admission.admit(Tour.AlgorithmType.NEAREST_NEIGHBOR, () -> "late"));
+
+        // Assert
+        assertEquals(OptimizationRejectedException.Reason.QUEUE_TIMEOUT, rejection.getReason());
+        assertEquals(0, admission.queueDepth(Tour.AlgorithmType.NEAREST_NEIGHBOR));
+    }
+
+    @Test
+    void admit_ShouldNotShareLimitsBetweenAlgorithms() throws Exception {
+        // Arrange
+        occupy(Tour.AlgorithmType.LIN_KERNIGHAN);
+
+        // Act & Assert
+        assertEquals("admitted", admission.admit(Tour.AlgorithmType.CLARKE_WRIGHT, () -> "admitted"));
+    }
+
+    // Occupe l'unique place de l'algorithme jusqu'à release
+    private CompletableFuture<String> occupy(Tour.AlgorithmType algorithmType) throws InterruptedException {
+        CompletableFuture<String> future = CompletableFuture.supplyAsync(() -> admission.admit(algorithmType, () -> {
+            running.countDown();
+            await(release);
+            return "done";
+        }), executor);
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        return future;
+    }
+
+    private void waitForQueueDepth(Tour.AlgorithmType algorithmType, int depth) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (admission.queueDepth(algorithmType) < depth && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(depth, admission.queueDepth(algorithmType));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
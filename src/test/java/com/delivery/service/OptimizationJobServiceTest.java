@@ -0,0 +1,165 @@
+package com.delivery.service;
+
+import com.delivery.entity.Tour;
+import com.delivery.entity.Warehouse;
+import com.delivery.optimizer.CancellationToken;
+import com.delivery.optimizer.RouteSolution;
+import com.delivery.optimizer.RoutingProblem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OptimizationJobServiceTest {
+
+    @Mock
+    private TourService tourService;
+
+    private OptimizationJobService optimizationJobService;
+
+    private Tour tour;
+    private RoutingProblem problem;
+
+    @BeforeEach
+    void setUp() {
+        // Un seul thread et une file d'une place : la troisième soumission simultanée est refusée
+        optimizationJobService = new OptimizationJobService(tourService, new TourLocks(4, 1000), 1, 1);
+
+        tour = new Tour();
+        tour.setId(1L);
+
+        Warehouse warehouse = new Warehouse();
+        warehouse.setLatitude(48.8566);
+        warehouse.setLongitude(2.3522);
+        problem = RoutingProblem.of(warehouse, List.of(), null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        optimizationJobService.shutdown();
+    }
+
+    @Test
+    void submit_ShouldOptimizeInBackgroundAndApplyResult() throws InterruptedException {
+        // Arrange
+        RouteSolution solution = RouteSolution.of(problem, new int[0]);
+        when(tourService.getTourById(1L)).thenReturn(Optional.of(tour));
+        when(tourService.loadOptimizationProblem(1L)).thenReturn(problem);
+        when(tourService.computeOptimization(eq(problem), eq(Tour.AlgorithmType.LIN_KERNIGHAN), any(CancellationToken.class)))
+                .thenAnswer(invocation -> {
+                    CancellationToken token = invocation.getArgument(2);
+                    token.reportProgress("lin-kernighan", 42.0);
+                    return solution;
+                });
+
+        // Act
+        OptimizationJob job = optimizationJobService.submit(1L, Tour.AlgorithmType.LIN_KERNIGHAN, null);
+        awaitFinished(job);
+
+        // Assert
+        assertEquals(OptimizationJob.Status.COMPLETED, job.getStatus());
+        assertEquals(0.0, job.getBestDistance(), 1e-9);
+        assertNotNull(job.getFinishedAt());
+        assertTrue(optimizationJobService.getJob(job.getId()).isPresent());
+        verify(tourService, times(1)).applyOptimization(1L, Tour.AlgorithmType.LIN_KERNIGHAN, solution);
+    }
+
+    @Test
+    void submit_WhenOptimizationFails_ShouldMarkJobFailed() throws InterruptedException {
+        // Arrange
+        when(tourService.getTourById(1L)).thenReturn(Optional.of(tour));
+        when(tourService.loadOptimizationProblem(1L)).thenThrow(new RuntimeException("No deliveries found for tour id: 1"));
+
+        // Act
+        OptimizationJob job = optimizationJobService.submit(1L, Tour.AlgorithmType.NEAREST_NEIGHBOR, null);
+        awaitFinished(job);
+
+        // Assert
+        assertEquals(OptimizationJob.Status.FAILED, job.getStatus());
+        assertEquals("No deliveries found for tour id: 1", job.getError());
+        verify(tourService, never()).applyOptimization(any(), any(), any());
+    }
+
+    @Test
+    void submit_WhenTourNotFound_ShouldThrowException() {
+        // Arrange
+        when(tourService.getTourById(99L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(RuntimeException.class,
+                () -> optimizationJobService.submit(99L, Tour.AlgorithmType.NEAREST_NEIGHBOR, null));
+    }
+
+    @Test
+    void submit_WhenQueueFull_ShouldRejectAndCancelQueuedJob() throws InterruptedException {
+        // Arrange : la première tâche occupe le thread jusqu'à la fin du test
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(tourService.getTourById(1L)).thenReturn(Optional.of(tour));
+        when(tourService.loadOptimizationProblem(1L)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return problem;
+        });
+
+        OptimizationJob running = optimizationJobService.submit(1L, Tour.AlgorithmType.NEAREST_NEIGHBOR, null);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        OptimizationJob queued = optimizationJobService.submit(1L, Tour.AlgorithmType.CLARKE_WRIGHT, null);
+
+        // Act & Assert
+        assertThrows(RejectedExecutionException.class,
+                () -> optimizationJobService.submit(1L, Tour.AlgorithmType.LIN_KERNIGHAN, null));
+
+        optimizationJobService.cancelJob(queued.getId());
+        assertEquals(OptimizationJob.Status.CANCELLED, queued.getStatus());
+        assertEquals(OptimizationJob.Status.RUNNING, running.getStatus());
+
+        release.countDown();
+        awaitFinished(running);
+        verify(tourService, times(1)).loadOptimizationProblem(1L);
+    }
+
+    @Test
+    void submit_WhenSameOptimizationActive_ShouldReturnExistingJob() throws InterruptedException {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        when(tourService.getTourById(1L)).thenReturn(Optional.of(tour));
+        when(tourService.loadOptimizationProblem(1L)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return problem;
+        });
+
+        // Act
+        OptimizationJob first = optimizationJobService.submit(1L, Tour.AlgorithmType.NEAREST_NEIGHBOR, null);
+        OptimizationJob duplicate = optimizationJobService.submit(1L, Tour.AlgorithmType.NEAREST_NEIGHBOR, null);
+
+        // Assert
+        assertSame(first, duplicate);
+
+        release.countDown();
+        awaitFinished(first);
+        verify(tourService, times(1)).loadOptimizationProblem(1L);
+    }
+
+    private void awaitFinished(OptimizationJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!job.isFinished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(job.isFinished(), "Job did not finish in time");
+    }
+}
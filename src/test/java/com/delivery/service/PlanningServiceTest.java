@@ -0,0 +1,231 @@
+package com.delivery.service;
+
+import com.delivery.entity.*;
+import com.delivery.exception.OptimizationRejectedException;
+import com.delivery.optimizer.LocalSearch;
+import com.delivery.optimizer.NearestNeighborOptimizer;
+import com.delivery.repository.DeliveryRepository;
+import com.delivery.repository.VehicleRepository;
+import com.delivery.repository.WarehouseRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PlanningServiceTest {
+
+    @Mock
+    private DeliveryRepository deliveryRepository;
+
+    @Mock
+    private VehicleRepository vehicleRepository;
+
+    @Mock
+    private WarehouseRepository warehouseRepository;
+
+    @Mock
+    private TourService tourService;
+
+    private PlanningService planningService;
+
+    private final LocalDate date = LocalDate.of(2024, 1, 15);
+    private Warehouse casablanca;
+    private Warehouse rabat;
+
+    @BeforeEach
+    void setUp() {
+        planningService = new PlanningService(deliveryRepository, vehicleRepository, warehouseRepository,
+                tourService, new NearestNeighborOptimizer(), new LocalSearch(),
+                new OptimizationAdmission(new MockEnvironment(), new SimpleMeterRegistry()));
+
+        casablanca = warehouse(1L, 33.5731, -7.5898);
+        rabat = warehouse(2L, 34.0209, -6.8416);
+    }
+
+    @AfterEach
+    void tearDown() {
+        planningService.shutdown();
+    }
+
+    @Test
+    void planDay_ShouldPlanEachDeliveryFromItsNearestWarehouse() {
+        // Arrange
+        List<Delivery> casablancaDeliveries = Arrays.asList(
+                delivery(1L, 33.5800, -7.6000), delivery(2L, 33.5900, -7.5800), delivery(3L, 33.5600, -7.5700));
+        List<Delivery> rabatDeliveries = Arrays.asList(
+                delivery(4L, 34.0300, -6.8300), delivery(5L, 34.0100, -6.8500));
+        List<Delivery> pending = new ArrayList<>(casablancaDeliveries);
+        pending.addAll(rabatDeliveries);
+
+        when(warehouseRepository.findAll()).thenReturn(Arrays.asList(casablanca, rabat));
+        when(deliveryRepository.findPendingUnassignedDeliveries()).thenReturn(pending);
+        when(vehicleRepository.findAvailableVehicles(date)).thenReturn(Arrays.asList(van(1L), van(2L)));
+        when(tourService.savePlannedTours(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        DailyPlan plan = planningService.planDay(date);
+
+        // Assert
+        assertEquals(2, plan.getTours().size());
+        assertTrue(plan.getUnplannedDeliveries().isEmpty());
+        for (Tour tour : plan.getTours()) {
+            List<Delivery> expected = tour.getWarehouse() == casablanca ? casablancaDeliveries : rabatDeliveries;
+            assertEquals(expected.size(), tour.getDeliveries().size());
+            assertTrue(tour.getDeliveries().containsAll(expected));
+            assertEquals(date, tour.getDate());
+            assertEquals(Tour.TourStatus.PLANNED, tour.getStatus());
+            assertTrue(tour.getTotalDistance() > 0);
+        }
+        verify(tourService, times(1)).savePlannedTours(anyList());
+    }
+
+    @Test
+    void planDay_WhenFleetTooSmall_ShouldReportUnplannedDeliveries() {
+        // Arrange : une seule camionnette limitée à deux livraisons
+        Vehicle van = van(1L);
+        van.setMaxDeliveries(2);
+        List<Delivery> pending = Arrays.asList(
+                delivery(1L, 33.5800, -7.6000), delivery(2L, 33.5900, -7.5800), delivery(3L, 33.5600, -7.5700));
+
+        when(warehouseRepository.findAll()).thenReturn(Arrays.asList(casablanca));
+        when(deliveryRepository.findPendingUnassignedDeliveries()).thenReturn(pending);
+        when(vehicleRepository.findAvailableVehicles(date)).thenReturn(Arrays.asList(van));
+        when(tourService.savePlannedTours(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        DailyPlan plan = planningService.planDay(date);
+
+        // Assert
+        assertEquals(1, plan.getTours().size());
+        assertEquals(2, plan.getTours().get(0).getDeliveries().size());
+        assertEquals(1, plan.getUnplannedDeliveries().size());
+    }
+
+    @Test
+    void planDay_WhenMinimizingVehicles_ShouldPackDeliveriesByCapacity() {
+        // Arrange : 600 + 600 + 300 + 300 kg pour deux camionnettes de 1000 kg ; le balayage dans l'ordre
+        // des angles laisserait une livraison de côté, l'affectation par capacité les place toutes
+        List<Delivery> pending = Arrays.asList(
+                delivery(1L, 33.5731, -7.5698), delivery(2L, 33.5831, -7.5718),
+                delivery(3L, 33.5901, -7.5798), delivery(4L, 33.5931, -7.5898));
+        pending.get(0).setWeight(600.0);
+        pending.get(1).setWeight(600.0);
+        pending.get(2).setWeight(300.0);
+        pending.get(3).setWeight(300.0);
+
+        when(warehouseRepository.findAll()).thenReturn(Arrays.asList(casablanca));
+        when(deliveryRepository.findPendingUnassignedDeliveries()).thenReturn(pending);
+        when(vehicleRepository.findAvailableVehicles(date)).thenReturn(Arrays.asList(van(1L), van(2L)));
+        when(tourService.savePlannedTours(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        DailyPlan plan = planningService.planDay(date, true);
+
+        // Assert
+        assertEquals(2, plan.getTours().size());
+        assertTrue(plan.getUnplannedDeliveries().isEmpty());
+        for (Tour tour : plan.getTours()) {
+            double weight = tour.getDeliveries().stream().mapToDouble(Delivery::getWeight).sum();
+            assertEquals(900.0, weight, 0.001);
+            assertTrue(weight <= tour.getVehicle().getMaxWeight());
+        }
+    }
+
+    @Test
+    void planDay_WhenNoPendingDeliveries_ShouldNotSaveAnything() {
+        // Arrange
+        when(warehouseRepository.findAll()).thenReturn(Arrays.asList(casablanca, rabat));
+        when(deliveryRepository.findPendingUnassignedDeliveries()).thenReturn(new ArrayList<>());
+        when(vehicleRepository.findAvailableVehicles(date)).thenReturn(Arrays.asList(van(1L)));
+
+        // Act
+        DailyPlan plan = planningService.planDay(date);
+
+        // Assert
+        assertTrue(plan.getTours().isEmpty());
+        assertTrue(plan.getUnplannedDeliveries().isEmpty());
+        verify(tourService, never()).savePlannedTours(anyList());
+    }
+
+    @Test
+    void planDay_WhenOptimizerQueueFull_ShouldRejectWithoutSaving() {
+        // Arrange : aucune place ni file pour NEAREST_NEIGHBOR_2OPT
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("app.optimizer.admission.algorithms.NEAREST_NEIGHBOR_2OPT.max-concurrent", "0")
+                .withProperty("app.optimizer.admission.algorithms.NEAREST_NEIGHBOR_2OPT.queue-capacity", "0");
+        planningService.shutdown();
+        planningService = new PlanningService(deliveryRepository, vehicleRepository, warehouseRepository,
+                tourService, new NearestNeighborOptimizer(), new LocalSearch(),
+                new OptimizationAdmission(environment, new SimpleMeterRegistry()));
+        when(warehouseRepository.findAll()).thenReturn(Arrays.asList(casablanca));
+        when(deliveryRepository.findPendingUnassignedDeliveries())
+                .thenReturn(new ArrayList<>(Arrays.asList(delivery(1L, 33.5800, -7.6000))));
+        when(vehicleRepository.findAvailableVehicles(date)).thenReturn(Arrays.asList(van(1L)));
+
+        // Act & Assert
+        assertThrows(OptimizationRejectedException.class, () -> planningService.planDay(date));
+        verify(tourService, never()).savePlannedTours(anyList());
+    }
+
+    @Test
+    void planDay_WhenNoWarehouse_ShouldThrowException() {
+        // Arrange
+        when(warehouseRepository.findAll()).thenReturn(new ArrayList<>());
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> planningService.planDay(date));
+        verify(deliveryRepository, never()).findPendingUnassignedDeliveries();
+    }
+
+    private Warehouse warehouse(Long id, double latitude, double longitude) {
+        Warehouse warehouse = new Warehouse();
+        warehouse.setId(id);
+        warehouse.setName("Entrepôt " + id);
+        warehouse.setAddress("Adresse " + id);
+        warehouse.setLatitude(latitude);
+        warehouse.setLongitude(longitude);
+        warehouse.setOpeningHours("06:00-22:00");
+        return warehouse;
+    }
+
+    private Vehicle van(Long id) {
+        Vehicle vehicle = new Vehicle();
+        vehicle.setId(id);
+        vehicle.setLicensePlate("VAN-00" + id);
+        vehicle.setType(Vehicle.VehicleType.VAN);
+        vehicle.setMaxWeight(1000.0);
+        vehicle.setMaxVolume(10.0);
+        vehicle.setMaxDeliveries(50);
+        vehicle.setRange(200.0);
+        return vehicle;
+    }
+
+    private Delivery delivery(Long id, double latitude, double longitude) {
+        Customer customer = new Customer();
+        customer.setName("Client " + id);
+        customer.setAddress("Adresse " + id);
+        customer.setLatitude(latitude);
+        customer.setLongitude(longitude);
+
+        Delivery delivery = new Delivery();
+        delivery.setId(id);
+        delivery.setWeight(10.0);
+        delivery.setVolume(0.1);
+        delivery.setCustomer(customer);
+        return delivery;
+    }
+}
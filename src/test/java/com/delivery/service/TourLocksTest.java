@@ -0,0 +1,134 @@
+package com.delivery.service;
+
+import com.delivery.optimizer.CancellationToken;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.ConcurrencyFailureException;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TourLocksTest {
+
+    private final TourLocks tourLocks = new TourLocks(4, 100);
+
+    @Test
+    void coalesce_WhenSameRequestInProgress_ShouldShareResult() throws Exception {
+        // Arrange : deux threads dédiés, pour ne pas dépendre de la taille du pool commun
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() -> tourLocks.coalesce("optimize:1",
+                CancellationToken.none(), shared -> {
+            started.countDown();
+            await(release);
+            return executions.incrementAndGet();
+        }), executor);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act
+        CompletableFuture<Integer> duplicate = CompletableFuture.supplyAsync(
+                () -> tourLocks.coalesce("optimize:1", CancellationToken.none(), shared -> executions.incrementAndGet()),
+                executor);
+        Thread.sleep(100);
+        release.countDown();
+
+        // Assert
+        assertEquals(1, first.get(5, TimeUnit.SECONDS));
+        assertEquals(1, duplicate.get(5, TimeUnit.SECONDS));
+        assertEquals(1, executions.get());
+        executor.shutdown();
+    }
+
+    @Test
+    void coalesce_ShouldCancelSharedComputationOnlyWhenEveryRequestLeft() throws Exception {
+        // Arrange : une requête lance le calcul, une seconde s'y joint
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CancellationToken firstRequest = CancellationToken.none();
+        CancellationToken secondRequest = CancellationToken.none();
+        AtomicReference<CancellationToken> sharedToken = new AtomicReference<>();
+        CountDownLatch started = new CountDownLatch(1);
+
+        CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() -> tourLocks.coalesce("optimize:2",
+                firstRequest, shared -> {
+                    sharedToken.set(shared);
+                    started.countDown();
+                    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                    while (!shared.isCancelled() && System.nanoTime() < deadline) {
+                        Thread.onSpinWait();
+                    }
+                    return shared.isCancelled();
+                }), executor);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> second = CompletableFuture.supplyAsync(
+                () -> tourLocks.coalesce("optimize:2", secondRequest, shared -> false), executor);
+        Thread.sleep(100);
+
+        // Act & Assert : la première requête part, le calcul continue pour la seconde
+        firstRequest.cancel();
+        assertFalse(sharedToken.get().isCancelled());
+
+        // Act & Assert : la dernière requête part, le calcul s'arrête et rend son résultat à toutes
+        secondRequest.cancel();
+        assertTrue(first.get(5, TimeUnit.SECONDS));
+        assertTrue(second.get(5, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+
+    @Test
+    void withLock_WhenTourLockedTooLong_ShouldThrowConcurrencyFailure() throws Exception {
+        // Arrange : un autre thread garde le verrou de la tournée 1
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> tourLocks.withLock(1L, () -> {
+            locked.countDown();
+            await(release);
+        }));
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+        // Act & Assert
+        assertThrows(ConcurrencyFailureException.class, () -> tourLocks.withLock(1L, () -> "updated"));
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        assertEquals("updated", tourLocks.withLock(1L, () -> "updated"));
+    }
+
+    @Test
+    void withLocks_WhenOneTourLocked_ShouldThrowAndReleaseTheOthers() throws Exception {
+        // Arrange : un autre thread garde le verrou de la tournée 2 (bande différente de la tournée 1)
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> tourLocks.withLock(2L, () -> {
+            locked.countDown();
+            await(release);
+        }));
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+        // Act & Assert : rien n'est exécuté et le verrou de la tournée 1, déjà pris, est rendu
+        assertThrows(ConcurrencyFailureException.class, () -> tourLocks.withLocks(List.of(2L, 1L), () -> "moved"));
+        assertEquals("updated", CompletableFuture.supplyAsync(() -> tourLocks.withLock(1L, () -> "updated"))
+                .get(5, TimeUnit.SECONDS));
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        assertEquals("moved", tourLocks.withLocks(List.of(2L, 1L), () -> "moved"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
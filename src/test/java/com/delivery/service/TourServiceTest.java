@@ -1,16 +1,27 @@
 package com.delivery.service;
 
 import com.delivery.entity.*;
+import com.delivery.optimizer.CancellationToken;
+import com.delivery.optimizer.DistanceMatrix;
+import com.delivery.optimizer.FleetOptimizer;
+import com.delivery.optimizer.LocalSearch;
+import com.delivery.optimizer.RouteSolution;
+import com.delivery.optimizer.RoutingProblem;
 import com.delivery.optimizer.TourOptimizer;
 import com.delivery.repository.TourRepository;
+import com.delivery.repository.TourSummary;
 import com.delivery.repository.DeliveryRepository;
 import com.delivery.repository.VehicleRepository;
 import com.delivery.repository.WarehouseRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -20,6 +31,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -47,9 +59,24 @@ class TourServiceTest {
     @Mock
     private TourOptimizer clarkeWrightOptimizer;
 
+    @Mock
+    private TourOptimizer multiStartOptimizer;
+
+    @Mock
+    private TourOptimizer linKernighanOptimizer;
+
+    @Mock
+    private TourOptimizer timeWindowOptimizer;
+
     @Mock
     private TourOptimizer aiOptimizer;
 
+    @Mock
+    private FleetOptimizer fleetOptimizer;
+
+    @Mock
+    private LocalSearch localSearch;
+
 
     private TourService tourService;
 
@@ -63,16 +90,7 @@ class TourServiceTest {
     @BeforeEach
     void setUp() {
 
-        this.tourService = new TourService(
-                tourRepository,
-                deliveryRepository,
-                vehicleRepository,
-                warehouseRepository,
-                deliveryHistoryService,
-                nearestNeighborOptimizer,
-                clarkeWrightOptimizer
-
-        );
+        this.tourService = newTourService(aiOptimizer);
 
         // Setup Customer
         customer = new Customer();
@@ -132,6 +150,27 @@ class TourServiceTest {
         tour.setDeliveries(new ArrayList<>(Arrays.asList(delivery1, delivery2)));
     }
 
+    // aiOptimizer null : optimiseur IA désactivé (app.optimizer.active différent de ai)
+    private TourService newTourService(TourOptimizer aiOptimizer) {
+        return new TourService(
+                tourRepository,
+                deliveryRepository,
+                vehicleRepository,
+                warehouseRepository,
+                deliveryHistoryService,
+                nearestNeighborOptimizer,
+                clarkeWrightOptimizer,
+                multiStartOptimizer,
+                linKernighanOptimizer,
+                timeWindowOptimizer,
+                aiOptimizer,
+                fleetOptimizer,
+                localSearch,
+                new OptimizationResultCache(10_000, new SimpleMeterRegistry()),
+                new OptimizationAdmission(new MockEnvironment(), new SimpleMeterRegistry())
+        );
+    }
+
     @Test
     void removeDeliveryFromTour_ShouldMaintainCustomerData() {
         // Arrange
@@ -157,39 +196,367 @@ class TourServiceTest {
     }
 
     @Test
-    void getOptimizedTour_ShouldReturnDeliveriesWithCustomers() {
+    void addDeliveryToTour_ShouldInsertAtCheapestPositionAndUpdateDistance() {
+        // Arrange : delivery3 est entre delivery1 et delivery2 sur le même méridien
+        delivery1.setCustomer(customerAt(33.6000, -7.5898));
+        delivery2.setCustomer(customerAt(33.6200, -7.5898));
+        tour.setTotalDistance(DistanceMatrix.routeDistance(warehouse, Arrays.asList(delivery1, delivery2)));
+        Delivery delivery3 = new Delivery();
+        delivery3.setId(3L);
+        delivery3.setWeight(2.0);
+        delivery3.setVolume(0.2);
+        delivery3.setCustomer(customerAt(33.6100, -7.5898));
+        when(tourRepository.findById(1L)).thenReturn(Optional.of(tour));
+        when(deliveryRepository.findById(3L)).thenReturn(Optional.of(delivery3));
+
+        // Act
+        tourService.addDeliveryToTour(1L, 3L);
+
+        // Assert
+        List<Delivery> expectedRoute = Arrays.asList(delivery1, delivery3, delivery2);
+        assertEquals(expectedRoute, tour.getDeliveries());
+        assertEquals(tour, delivery3.getTour());
+        assertEquals(2, delivery3.getOrder());
+        assertEquals(3, delivery2.getOrder());
+        assertEquals(DistanceMatrix.routeDistance(warehouse, expectedRoute), tour.getTotalDistance(), 1e-9);
+        verify(deliveryRepository, times(1)).save(delivery3);
+    }
+
+    @Test
+    void addDeliveryToTour_WhenCapacityExceeded_ShouldThrowException() {
         // Arrange
-        List<Delivery> optimizedDeliveries = Arrays.asList(delivery1, delivery2);
+        Delivery heavyDelivery = new Delivery();
+        heavyDelivery.setId(3L);
+        heavyDelivery.setWeight(990.0);
+        heavyDelivery.setVolume(0.2);
+        heavyDelivery.setCustomer(customer);
         when(tourRepository.findById(1L)).thenReturn(Optional.of(tour));
-        when(nearestNeighborOptimizer.calculateOptimalTour(
-                eq(warehouse),
-                any(List.class),
-                eq(vehicle)
-        )).thenReturn(optimizedDeliveries);
+        when(deliveryRepository.findById(3L)).thenReturn(Optional.of(heavyDelivery));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> tourService.addDeliveryToTour(1L, 3L));
+        assertNull(heavyDelivery.getTour());
+        assertEquals(2, tour.getDeliveries().size());
+        verify(deliveryRepository, never()).save(any());
+    }
+
+    @Test
+    void removeDeliveryFromTour_ShouldLinkNeighboursAndUpdateDistance() {
+        // Arrange
+        delivery1.setCustomer(customerAt(33.6000, -7.5898));
+        delivery2.setCustomer(customerAt(33.6200, -7.5898));
+        Delivery delivery3 = new Delivery();
+        delivery3.setId(3L);
+        delivery3.setWeight(2.0);
+        delivery3.setVolume(0.2);
+        delivery3.setCustomer(customerAt(33.6100, -7.5600));
+        delivery3.setOrder(2);
+        delivery3.setTour(tour);
+        delivery2.setOrder(3);
+        tour.setDeliveries(new ArrayList<>(Arrays.asList(delivery1, delivery3, delivery2)));
+        tour.setTotalDistance(DistanceMatrix.routeDistance(warehouse, tour.getDeliveries()));
+        when(deliveryRepository.findById(3L)).thenReturn(Optional.of(delivery3));
 
         // Act
-        List<Delivery> result = tourService.getOptimizedTour(1L, Tour.AlgorithmType.NEAREST_NEIGHBOR);
+        tourService.removeDeliveryFromTour(1L, 3L);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(2, result.size());
-        result.forEach(delivery -> {
-            assertNotNull(delivery.getCustomer());
-            assertNotNull(delivery.getAddress());
-        });
+        List<Delivery> expectedRoute = Arrays.asList(delivery1, delivery2);
+        assertEquals(expectedRoute, tour.getDeliveries());
+        assertEquals(2, delivery2.getOrder());
+        assertNull(delivery3.getOrder());
+        assertEquals(DistanceMatrix.routeDistance(warehouse, expectedRoute), tour.getTotalDistance(), 1e-9);
+        verify(tourRepository, never()).save(any());
+    }
+
+    @Test
+    void previewOptimization_ShouldNotModifyDeliveries() {
+        // Arrange
+        delivery2.setCustomer(customerAt(33.6000, -7.5898));
+        when(tourRepository.findForOptimization(1L)).thenReturn(Optional.of(tour));
+        when(nearestNeighborOptimizer.solve(any(RoutingProblem.class), any(CancellationToken.class)))
+                .thenAnswer(invocation -> RouteSolution.of(invocation.getArgument(0), new int[]{2, 1}));
+
+        // Act
+        RouteSolution result = tourService.previewOptimization(1L, Tour.AlgorithmType.NEAREST_NEIGHBOR);
+
+        // Assert
+        assertEquals(Arrays.asList(2L, 1L), result.getDeliveryIds());
+        assertEquals(2, result.getMetrics().getLegDistances().length);
+        assertEquals(1, delivery1.getOrder());
+        assertEquals(2, delivery2.getOrder());
+        assertEquals(Arrays.asList(delivery1, delivery2), tour.getDeliveries());
+        verify(deliveryRepository, never()).save(any());
+        verify(tourRepository, never()).save(any());
+    }
+
+    @Test
+    void previewOptimization_WhenProblemUnchanged_ShouldServeFromCache() {
+        // Arrange
+        delivery2.setCustomer(customerAt(33.6000, -7.5898));
+        when(tourRepository.findForOptimization(1L)).thenReturn(Optional.of(tour));
+        when(nearestNeighborOptimizer.solve(any(RoutingProblem.class), any(CancellationToken.class)))
+                .thenAnswer(invocation -> RouteSolution.of(invocation.getArgument(0), new int[]{2, 1}));
+
+        // Act : même contenu dans un autre ordre, puis une livraison modifiée
+        RouteSolution first = tourService.previewOptimization(1L, Tour.AlgorithmType.NEAREST_NEIGHBOR);
+        tour.setDeliveries(new ArrayList<>(Arrays.asList(delivery2, delivery1)));
+        RouteSolution cached = tourService.previewOptimization(1L, Tour.AlgorithmType.NEAREST_NEIGHBOR);
+        delivery1.setWeight(6.0);
+        tourService.previewOptimization(1L, Tour.AlgorithmType.NEAREST_NEIGHBOR);
+
+        // Assert
+        assertEquals(Arrays.asList(2L, 1L), first.getDeliveryIds());
+        assertEquals(Arrays.asList(2L, 1L), cached.getDeliveryIds());
+        assertEquals(first.getTotalDistance(), cached.getTotalDistance(), 1e-9);
+        verify(nearestNeighborOptimizer, times(2)).solve(any(), any());
     }
 
     @Test
     void getTotalDistance_ShouldCalculateUsingCustomerCoordinates() {
         // Arrange
-        when(tourRepository.findById(1L)).thenReturn(Optional.of(tour));
-        when(nearestNeighborOptimizer.calculateTotalDistance(eq(warehouse), any(List.class))).thenReturn(42.5);
+        delivery2.setCustomer(customerAt(33.6000, -7.5898));
+        List<Delivery> optimizedDeliveries = Arrays.asList(delivery1, delivery2);
+        when(tourRepository.findForOptimization(1L)).thenReturn(Optional.of(tour));
+        when(nearestNeighborOptimizer.solve(any(RoutingProblem.class), any(CancellationToken.class)))
+                .thenAnswer(invocation -> RouteSolution.of(invocation.getArgument(0), new int[]{1, 2}));
 
         // Act
         Double result = tourService.getTotalDistance(1L, Tour.AlgorithmType.NEAREST_NEIGHBOR);
 
         // Assert
         assertNotNull(result);
-        assertEquals(42.5, result);
+        assertEquals(DistanceMatrix.routeDistance(warehouse, optimizedDeliveries), result, 1e-9);
+        assertTrue(result > 0);
+        verify(nearestNeighborOptimizer, times(1)).solve(any(), any());
+    }
+
+    @Test
+    void previewOptimization_WithAiOptimizer_ShouldSolveWithAiOnSnapshot() {
+        // Arrange
+        delivery2.setCustomer(customerAt(33.6000, -7.5898));
+        when(tourRepository.findForOptimization(1L)).thenReturn(Optional.of(tour));
+        when(aiOptimizer.solve(any(RoutingProblem.class), any(CancellationToken.class)))
+                .thenAnswer(invocation -> RouteSolution.of(invocation.getArgument(0), new int[]{2, 1}));
+
+        // Act
+        RouteSolution result = tourService.previewOptimization(1L, Tour.AlgorithmType.AI_OPTIMIZER);
+
+        // Assert : l'instantané porte les noms et adresses dont l'IA a besoin
+        assertEquals(Arrays.asList(2L, 1L), result.getDeliveryIds());
+        verify(aiOptimizer).solve(argThat(problem -> "Client Test".equals(problem.name(1))
+                && "123 Rue Test, Casablanca".equals(problem.address(1))
+                && "Entrepôt Principal".equals(problem.name(DistanceMatrix.DEPOT))), any());
+        verify(clarkeWrightOptimizer, never()).solve(any(), any());
+    }
+
+    @Test
+    void previewOptimization_WithAiOptimizerDisabled_ShouldRejectAlgorithm() {
+        // Arrange
+        TourService withoutAi = newTourService(null);
+        when(tourRepository.findForOptimization(1L)).thenReturn(Optional.of(tour));
+
+        // Act & Assert : pas de repli silencieux sur un autre algorithme
+        assertThrows(IllegalArgumentException.class,
+                () -> withoutAi.previewOptimization(1L, Tour.AlgorithmType.AI_OPTIMIZER));
+        verify(clarkeWrightOptimizer, never()).solve(any(), any());
+    }
+
+    @Test
+    void computeAndApplyOptimization_WithLocalSearch_ShouldRecordDistanceGain() {
+        // Arrange
+        delivery1.setCustomer(customerAt(33.6000, -7.5898));
+        delivery2.setCustomer(customerAt(33.5731, -7.5600));
+        Delivery delivery3 = new Delivery();
+        delivery3.setId(3L);
+        delivery3.setWeight(2.0);
+        delivery3.setVolume(0.2);
+        delivery3.setCustomer(customer);
+
+        tour.setDeliveries(new ArrayList<>(Arrays.asList(delivery1, delivery2, delivery3)));
+
+        // Index du problème : 1 = delivery1, 2 = delivery2, 3 = delivery3
+        List<Delivery> constructedRoute = Arrays.asList(delivery1, delivery3, delivery2);
+        List<Delivery> improvedRoute = Arrays.asList(delivery3, delivery1, delivery2);
+        when(tourRepository.findForOptimization(1L)).thenReturn(Optional.of(tour));
+        when(nearestNeighborOptimizer.solve(any(RoutingProblem.class), any(CancellationToken.class)))
+                .thenAnswer(invocation -> RouteSolution.of(invocation.getArgument(0), new int[]{1, 3, 2}));
+        when(localSearch.improve(any(RoutingProblem.class), eq(new int[]{1, 3, 2}), any(CancellationToken.class)))
+                .thenReturn(new int[]{3, 1, 2});
+        when(tourRepository.findById(1L)).thenReturn(Optional.of(tour));
+        when(deliveryRepository.findIdsByTourId(1L)).thenReturn(Arrays.asList(1L, 2L, 3L));
+        when(tourRepository.save(tour)).thenReturn(tour);
+
+        // Act : même enchaînement que le contrôleur et les tâches de fond
+        RoutingProblem problem = tourService.loadOptimizationProblem(1L);
+        RouteSolution solution = tourService.computeOptimization(problem, Tour.AlgorithmType.NEAREST_NEIGHBOR_2OPT,
+                CancellationToken.none());
+        Tour result = tourService.applyOptimization(1L, Tour.AlgorithmType.NEAREST_NEIGHBOR_2OPT, solution);
+
+        // Assert
+        double constructedDistance = DistanceMatrix.routeDistance(warehouse, constructedRoute);
+        double improvedDistance = DistanceMatrix.routeDistance(warehouse, improvedRoute);
+        assertEquals(Tour.AlgorithmType.NEAREST_NEIGHBOR_2OPT, result.getAlgorithmUsed());
+        assertEquals(improvedDistance, result.getTotalDistance(), 1e-9);
+        assertEquals(constructedDistance - improvedDistance, result.getDistanceGain(), 1e-9);
+        assertTrue(result.getDistanceGain() > 0);
+        verify(deliveryRepository).updateRouteOrder(eq(1L), eq(Arrays.asList(3L, 1L, 2L)), anyMap());
+        verify(nearestNeighborOptimizer, times(1)).solve(any(), any());
+        verify(clarkeWrightOptimizer, never()).solve(any(), any());
+    }
+
+    @Test
+    void applyOptimization_WhenTourChangedSinceSnapshot_ShouldRejectWithoutWriting() {
+        // Arrange : instantané lu en version 3, tournée modifiée depuis (version 4)
+        tour.setVersion(3L);
+        RoutingProblem problem = RoutingProblem.of(tour);
+        tour.setVersion(4L);
+        when(tourRepository.findById(1L)).thenReturn(Optional.of(tour));
+        when(deliveryRepository.findIdsByTourId(1L)).thenReturn(Arrays.asList(1L, 2L));
+
+        // Act & Assert
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> tourService.applyOptimization(1L,
+                Tour.AlgorithmType.NEAREST_NEIGHBOR, RouteSolution.of(problem, new int[]{2, 1})));
+        verify(deliveryRepository, never()).updateRouteOrder(any(), any(), anyMap());
+        verify(tourRepository, never()).save(any());
+    }
+
+    @Test
+    void applyOptimization_WhenDeliveryAddedSinceSnapshot_ShouldRejectWithoutWriting() {
+        // Arrange
+        RoutingProblem problem = RoutingProblem.of(tour);
+        when(tourRepository.findById(1L)).thenReturn(Optional.of(tour));
+        when(deliveryRepository.findIdsByTourId(1L)).thenReturn(Arrays.asList(1L, 2L, 3L));
+
+        // Act & Assert
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> tourService.applyOptimization(1L,
+                Tour.AlgorithmType.NEAREST_NEIGHBOR, RouteSolution.of(problem, new int[]{2, 1})));
+        verify(deliveryRepository, never()).updateRouteOrder(any(), any(), anyMap());
+    }
+
+    @Test
+    void getTourOverviewsByDate_ShouldGroupDeliveryIdsWithoutLoadingTours() {
+        // Arrange : deux tournées, la seconde sans livraison
+        LocalDate date = LocalDate.of(2024, 1, 15);
+        TourSummary first = mock(TourSummary.class);
+        TourSummary second = mock(TourSummary.class);
+        when(first.getId()).thenReturn(1L);
+        when(second.getId()).thenReturn(2L);
+        when(tourRepository.findSummariesByDateAfter(eq(date), eq(0L), any(Pageable.class)))
+                .thenReturn(Arrays.asList(first, second));
+        when(deliveryRepository.findTourDeliveryIdsByTourIds(Arrays.asList(1L, 2L))).thenReturn(Arrays.asList(
+                new Object[]{1L, 12L}, new Object[]{1L, 10L}, new Object[]{1L, 11L}));
+
+        // Act
+        KeysetPage<TourOverview> page = tourService.getTourOverviewsByDate(date, null, 10);
+
+        // Assert : ordre de passage conservé, aucune entité Tour lue
+        List<TourOverview> overviews = page.getItems();
+        assertEquals(2, overviews.size());
+        assertNull(page.getNextCursor());
+        assertSame(first, overviews.get(0).getSummary());
+        assertEquals(Arrays.asList(12L, 10L, 11L), overviews.get(0).getDeliveryIds());
+        assertTrue(overviews.get(1).getDeliveryIds().isEmpty());
+        verify(tourRepository, never()).findByDate(any());
+    }
+
+    @Test
+    void updateTour_WithStaleVersion_ShouldThrowConflict() {
+        // Arrange : la tournée a été modifiée depuis la lecture du client
+        tour.setVersion(3L);
+        Tour details = new Tour();
+        details.setVersion(2L);
+        details.setTotalDistance(12.0);
+        when(tourRepository.findById(1L)).thenReturn(Optional.of(tour));
+
+        // Act & Assert
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> tourService.updateTour(1L, details));
+        assertNotEquals(12.0, tour.getTotalDistance());
+        verify(tourRepository, never()).save(any());
+    }
+
+    @Test
+    void planWarehouseTours_ShouldAssignOneVehiclePerRoute() {
+        // Arrange
+        Vehicle secondVehicle = new Vehicle();
+        secondVehicle.setId(2L);
+        secondVehicle.setMaxWeight(8.0);
+        secondVehicle.setMaxVolume(1.0);
+        secondVehicle.setMaxDeliveries(10);
+
+        LocalDate date = LocalDate.now();
+        when(warehouseRepository.findById(1L)).thenReturn(Optional.of(warehouse));
+        when(deliveryRepository.findPendingUnassignedDeliveries()).thenReturn(Arrays.asList(delivery1, delivery2));
+        when(tourRepository.findByDate(date)).thenReturn(new ArrayList<>());
+        when(vehicleRepository.findSuitableVehicles(10.0, 1.0)).thenReturn(new ArrayList<>(Arrays.asList(vehicle, secondVehicle)));
+        when(fleetOptimizer.calculateRoutes(eq(warehouse), any(List.class), eq(vehicle)))
+                .thenReturn(Arrays.asList(Arrays.asList(delivery2), Arrays.asList(delivery1)));
+        when(tourRepository.saveAll(any(List.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        List<Tour> result = tourService.planWarehouseTours(1L, date, null);
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals(vehicle, result.get(0).getVehicle());
+        assertEquals(secondVehicle, result.get(1).getVehicle());
+        assertEquals(Tour.AlgorithmType.CLARKE_WRIGHT, result.get(1).getAlgorithmUsed());
+        assertEquals(result.get(1), delivery1.getTour());
+        verify(deliveryRepository, times(1)).saveAll(any(List.class));
+    }
+
+    @Test
+    void planWarehouseTours_WithAssignedOrMissingDeliveries_ShouldRejectRequest() {
+        // Arrange : delivery1 appartient déjà à une tournée, l'identifiant 9 n'existe pas
+        delivery1.setTour(tour);
+        when(warehouseRepository.findById(1L)).thenReturn(Optional.of(warehouse));
+        when(deliveryRepository.findAllById(any())).thenReturn(Arrays.asList(delivery1, delivery2));
+
+        // Act & Assert
+        IllegalArgumentException missing = assertThrows(IllegalArgumentException.class,
+                () -> tourService.planWarehouseTours(1L, LocalDate.now(), Arrays.asList(1L, 2L, 9L)));
+        assertTrue(missing.getMessage().contains("[9]"));
+        IllegalArgumentException assigned = assertThrows(IllegalArgumentException.class,
+                () -> tourService.planWarehouseTours(1L, LocalDate.now(), Arrays.asList(1L, 2L)));
+        assertTrue(assigned.getMessage().contains("[1]"));
+        verify(tourRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void planWarehouseTours_WithoutIds_ShouldOnlyPlanDeliveriesNearestToWarehouse() {
+        // Arrange : delivery2 est plus proche d'un autre entrepôt
+        delivery1.setCustomer(customerAt(33.5800, -7.5900));
+        delivery2.setCustomer(customerAt(34.0200, -6.8400));
+        Warehouse rabat = new Warehouse();
+        rabat.setId(2L);
+        rabat.setLatitude(34.0209);
+        rabat.setLongitude(-6.8416);
+
+        LocalDate date = LocalDate.now();
+        when(warehouseRepository.findById(1L)).thenReturn(Optional.of(warehouse));
+        when(warehouseRepository.findAll()).thenReturn(Arrays.asList(warehouse, rabat));
+        when(deliveryRepository.findPendingUnassignedDeliveries()).thenReturn(Arrays.asList(delivery1, delivery2));
+        when(tourRepository.findByDate(date)).thenReturn(new ArrayList<>());
+        when(vehicleRepository.findSuitableVehicles(5.0, 0.5)).thenReturn(new ArrayList<>(Arrays.asList(vehicle)));
+        when(fleetOptimizer.calculateRoutes(eq(warehouse), eq(Arrays.asList(delivery1)), eq(vehicle)))
+                .thenReturn(Arrays.asList(Arrays.asList(delivery1)));
+        when(tourRepository.saveAll(any(List.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        List<Tour> result = tourService.planWarehouseTours(1L, date, null);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(Arrays.asList(delivery1), result.get(0).getDeliveries());
+        assertNull(delivery2.getTour());
+    }
+
+    private Customer customerAt(double latitude, double longitude) {
+        Customer other = new Customer();
+        other.setName("Client " + latitude + "," + longitude);
+        other.setAddress("Casablanca");
+        other.setLatitude(latitude);
+        other.setLongitude(longitude);
+        return other;
     }
-}
\ No newline at end of file
+}